@@ -0,0 +1,46 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.regex.Pattern;
+
+/**
+ * Одноразово хешує паролі, які старі облікові записи зберігають відкритим текстом.
+ * <p>
+ * Після міграції {@code access_key} завжди містить хеш BCrypt, тож вхід порівнює паролі
+ * лише через BCrypt і час відповіді не залежить від формату збереженого значення.
+ * Використовується мінімальна вартість {@code password.bcrypt.min-cost}; якщо сервер
+ * підбирає більшу, хеш оновлюється при наступному вході.
+ * </p>
+ */
+public class V5__Hash_plaintext_passwords extends BaseJavaMigration {
+
+    /** Вартість BCrypt, що дорівнює типовому значенню {@code password.bcrypt.min-cost} */
+    private static final int COST = 10;
+
+    private static final Pattern BCRYPT = Pattern.compile("\\A\\$2([ayb])?\\$\\d\\d\\$[./0-9A-Za-z]{53}");
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(COST);
+        try (Statement select = context.getConnection().createStatement();
+             ResultSet rows = select.executeQuery("SELECT id, access_key FROM personal_model");
+             PreparedStatement update = context.getConnection()
+                     .prepareStatement("UPDATE personal_model SET access_key = ? WHERE id = ?")) {
+            while (rows.next()) {
+                String accessKey = rows.getString("access_key");
+                if (accessKey != null && !BCRYPT.matcher(accessKey).matches()) {
+                    update.setString(1, encoder.encode(accessKey));
+                    update.setLong(2, rows.getLong("id"));
+                    update.addBatch();
+                }
+            }
+            update.executeBatch();
+        }
+    }
+}
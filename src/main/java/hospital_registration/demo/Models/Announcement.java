@@ -2,6 +2,8 @@ package hospital_registration.demo.Models;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.data.annotation.Id;
 
 import java.time.LocalDateTime;
@@ -9,8 +11,12 @@ import java.time.LocalDateTime;
 /**
  * Клас представляє сутність оголошення в системі реєстрації лікарні.
  * Містить назву, вміст та дату створення оголошення.
+ * Сутність зберігається в кеші другого рівня (регіон {@code announcements}).
  */
 @Entity
+@Table(indexes = @Index(name = "idx_announcement_created", columnList = "createdAt, id"))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "announcements")
 public class Announcement {
     @jakarta.persistence.Id
     @Id
@@ -0,0 +1,60 @@
+package hospital_registration.demo.Models;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Позначка прочитання оголошень співробітником.
+ * <p>
+ * Зберігається лише найбільший ID оголошення, яке співробітник бачив у стрічці:
+ * ID оголошень зростають, тому всі оголошення з меншим або рівним ID вважаються
+ * прочитаними, а непрочитані — це ті, що з'явилися пізніше.
+ * </p>
+ */
+@Entity
+@Table(name = "announcement_read_mark")
+public class AnnouncementReadMark {
+
+    /** ID співробітника. */
+    @Id
+    @Column(name = "staff_id")
+    private Long staffId;
+
+    /** Найбільший ID прочитаного оголошення. */
+    @Column(name = "last_read_id", nullable = false)
+    private Long lastReadId;
+
+    /** Час останнього оновлення позначки. */
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    /**
+     * Конструктор без параметрів для JPA.
+     */
+    protected AnnouncementReadMark() {
+    }
+
+    /**
+     * @param staffId    ID співробітника
+     * @param lastReadId найбільший ID прочитаного оголошення
+     * @param updatedAt  час оновлення
+     */
+    public AnnouncementReadMark(Long staffId, Long lastReadId, LocalDateTime updatedAt) {
+        this.staffId = staffId;
+        this.lastReadId = lastReadId;
+        this.updatedAt = updatedAt;
+    }
+
+    public Long getStaffId() {
+        return staffId;
+    }
+
+    public Long getLastReadId() {
+        return lastReadId;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
@@ -0,0 +1,142 @@
+package hospital_registration.demo.Models;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Запис черги вихідних email-повідомлень (outbox).
+ * <p>
+ * Записи створюються в тій самій транзакції, що й дані, про які вони сповіщають
+ * (наприклад, оголошення), і надсилаються у фоновому режимі
+ * {@link hospital_registration.demo.service.EmailOutboxDispatcher}.
+ * </p>
+ */
+@Entity
+@Table(name = "email_outbox",
+        indexes = @Index(name = "idx_email_outbox_due", columnList = "status, next_attempt_at"))
+public class EmailOutbox {
+
+    /** Стан запису в черзі. */
+    public enum Status {
+        /** Очікує надсилання (або повторної спроби). */
+        PENDING,
+        /** Успішно надіслано. */
+        SENT,
+        /** Вичерпано кількість спроб. */
+        FAILED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /** Адреса одержувача. */
+    @Column(nullable = false)
+    private String recipient;
+
+    /** Тема листа. */
+    @Column(nullable = false)
+    private String subject;
+
+    /** Вміст листа (HTML). */
+    @Column(columnDefinition = "TEXT")
+    private String body;
+
+    /** Поточний стан запису. */
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Status status = Status.PENDING;
+
+    /** Кількість виконаних спроб надсилання. */
+    @Column(nullable = false)
+    private int attempts;
+
+    /** Час, не раніше якого запис можна брати в роботу. */
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    /** Текст останньої помилки надсилання. */
+    @Column(length = 500)
+    private String lastError;
+
+    /** Час створення запису. */
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    /** Час успішного надсилання. */
+    private LocalDateTime sentAt;
+
+    /**
+     * Конструктор без параметрів.
+     */
+    public EmailOutbox() {
+    }
+
+    /**
+     * @param recipient адреса одержувача
+     * @param subject   тема листа
+     * @param body      вміст листа
+     */
+    public EmailOutbox(String recipient, String subject, String body) {
+        this.recipient = recipient;
+        this.subject = subject;
+        this.body = body;
+    }
+
+    /**
+     * Заповнює час створення і час першої спроби перед збереженням.
+     */
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = LocalDateTime.now();
+        if (this.nextAttemptAt == null) {
+            this.nextAttemptAt = this.createdAt;
+        }
+    }
+
+    /** @return ID запису */
+    public Long getId() { return id; }
+
+    /** @return адреса одержувача */
+    public String getRecipient() { return recipient; }
+
+    /** @return тема листа */
+    public String getSubject() { return subject; }
+
+    /** @return вміст листа */
+    public String getBody() { return body; }
+
+    /** @return стан запису */
+    public Status getStatus() { return status; }
+
+    /** @param status стан запису */
+    public void setStatus(Status status) { this.status = status; }
+
+    /** @return кількість виконаних спроб */
+    public int getAttempts() { return attempts; }
+
+    /** @param attempts кількість виконаних спроб */
+    public void setAttempts(int attempts) { this.attempts = attempts; }
+
+    /** @return час наступної спроби */
+    public LocalDateTime getNextAttemptAt() { return nextAttemptAt; }
+
+    /** @param nextAttemptAt час наступної спроби */
+    public void setNextAttemptAt(LocalDateTime nextAttemptAt) { this.nextAttemptAt = nextAttemptAt; }
+
+    /** @return текст останньої помилки */
+    public String getLastError() { return lastError; }
+
+    /** @param lastError текст останньої помилки */
+    public void setLastError(String lastError) { this.lastError = lastError; }
+
+    /** @return час створення запису */
+    public LocalDateTime getCreatedAt() { return createdAt; }
+
+    /** @return час успішного надсилання */
+    public LocalDateTime getSentAt() { return sentAt; }
+
+    /** @param sentAt час успішного надсилання */
+    public void setSentAt(LocalDateTime sentAt) { this.sentAt = sentAt; }
+}
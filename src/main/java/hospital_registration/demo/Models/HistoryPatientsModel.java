@@ -13,7 +13,12 @@ import java.time.LocalDateTime;
  * Містить особисті дані, інформацію про лікаря, діагноз, дати перебування та інші деталі.
  */
 @Entity
-@Table(name = "history_patients")
+@Table(name = "history_patients", indexes = {
+        @Index(name = "idx_history_patients_doctor_from", columnList = "doctor_id, appointment_date_from"),
+        @Index(name = "idx_history_patients_from", columnList = "appointment_date_from"),
+        @Index(name = "idx_history_patients_to", columnList = "appointment_date_to"),
+        @Index(name = "idx_history_patients_bed", columnList = "ward, bed, appointment_date_to")
+})
 public class HistoryPatientsModel {
 
     @Id
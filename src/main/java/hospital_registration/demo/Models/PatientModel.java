@@ -11,7 +11,13 @@ import java.time.LocalDateTime;
  * Містить дані про особисту інформацію, стан здоров’я, лікаря, дати прийому та виписки, палату, тощо.
  */
 @Entity
-@Table(name = "patients")
+@Table(name = "patients", indexes = {
+        @Index(name = "idx_patients_doctor_from", columnList = "doctor_id, appointment_date_from, id"),
+        @Index(name = "idx_patients_doctor_to", columnList = "doctor_id, appointment_date_to"),
+        @Index(name = "idx_patients_from", columnList = "appointment_date_from, id"),
+        @Index(name = "idx_patients_to", columnList = "appointment_date_to"),
+        @Index(name = "idx_patients_bed", columnList = "ward, bed, appointment_date_to")
+})
 public class PatientModel {
 
     /** Унікальний ідентифікатор пацієнта */
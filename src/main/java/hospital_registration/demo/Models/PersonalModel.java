@@ -2,12 +2,21 @@ package hospital_registration.demo.Models;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /**
  * Представляє персонал лікарні (наприклад, лікаря чи медичну сестру).
  * Містить особисту інформацію, логін, спеціалізацію та контактні дані.
+ * Записи змінюються рідко, тому сутність зберігається в кеші другого рівня (регіон {@code staff}).
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "staff")
+@Table(indexes = {
+        @Index(name = "idx_personal_model_phone", columnList = "phone"),
+        @Index(name = "idx_personal_model_role", columnList = "role")
+})
 public class PersonalModel {
 
     /** Унікальний ідентифікатор персоналу */
@@ -34,6 +43,14 @@ public class PersonalModel {
     @NotBlank(message = "Позиція не може бути порожньою")
     private String position;
 
+    /**
+     * Роль, обчислена з посади. Зберігається в базі, щоб перевірки доступу
+     * порівнювали значення enum, а не рядки посад.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16)
+    private StaffRole role;
+
     /** Спеціалізація (наприклад, кардіолог, хірург). */
     @NotBlank(message = "Спеціалізація не може бути порожньою")
     private String specialty;
@@ -70,6 +87,7 @@ public class PersonalModel {
         this.login = login;
         this.phone = phone;
         this.position = position;
+        this.role = StaffRole.fromPosition(position);
         this.specialty = specialty;
         this.access_key = access_key;
         this.email = email;
@@ -120,9 +138,25 @@ public class PersonalModel {
         return position;
     }
 
-    /** @param position посада */
+    /** @param position посада; роль перераховується автоматично */
     public void setPosition(String position) {
         this.position = position;
+        this.role = StaffRole.fromPosition(position);
+    }
+
+    /** @return роль співробітника */
+    public StaffRole getRole() {
+        return role;
+    }
+
+    /**
+     * Узгоджує роль із посадою перед збереженням. Також використовується
+     * для заповнення ролі у записах, створених до появи цього поля.
+     */
+    @PrePersist
+    @PreUpdate
+    public void refreshRole() {
+        this.role = StaffRole.fromPosition(position);
     }
 
     /** @return ключ доступу */
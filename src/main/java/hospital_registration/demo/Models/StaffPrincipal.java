@@ -0,0 +1,94 @@
+package hospital_registration.demo.Models;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Компактний незмінний опис авторизованого користувача, який зберігається в HTTP-сесії
+ * під ключем {@code loggedInUser}.
+ * <p>
+ * На відміну від сутності {@link PersonalModel}, не містить хешу пароля та контактних даних,
+ * тому сесія займає кілька сотень байтів і її легко серіалізувати чи реплікувати.
+ * Профіль співробітника з контактними даними за потреби завантажується через
+ * {@link hospital_registration.demo.service.StaffProfileService}.
+ * </p>
+ */
+public final class StaffPrincipal implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 2L;
+
+    /** Ідентифікатор співробітника */
+    private final Long id;
+
+    /** Роль співробітника */
+    private final StaffRole role;
+
+    /** Ім'я для відображення */
+    private final String fullName;
+
+    /** Посада, як її записано в профілі */
+    private final String position;
+
+    /**
+     * @param id       ідентифікатор співробітника
+     * @param role     роль співробітника
+     * @param fullName ім'я для відображення
+     * @param position посада
+     */
+    public StaffPrincipal(Long id, StaffRole role, String fullName, String position) {
+        this.id = id;
+        this.role = role;
+        this.fullName = fullName;
+        this.position = position;
+    }
+
+    /**
+     * Створює опис користувача за сутністю співробітника.
+     *
+     * @param personal співробітник
+     * @return опис користувача для сесії
+     */
+    public static StaffPrincipal of(PersonalModel personal) {
+        StaffRole role = personal.getRole() != null
+                ? personal.getRole()
+                : StaffRole.fromPosition(personal.getPosition());
+        return new StaffPrincipal(personal.getId(), role, personal.getFullName(), personal.getPosition());
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public StaffRole getRole() {
+        return role;
+    }
+
+    public String getFullName() {
+        return fullName;
+    }
+
+    /**
+     * Посада співробітника. Залишена для шаблонів, які обирають шапку
+     * сторінки за {@code user.position}.
+     *
+     * @return посада або порожній рядок, якщо її не задано
+     */
+    public String getPosition() {
+        return position != null ? position : "";
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof StaffPrincipal that)) return false;
+        return Objects.equals(id, that.id) && role == that.role && Objects.equals(fullName, that.fullName)
+                && Objects.equals(position, that.position);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, role, fullName, position);
+    }
+}
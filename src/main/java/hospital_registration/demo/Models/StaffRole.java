@@ -0,0 +1,67 @@
+package hospital_registration.demo.Models;
+
+import java.util.Locale;
+
+/**
+ * Роль співробітника в системі. Визначається за посадою {@link PersonalModel#getPosition()}.
+ */
+public enum StaffRole {
+
+    /** Головний лікар — керує персоналом і бачить усіх пацієнтів. */
+    MAIN_DOCTOR("Головний лікар"),
+
+    /** Лікар — працює зі своїми пацієнтами. */
+    DOCTOR("Лікар"),
+
+    /**
+     * Співробітник, чия посада містить «лікар», але не збігається з жодною назвою посади
+     * (наприклад, «Лікар-хірург»). Має доступ до сторінок лікаря, проте не обмежений
+     * своїми пацієнтами і не вважається {@link #DOCTOR}.
+     */
+    OTHER_DOCTOR(null),
+
+    /** Медсестра/медбрат — реєструє пацієнтів. */
+    NURSE("Медсестра/Медбрат");
+
+    private final String title;
+
+    StaffRole(String title) {
+        this.title = title;
+    }
+
+    /**
+     * @return назва посади українською, як вона зберігається в полі position,
+     *         або null для {@link #OTHER_DOCTOR}, який не має власної назви посади
+     */
+    public String getTitle() {
+        return title;
+    }
+
+    /**
+     * Визначає роль за текстом посади.
+     * Окрім точних назв посад, посада з «сестр» вважається медсестрою, а інша посада
+     * з «лікар» — {@link #OTHER_DOCTOR}.
+     *
+     * @param position посада співробітника
+     * @return роль або null, якщо посаду не розпізнано
+     */
+    public static StaffRole fromPosition(String position) {
+        if (position == null) {
+            return null;
+        }
+        String value = position.trim();
+        for (StaffRole role : values()) {
+            if (role.title != null && role.title.equalsIgnoreCase(value)) {
+                return role;
+            }
+        }
+        String lower = value.toLowerCase(Locale.ROOT);
+        if (lower.contains("сестр")) {
+            return NURSE;
+        }
+        if (lower.contains("лікар")) {
+            return OTHER_DOCTOR;
+        }
+        return null;
+    }
+}
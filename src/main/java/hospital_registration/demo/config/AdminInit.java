@@ -3,6 +3,8 @@ package hospital_registration.demo.config;
 import hospital_registration.demo.Models.PersonalModel;
 import hospital_registration.demo.repo.PersonalRepo;
 import hospital_registration.demo.service.PasswordService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -13,6 +15,8 @@ import org.springframework.context.annotation.Configuration;
 @Configuration
 public class AdminInit {
 
+    private static final Logger log = LoggerFactory.getLogger(AdminInit.class);
+
     /**
      * Створює обліковий запис адміністратора, якщо його ще не існує.
      *
@@ -37,7 +41,7 @@ public class AdminInit {
                         "tokariuk.stanislav@lll.kpi.ua"
                 );
                 personalRepo.save(admin);
-                System.out.println("Адміністратор створений: Логін - " + adminLogin);
+                log.info("Адміністратор створений: логін {}", adminLogin);
             }
         };
     }
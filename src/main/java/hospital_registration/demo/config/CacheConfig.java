@@ -0,0 +1,17 @@
+package hospital_registration.demo.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Вмикає кешування Spring Cache.
+ * <p>
+ * Кеш-менеджер на базі Caffeine налаштовується у {@code application.properties}
+ * (властивості {@code spring.cache.*}): кількість записів обмежена, а застарілі записи
+ * видаляються після закінчення терміну дії.
+ * </p>
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+}
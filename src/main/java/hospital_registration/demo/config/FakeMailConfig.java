@@ -0,0 +1,27 @@
+package hospital_registration.demo.config;
+
+import hospital_registration.demo.service.FakeJavaMailSender;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import java.time.Duration;
+
+/**
+ * Підміняє справжній SMTP-відправник на {@link FakeJavaMailSender}
+ * при активному профілі {@code fake-mail} (наприклад, для навантажувальних тестів черги листів).
+ */
+@Configuration
+@Profile("fake-mail")
+public class FakeMailConfig {
+
+    /**
+     * @param latency імітована затримка одного SMTP-з'єднання
+     * @return відправник, що лише рахує листи
+     */
+    @Bean
+    public FakeJavaMailSender mailSender(@Value("${outbox.fake-mail.latency:PT0.2S}") Duration latency) {
+        return new FakeJavaMailSender(latency);
+    }
+}
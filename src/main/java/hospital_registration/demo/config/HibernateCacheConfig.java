@@ -0,0 +1,64 @@
+package hospital_registration.demo.config;
+
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+
+/**
+ * Кеш другого рівня та кеш запитів Hibernate на базі JCache (Caffeine).
+ * <p>
+ * Регіони {@code staff} ({@link hospital_registration.demo.Models.PersonalModel}),
+ * {@code announcements} ({@link hospital_registration.demo.Models.Announcement}) та регіони
+ * кешу запитів описані в {@code application.conf}: для кожного задано максимальний розмір
+ * і час життя записів. Hibernate отримує той самий {@link CacheManager}, що й метрики,
+ * тому статистика кожного регіону ({@code cache.gets}, {@code cache.puts},
+ * {@code cache.evictions}) доступна на {@code /actuator/prometheus}.
+ * </p>
+ */
+@Configuration
+public class HibernateCacheConfig {
+
+    /**
+     * @return менеджер кешів JCache, налаштований з {@code application.conf}
+     */
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager() {
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        return provider.getCacheManager(provider.getDefaultURI(), getClass().getClassLoader());
+    }
+
+    /**
+     * Передає Hibernate менеджер кешів замість створення окремого.
+     *
+     * @param hibernateCacheManager менеджер кешів JCache
+     * @return налаштування Hibernate
+     */
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheManagerCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+
+    /**
+     * Реєструє метрики для всіх регіонів після того, як Hibernate їх створив.
+     *
+     * @param event подія готовності застосунку
+     */
+    @EventListener
+    public void bindCacheMetrics(ApplicationReadyEvent event) {
+        CacheManager cacheManager = event.getApplicationContext().getBean("hibernateCacheManager", CacheManager.class);
+        MeterRegistry registry = event.getApplicationContext().getBean(MeterRegistry.class);
+        for (String name : cacheManager.getCacheNames()) {
+            JCacheMetrics.monitor(registry, cacheManager.getCache(name), "cacheManager", "hibernate");
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package hospital_registration.demo.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.filter.Filter;
+import ch.qos.logback.core.spi.FilterReply;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Фільтр Logback, що пропускає лише частку подій для вказаних категорій (логерів).
+ * <p>
+ * Правила задаються рядком {@code "категорія=частка,..."}, наприклад
+ * {@code "org.hibernate.SQL=0.01,hospital.sql.slow=0.5"}; правило застосовується до логера
+ * та всіх його нащадків, перемагає найдовший збіг. Події рівня ERROR і логери без правила
+ * не семплюються.
+ * </p>
+ */
+public class LogSamplingFilter extends Filter<ILoggingEvent> {
+
+    private final Map<String, Double> rates = new TreeMap<>();
+
+    /**
+     * @param rules правила семплювання у форматі {@code "категорія=частка,..."}
+     */
+    public void setRules(String rules) {
+        rates.clear();
+        if (rules == null) {
+            return;
+        }
+        for (String rule : rules.split(",")) {
+            int eq = rule.indexOf('=');
+            if (eq <= 0) {
+                continue;
+            }
+            try {
+                rates.put(rule.substring(0, eq).trim(), Double.parseDouble(rule.substring(eq + 1).trim()));
+            } catch (NumberFormatException e) {
+                addWarn("Некоректне правило семплювання: " + rule);
+            }
+        }
+    }
+
+    @Override
+    public FilterReply decide(ILoggingEvent event) {
+        if (rates.isEmpty() || event.getLevel().isGreaterOrEqual(Level.ERROR)) {
+            return FilterReply.NEUTRAL;
+        }
+        Double rate = rateFor(event.getLoggerName());
+        if (rate == null || rate >= 1.0) {
+            return FilterReply.NEUTRAL;
+        }
+        return ThreadLocalRandom.current().nextDouble() < rate ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    private Double rateFor(String loggerName) {
+        String name = loggerName;
+        while (true) {
+            Double rate = rates.get(name);
+            if (rate != null) {
+                return rate;
+            }
+            int dot = name.lastIndexOf('.');
+            if (dot < 0) {
+                return null;
+            }
+            name = name.substring(0, dot);
+        }
+    }
+}
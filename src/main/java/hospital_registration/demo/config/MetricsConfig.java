@@ -0,0 +1,50 @@
+package hospital_registration.demo.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Конфігурація метрик застосунку.
+ * <p>
+ * Час відповіді контролерів ({@code http.server.requests}), викликів репозиторіїв
+ * ({@code spring.data.repository.invocations}) та очікування з'єднання з пулом
+ * ({@code hikaricp.connections.acquire}) збирає автоконфігурація Actuator; тут додається
+ * підрахунок SQL-запитів на кожен HTTP-запит. Усі метрики доступні на {@code /actuator/prometheus}
+ * окремого порту керування ({@code management.server.port}), який слухає лише локальну адресу
+ * ({@code management.server.address}): URI ендпоінтів і час відповіді не видно з публічного порту
+ * застосунку, на якому немає перевірки сесії.
+ * </p>
+ */
+@Configuration
+public class MetricsConfig implements WebMvcConfigurer {
+
+    private final MeterRegistry registry;
+
+    /**
+     * @param registry реєстр метрик
+     */
+    public MetricsConfig(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Реєструє {@link SqlStatementCounter} як інспектор SQL-запитів Hibernate.
+     *
+     * @return налаштування Hibernate
+     */
+    @Bean
+    public HibernatePropertiesCustomizer sqlStatementCounter() {
+        SqlStatementCounter counter = new SqlStatementCounter();
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, counter);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new RequestMetricsInterceptor(this.registry));
+    }
+}
@@ -0,0 +1,80 @@
+package hospital_registration.demo.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Записує кількість SQL-запитів на кожен HTTP-запит до контролерів застосунку
+ * у метрику {@code hospital.sql.statements} з тегами {@code method} та {@code uri}
+ * (шаблон маршруту, як у {@code http.server.requests}).
+ * Враховуються і запити, виконані під час рендерингу шаблону.
+ * <p>
+ * Для асинхронних обробників лічильник потоку запиту закривається, щойно обробку передано
+ * іншому потоку, щоб він не залишився в пулі потоків вебсервера; запити, виконані
+ * під час повторного (async) диспетчеризування, рахуються окремо як звичайний запит.
+ * </p>
+ */
+public class RequestMetricsInterceptor implements AsyncHandlerInterceptor {
+
+    /** Назва метрики кількості SQL-запитів на HTTP-запит */
+    public static final String SQL_STATEMENTS = "hospital.sql.statements";
+
+    private static final String CONTROLLERS_PACKAGE = "hospital_registration.demo.controllers";
+
+    private final MeterRegistry registry;
+
+    /**
+     * @param registry реєстр метрик
+     */
+    public RequestMetricsInterceptor(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (isApplicationHandler(handler)) {
+            SqlStatementCounter.start();
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response,
+                                Object handler, Exception ex) {
+        if (!isApplicationHandler(handler)) {
+            return;
+        }
+        int statements = SqlStatementCounter.stop();
+        if (statements < 0) {
+            return;
+        }
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        DistributionSummary.builder(SQL_STATEMENTS)
+                .description("SQL statements executed per HTTP request")
+                .tag("method", request.getMethod())
+                .tag("uri", pattern != null ? pattern.toString() : "UNKNOWN")
+                .register(registry)
+                .record(statements);
+    }
+
+    /**
+     * Звільняє лічильник потоку, який повертається в пул до завершення асинхронної обробки.
+     */
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        if (isApplicationHandler(handler)) {
+            SqlStatementCounter.stop();
+        }
+    }
+
+    private static boolean isApplicationHandler(Object handler) {
+        return handler instanceof HandlerMethod method
+                && method.getBeanType().getPackageName().startsWith(CONTROLLERS_PACKAGE);
+    }
+}
@@ -0,0 +1,119 @@
+package hospital_registration.demo.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Конфігурація фонових задач застосунку.
+ * <p>
+ * Вмикає планувальник {@code @Scheduled} і {@code @Async} та визначає обмежений пул потоків
+ * для надсилання email-повідомлень з черги.
+ * </p>
+ * Якщо {@code spring.threads.virtual.enabled=true}, задачі виконуються на віртуальних потоках,
+ * але їхня паралельність і далі обмежена, щоб не вичерпувати пул JDBC-з'єднань і SMTP-сервер.
+ */
+@Configuration
+@EnableScheduling
+@EnableAsync
+public class SchedulingConfig {
+
+    /**
+     * Пул потоків для надсилання листів. Розмір пулу та черги обмежені, тому
+     * SMTP-сервер отримує не більше {@code outbox.workers} одночасних з'єднань;
+     * при переповненні черги задачу виконує потік, що її передав.
+     *
+     * @param workers        кількість потоків надсилання
+     * @param virtualThreads чи створювати віртуальні потоки замість платформних
+     * @return виконавець задач надсилання
+     */
+    @Bean
+    public ThreadPoolTaskExecutor mailExecutor(@Value("${outbox.workers:4}") int workers,
+                                               @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setVirtualThreads(virtualThreads);
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(workers * 4);
+        executor.setThreadNamePrefix("mail-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        return executor;
+    }
+
+    /**
+     * Однопотоковий виконавець розсилки подій живої дошки відділення
+     * ({@link hospital_registration.demo.service.WardBoardService}). Один потік зберігає
+     * порядок подій для кожного клієнта, а повільний клієнт не затримує запит,
+     * який зафіксував зміну. Черга обмежена: при переповненні задача відхиляється.
+     *
+     * @param queueCapacity максимальна кількість подій, що очікують розсилки
+     * @return виконавець розсилки подій
+     */
+    @Bean
+    public ThreadPoolTaskExecutor wardBoardExecutor(@Value("${ward-board.queue-capacity:1024}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("ward-board-");
+        return executor;
+    }
+
+    /**
+     * Пул перевірки паролів при вході ({@link hospital_registration.demo.service.LoginService}).
+     * BCrypt навмисно повільний, тому кількість одночасних перевірок обмежена кількістю потоків,
+     * а черга — {@code password.verifier-queue}: під час масового підбору паролів зайві спроби
+     * відхиляються одразу і не займають потоки, що обслуговують сторінки.
+     *
+     * @param threads       кількість потоків; 0 — половина доступних ядер (не менше одного)
+     * @param queueCapacity максимальна кількість перевірок, що очікують у черзі
+     * @return виконавець перевірок паролів
+     */
+    @Bean
+    public ThreadPoolTaskExecutor passwordVerifierExecutor(@Value("${password.verifier-threads:0}") int threads,
+                                                           @Value("${password.verifier-queue:32}") int queueCapacity) {
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("password-");
+        return executor;
+    }
+
+    /**
+     * Виконавець для методів {@code @Async}. Визначений явно, бо наявність {@link #mailExecutor}
+     * вимикає автоконфігурований {@code applicationTaskExecutor}.
+     * У режимі віртуальних потоків кожна задача отримує власний віртуальний потік,
+     * а кількість одночасних задач обмежує {@code async.max-concurrency}.
+     *
+     * @param virtualThreads чи використовувати віртуальні потоки
+     * @param maxConcurrency максимальна кількість одночасних задач
+     * @return виконавець асинхронних задач
+     */
+    @Bean(name = {"applicationTaskExecutor", "taskExecutor"})
+    public AsyncTaskExecutor applicationTaskExecutor(
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+            @Value("${async.max-concurrency:16}") int maxConcurrency) {
+        if (virtualThreads) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("async-");
+            executor.setVirtualThreads(true);
+            executor.setConcurrencyLimit(maxConcurrency);
+            return executor;
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxConcurrency);
+        executor.setMaxPoolSize(maxConcurrency);
+        executor.setQueueCapacity(maxConcurrency * 16);
+        executor.setThreadNamePrefix("async-");
+        return executor;
+    }
+}
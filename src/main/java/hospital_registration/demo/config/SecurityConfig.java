@@ -1,28 +1,80 @@
 package hospital_registration.demo.config;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.time.Duration;
+
 /**
  * Конфігураційний клас безпеки застосунку.
  * <p>
  * Визначає {@link PasswordEncoder}, який використовується для шифрування паролів
  * у Spring Security.
  * </p>
+ * Вартість BCrypt підбирається під час запуску під бюджет часу {@code password.hash-budget}:
+ * вимірюється хешування з мінімальною вартістю, а кожна наступна одиниця вартості подвоює час.
+ * На швидшому сервері паролі автоматично отримують сильніший хеш; старі хеші оновлюються
+ * при наступному вході ({@link hospital_registration.demo.service.LoginService}).
  */
 @Configuration
 public class SecurityConfig {
 
+    private static final Logger log = LoggerFactory.getLogger(SecurityConfig.class);
+
+    /** Кількість вимірювань при калібруванні; береться найшвидше */
+    private static final int CALIBRATION_SAMPLES = 3;
+
     /**
      * Створює та повертає екземпляр {@link BCryptPasswordEncoder},
      * який реалізує інтерфейс {@link PasswordEncoder}.
      *
+     * @param fixedCost фіксована вартість BCrypt; 0 — підібрати під бюджет часу
+     * @param budget    бюджет часу на одне хешування
+     * @param minCost   мінімальна допустима вартість
+     * @param maxCost   максимальна допустима вартість
      * @return об'єкт {@link PasswordEncoder} для хешування паролів за допомогою алгоритму BCrypt
      */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${password.bcrypt.cost:0}") int fixedCost,
+                                           @Value("${password.hash-budget:PT0.1S}") Duration budget,
+                                           @Value("${password.bcrypt.min-cost:10}") int minCost,
+                                           @Value("${password.bcrypt.max-cost:14}") int maxCost) {
+        if (fixedCost > 0) {
+            return new BCryptPasswordEncoder(fixedCost);
+        }
+        int cost = calibrateCost(budget, minCost, maxCost);
+        log.info("Вартість BCrypt: {} (бюджет {} мс)", cost, budget.toMillis());
+        return new BCryptPasswordEncoder(cost);
+    }
+
+    /**
+     * Підбирає найбільшу вартість BCrypt, хешування з якою вкладається в бюджет.
+     *
+     * @param budget  бюджет часу на одне хешування
+     * @param minCost мінімальна вартість (повертається, навіть якщо бюджет перевищено)
+     * @param maxCost максимальна вартість
+     * @return вартість BCrypt
+     */
+    static int calibrateCost(Duration budget, int minCost, int maxCost) {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(minCost);
+        probe.encode("calibration");
+        long fastest = Long.MAX_VALUE;
+        for (int i = 0; i < CALIBRATION_SAMPLES; i++) {
+            long started = System.nanoTime();
+            probe.encode("calibration");
+            fastest = Math.min(fastest, System.nanoTime() - started);
+        }
+        int cost = minCost;
+        long estimate = fastest;
+        while (cost < maxCost && estimate * 2 <= budget.toNanos()) {
+            cost++;
+            estimate *= 2;
+        }
+        return cost;
     }
 }
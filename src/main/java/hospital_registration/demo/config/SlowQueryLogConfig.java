@@ -0,0 +1,119 @@
+package hospital_registration.demo.config;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Журнал повільних SQL-запитів.
+ * <p>
+ * Обгортає {@link DataSource} проксі, яке вимірює час виконання кожного запиту
+ * (включно з запитами {@code JdbcTemplate}) і пише в логер {@code hospital.sql.slow}
+ * лише ті, що виконувались довше за {@code sql.slow-query.threshold}. На відміну від
+ * {@code spring.jpa.show-sql}, швидкі запити нічого не коштують, тому журнал можна залишати
+ * увімкненим у продакшені.
+ * </p>
+ * <p>
+ * Параметри запитів містять персональні дані пацієнтів і хеші паролів, тому типово в журнал
+ * потрапляють лише їхні типи. Значення пишуться тільки з {@code sql.slow-query.log-values=true}
+ * (наприклад, на локальному стенді з тестовими даними).
+ * </p>
+ */
+@Configuration
+@ConditionalOnProperty(name = "sql.slow-query.enabled", havingValue = "true", matchIfMissing = true)
+public class SlowQueryLogConfig {
+
+    /** Логер повільних запитів; частоту записів можна обмежити правилами семплювання. */
+    public static final String LOGGER_NAME = "hospital.sql.slow";
+
+    /**
+     * Обгортає джерело даних проксі з журналом повільних запитів.
+     *
+     * @param environment середовище для читання порогу і режиму запису параметрів
+     * @return пост-процесор бінів
+     */
+    @Bean
+    public static BeanPostProcessor slowQueryDataSourceWrapper(Environment environment) {
+        Duration threshold = environment.getProperty("sql.slow-query.threshold", Duration.class,
+                Duration.ofMillis(200));
+        boolean logValues = environment.getProperty("sql.slow-query.log-values", Boolean.class, false);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                    return ProxyDataSourceBuilder.create(dataSource)
+                            .name(beanName)
+                            .listener(new SlowQueryListener(threshold.toMillis(), logValues))
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * Записує в лог запити, довші за поріг: час, тип, кількість рядків у пакеті, SQL
+     * і типи параметрів (або їхні значення, якщо це явно дозволено).
+     */
+    static final class SlowQueryListener implements QueryExecutionListener {
+
+        private static final Logger log = LoggerFactory.getLogger(LOGGER_NAME);
+
+        private final long thresholdMillis;
+        private final boolean logValues;
+
+        SlowQueryListener(long thresholdMillis, boolean logValues) {
+            this.thresholdMillis = thresholdMillis;
+            this.logValues = logValues;
+        }
+
+        @Override
+        public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        }
+
+        @Override
+        public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            if (execInfo.getElapsedTime() < thresholdMillis || !log.isWarnEnabled()) {
+                return;
+            }
+            StringBuilder queries = new StringBuilder();
+            for (QueryInfo query : queryInfoList) {
+                queries.append(System.lineSeparator()).append('\t').append(query.getQuery());
+                for (List<ParameterSetOperation> parameters : query.getParametersList()) {
+                    queries.append(System.lineSeparator()).append("\t\tparams: ");
+                    for (ParameterSetOperation operation : parameters) {
+                        Object[] args = operation.getArgs();
+                        Object value = args.length > 1 ? args[1] : null;
+                        queries.append(args[0]).append('=')
+                                .append(logValues ? value : describe(value)).append(' ');
+                    }
+                }
+            }
+            log.warn("Повільний SQL-запит: {} мс, {}{}, успішний: {}{}",
+                    execInfo.getElapsedTime(),
+                    execInfo.getStatementType(),
+                    execInfo.isBatch() ? " (пакет " + execInfo.getBatchSize() + ")" : "",
+                    execInfo.isSuccess(),
+                    queries);
+        }
+
+        /** Тип параметра замість значення: {@code <String>} або {@code null}. */
+        private static String describe(Object value) {
+            return value == null ? "null" : "<" + value.getClass().getSimpleName() + ">";
+        }
+    }
+}
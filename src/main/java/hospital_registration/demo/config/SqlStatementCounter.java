@@ -0,0 +1,43 @@
+package hospital_registration.demo.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Лічильник SQL-запитів Hibernate у межах поточного HTTP-запиту.
+ * <p>
+ * Реєструється як {@link StatementInspector}: Hibernate викликає його перед підготовкою
+ * кожного запиту. Підрахунок ведеться лише між {@link #start()} і {@link #stop()},
+ * які викликає {@link RequestMetricsInterceptor} на початку і в кінці обробки запиту.
+ * </p>
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<int[]> COUNTER = new ThreadLocal<>();
+
+    /**
+     * Починає підрахунок запитів для поточного потоку.
+     */
+    public static void start() {
+        COUNTER.set(new int[1]);
+    }
+
+    /**
+     * Завершує підрахунок для поточного потоку.
+     *
+     * @return кількість SQL-запитів з моменту {@link #start()} або -1, якщо підрахунок не починався
+     */
+    public static int stop() {
+        int[] counter = COUNTER.get();
+        COUNTER.remove();
+        return counter != null ? counter[0] : -1;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        int[] counter = COUNTER.get();
+        if (counter != null) {
+            counter[0]++;
+        }
+        return sql;
+    }
+}
@@ -0,0 +1,106 @@
+package hospital_registration.demo.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordedThread;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Виявляє закріплення (pinning) віртуальних потоків на платформних потоках-носіях.
+ * <p>
+ * Працює лише при {@code spring.threads.virtual.enabled=true}: підписується на JFR-подію
+ * {@code jdk.VirtualThreadPinned} і логує кожне блокування, довше за
+ * {@code virtual-threads.pinned-threshold}, разом з верхівкою стеку — зазвичай це
+ * {@code synchronized}-блок у драйвері або бібліотеці, який треба замінити.
+ * Кількість закріплень рахує лічильник {@code hospital.virtual-threads.pinned}.
+ * </p>
+ */
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadPinningMonitor implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    /** Кількість кадрів стеку, що потрапляють у лог */
+    private static final int STACK_DEPTH = 8;
+
+    private final Duration threshold;
+    private final Counter pinnedEvents;
+    private volatile RecordingStream stream;
+
+    /**
+     * @param threshold     мінімальна тривалість закріплення, яка потрапляє у звіт
+     * @param meterRegistry реєстр метрик
+     */
+    public VirtualThreadPinningMonitor(@Value("${virtual-threads.pinned-threshold:PT0.02S}") Duration threshold,
+                                       MeterRegistry meterRegistry) {
+        this.threshold = threshold;
+        this.pinnedEvents = Counter.builder("hospital.virtual-threads.pinned")
+                .description("Virtual thread pinning events longer than the configured threshold")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void start() {
+        RecordingStream recording = new RecordingStream();
+        recording.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        recording.onEvent(PINNED_EVENT, this::report);
+        recording.startAsync();
+        stream = recording;
+        log.info("Моніторинг закріплення віртуальних потоків запущено (поріг {} мс)", threshold.toMillis());
+    }
+
+    @Override
+    public void stop() {
+        RecordingStream recording = stream;
+        stream = null;
+        if (recording != null) {
+            recording.close();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return stream != null;
+    }
+
+    private void report(RecordedEvent event) {
+        pinnedEvents.increment();
+        RecordedThread thread = event.getThread();
+        log.warn("Віртуальний потік {} закріпив потік-носій на {} мс{}",
+                thread != null ? thread.getJavaName() : "?",
+                event.getDuration().toMillis(),
+                formatStack(event.getStackTrace()));
+    }
+
+    private static String formatStack(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return "";
+        }
+        StringBuilder sb = new StringBuilder();
+        List<RecordedFrame> frames = stackTrace.getFrames();
+        for (int i = 0; i < frames.size() && i < STACK_DEPTH; i++) {
+            RecordedFrame frame = frames.get(i);
+            sb.append(System.lineSeparator()).append("\tat ")
+                    .append(frame.getMethod().getType().getName()).append('.')
+                    .append(frame.getMethod().getName())
+                    .append(':').append(frame.getLineNumber());
+        }
+        return sb.toString();
+    }
+}
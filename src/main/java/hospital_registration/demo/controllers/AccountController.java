@@ -1,8 +1,13 @@
 package hospital_registration.demo.controllers;
 
 import hospital_registration.demo.Models.PersonalModel;
+import hospital_registration.demo.Models.StaffPrincipal;
 import hospital_registration.demo.repo.PersonalRepo;
+import hospital_registration.demo.repo.StaffProfile;
+import hospital_registration.demo.service.AssignableDoctorService;
 import hospital_registration.demo.service.AuthorizationService;
+import hospital_registration.demo.service.SearchResultCache;
+import hospital_registration.demo.service.StaffProfileService;
 import jakarta.servlet.http.HttpSession;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -13,6 +18,8 @@ import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 
+import java.util.Objects;
+
 /**
  * Контролер для обробки перегляду акаунтів користувачів.
  */
@@ -28,6 +35,15 @@ public class AccountController {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private StaffProfileService staffProfileService;
+
+    @Autowired
+    private AssignableDoctorService assignableDoctorService;
+
+    @Autowired
+    private SearchResultCache searchCache;
+
     /**
      * Відображає сторінку особистого акаунта для поточного авторизованого користувача.
      *
@@ -37,12 +53,18 @@ public class AccountController {
      */
     @GetMapping("/account")
     public String account(HttpSession session, Model model) {
-        PersonalModel loggedInUser = (PersonalModel) session.getAttribute("loggedInUser");
+        StaffPrincipal loggedInUser = (StaffPrincipal) session.getAttribute("loggedInUser");
         if (loggedInUser == null) {
             return "redirect:/";
         }
 
-        model.addAttribute("user", loggedInUser);
+        StaffProfile profile = staffProfileService.getProfile(loggedInUser.getId());
+        if (profile == null) {
+            session.invalidate();
+            return "redirect:/";
+        }
+
+        model.addAttribute("user", profile);
         model.addAttribute("isOwnAccount", true);
         return "account";
     }
@@ -57,7 +79,7 @@ public class AccountController {
      */
     @GetMapping("/account/{id}")
     public String viewAccount(@PathVariable Long id, HttpSession session, Model model) {
-        PersonalModel loggedInUser = (PersonalModel) session.getAttribute("loggedInUser");
+        StaffPrincipal loggedInUser = (StaffPrincipal) session.getAttribute("loggedInUser");
         if (loggedInUser == null) {
             return "redirect:/";
         }
@@ -66,7 +88,7 @@ public class AccountController {
             return "redirect:/access-denied";
         }
 
-        PersonalModel user = personalRepo.findById(id).orElse(null);
+        StaffProfile user = staffProfileService.getProfile(id);
         if (user == null) {
             return "redirect:/error";
         }
@@ -79,7 +101,7 @@ public class AccountController {
 
     @PostMapping("/account/edit")
     public String editAccount(@ModelAttribute PersonalModel updatedUser, HttpSession session) {
-        PersonalModel loggedInUser = (PersonalModel) session.getAttribute("loggedInUser");
+        StaffPrincipal loggedInUser = (StaffPrincipal) session.getAttribute("loggedInUser");
         if (loggedInUser == null) {
             return "redirect:/";
         }
@@ -92,6 +114,7 @@ public class AccountController {
         // Оновлюємо дані користувача
         PersonalModel existingUser = personalRepo.findById(updatedUser.getId()).orElse(null);
         if (existingUser != null) {
+            boolean renamed = !Objects.equals(existingUser.getFullName(), updatedUser.getFullName());
             existingUser.setFullName(updatedUser.getFullName());
             existingUser.setLogin(updatedUser.getLogin());
             existingUser.setPhone(updatedUser.getPhone());
@@ -103,10 +126,16 @@ public class AccountController {
                 }
             }
             personalRepo.save(existingUser);
+            staffProfileService.evict(existingUser.getId());
+            assignableDoctorService.evict();
+            if (renamed) {
+                // Кешовані сторінки історії містять ПІБ лікаря
+                searchCache.invalidate(SearchResultCache.Scope.HISTORY);
+            }
 
             // Якщо користувач редагує власний акаунт - оновлюємо сесію
             if (loggedInUser.getId().equals(updatedUser.getId())) {
-                session.setAttribute("loggedInUser", existingUser);
+                session.setAttribute("loggedInUser", StaffPrincipal.of(existingUser));
             }
         }
 
@@ -1,23 +1,32 @@
 package hospital_registration.demo.controllers;
 
 import hospital_registration.demo.Models.Announcement;
-import hospital_registration.demo.Models.PersonalModel;
+import hospital_registration.demo.Models.StaffPrincipal;
 import hospital_registration.demo.repo.AnnouncementRepository;
-import hospital_registration.demo.repo.PersonalRepo;
+import hospital_registration.demo.service.AnnouncementFeedService;
+import hospital_registration.demo.service.AnnouncementReadTracker;
+import hospital_registration.demo.service.AnnouncementService;
 import hospital_registration.demo.service.AuthorizationService;
-import hospital_registration.demo.service.SmsService;
 import jakarta.servlet.http.HttpSession;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
-import java.util.List;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 
 /**
  * Контролер для створення та перегляду оголошень у системі.
@@ -29,10 +38,13 @@ public class AddAnnouncementController {
     private AnnouncementRepository announcementRepository;
 
     @Autowired
-    private PersonalRepo personalRepo;
+    private AnnouncementService announcementService;
 
     @Autowired
-    private SmsService smsService;
+    private AnnouncementFeedService announcementFeedService;
+
+    @Autowired
+    private AnnouncementReadTracker readTracker;
 
     @Autowired
     private AuthorizationService authService;
@@ -47,7 +59,7 @@ public class AddAnnouncementController {
      */
     @GetMapping("/addAnnouncement")
     public String showAddAnnouncementForm(Model model, HttpSession session) {
-        PersonalModel loggedInUser = (PersonalModel) session.getAttribute("loggedInUser");
+        StaffPrincipal loggedInUser = (StaffPrincipal) session.getAttribute("loggedInUser");
         if (!authService.hasMainDoctorAccess(loggedInUser)) {
             return "redirect:/access-denied";
         }
@@ -56,7 +68,8 @@ public class AddAnnouncementController {
     }
 
     /**
-     * Обробляє надсилання форми нового оголошення. Після збереження оголошення — надсилає повідомлення email усім працівникам.
+     * Обробляє надсилання форми нового оголошення. Разом з оголошенням у чергу розсилки
+     * записуються email для всіх працівників; самі листи надсилаються у фоновому режимі.
      *
      * @param announcement       модель оголошення, заповнена з форми
      * @param bindingResult      результат валідації форми
@@ -73,7 +86,7 @@ public class AddAnnouncementController {
             HttpSession session,
             Model model) {
 
-        PersonalModel loggedInUser = (PersonalModel) session.getAttribute("loggedInUser");
+        StaffPrincipal loggedInUser = (StaffPrincipal) session.getAttribute("loggedInUser");
         if (!authService.hasMainDoctorAccess(loggedInUser)) {
             return "redirect:/access-denied";
         }
@@ -82,41 +95,76 @@ public class AddAnnouncementController {
             return "announ-form";
         }
 
-        announcementRepository.save(announcement);
-
-        String subject = "Нове оголошення: " + announcement.getTitle();
-        String message = announcement.getContent();
-
-        List<PersonalModel> staff = personalRepo.findAll();
-        for (PersonalModel person : staff) {
-            try {
-                smsService.sendEmail(person.getEmail(), subject, message);
-            } catch (Exception e) {
-                System.out.println("Помилка для " + person.getEmail() + ": " + e.getMessage());
-            }
-        }
+        int queued = announcementService.publish(announcement);
+        announcementFeedService.evict();
+        readTracker.announcementPublished(announcement.getId());
 
-        redirectAttributes.addFlashAttribute("successMessage", "Оголошення додано та email розіслано.");
+        redirectAttributes.addFlashAttribute("successMessage",
+                "Оголошення додано, email для " + queued + " працівників поставлено в чергу розсилки.");
         return "redirect:/addAnnouncement";
     }
 
     /**
-     * Відображає список усіх оголошень.
+     * Відображає сторінку стрічки оголошень: назву, дату та уривок тексту.
+     * Перша сторінка береться з кешу; її перегляд позначає всі оголошення прочитаними.
      *
+     * @param afterAt курсор: дата створення останнього оголошення попередньої сторінки
+     * @param afterId курсор: ID останнього оголошення попередньої сторінки
      * @param model   модель для шаблону
      * @param session HTTP-сесія для перевірки авторизації
      * @return сторінка зі списком оголошень або редірект при відсутності авторизації
      */
     @GetMapping("/listAnnouncement")
-    public String showListAnnouncement(Model model, HttpSession session) {
-        PersonalModel user = (PersonalModel) session.getAttribute("loggedInUser");
+    public String showListAnnouncement(@RequestParam(value = "afterAt", required = false)
+                                       @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime afterAt,
+                                       @RequestParam(value = "afterId", required = false) Long afterId,
+                                       Model model, HttpSession session) {
+        StaffPrincipal user = (StaffPrincipal) session.getAttribute("loggedInUser");
         if (user == null) {
             return "redirect:/";
         }
 
-        List<Announcement> announcements = announcementRepository.findAllByOrderByCreatedAtDesc();
+        boolean firstPage = afterAt == null || afterId == null;
+        AnnouncementFeedService.FeedPage page = firstPage
+                ? announcementFeedService.firstPage()
+                : announcementFeedService.pageAfter(afterAt, afterId);
+
+        if (firstPage) {
+            readTracker.markAllRead(user.getId());
+            model.addAttribute("unreadAnnouncements", 0);
+        }
+
         model.addAttribute("user", user);
-        model.addAttribute("announcements", announcements);
+        model.addAttribute("announcements", page.items());
+        model.addAttribute("totalAnnouncements", page.total());
+        model.addAttribute("firstPage", firstPage);
+        model.addAttribute("hasNext", page.hasNext());
+        if (page.hasNext()) {
+            model.addAttribute("nextAt", page.last().getCreatedAt());
+            model.addAttribute("nextId", page.last().getId());
+        }
         return "announ-list";
     }
+
+    /**
+     * Повертає повний текст оголошення, коли користувач розгортає його у стрічці.
+     *
+     * @param id      ID оголошення
+     * @param session HTTP-сесія для перевірки авторизації
+     * @return текст оголошення, 401 без входу або 404, якщо оголошення не знайдено
+     */
+    @GetMapping("/listAnnouncement/{id}/content")
+    @ResponseBody
+    public ResponseEntity<String> announcementContent(@PathVariable Long id, HttpSession session) {
+        StaffPrincipal user = (StaffPrincipal) session.getAttribute("loggedInUser");
+        if (user == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        return announcementRepository.findById(id)
+                .map(a -> ResponseEntity.ok()
+                        .contentType(new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8))
+                        .body(a.getContent()))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
 }
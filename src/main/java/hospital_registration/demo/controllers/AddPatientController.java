@@ -2,19 +2,36 @@ package hospital_registration.demo.controllers;
 
 import hospital_registration.demo.Models.PatientModel;
 import hospital_registration.demo.Models.PersonalModel;
+import hospital_registration.demo.Models.StaffPrincipal;
 import hospital_registration.demo.repo.PatientRepo;
 import hospital_registration.demo.repo.PersonalRepo;
+import hospital_registration.demo.service.AssignableDoctorService;
 import hospital_registration.demo.service.AuthorizationService;
+import hospital_registration.demo.service.BedOccupancyIndex;
+import hospital_registration.demo.service.PatientChangedEvent;
+import hospital_registration.demo.service.PatientImportReport;
+import hospital_registration.demo.service.PatientImportService;
 import hospital_registration.demo.service.PatientValidationService;
 import jakarta.servlet.http.HttpSession;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.Map;
+
 /**
  * Контролер для додавання пацієнтів до системи.
  * Доступ надається лише медичним сестрам.
@@ -29,9 +46,21 @@ public class AddPatientController {
     @Autowired
     private AuthorizationService authService;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @Autowired
     private PatientValidationService patientValidationService;
 
+    @Autowired
+    private BedOccupancyIndex bedOccupancyIndex;
+
+    @Autowired
+    private PatientImportService patientImportService;
+
+    @Autowired
+    private AssignableDoctorService assignableDoctorService;
+
 
 
     /**
@@ -56,12 +85,12 @@ public class AddPatientController {
      */
     @GetMapping("/add")
     public String showAddPatientForm(Model model, HttpSession session) {
-        PersonalModel loggedInUser = (PersonalModel) session.getAttribute("loggedInUser");
+        StaffPrincipal loggedInUser = (StaffPrincipal) session.getAttribute("loggedInUser");
         if (!authService.hasNurseAccess(loggedInUser)) {
             return "redirect:/access-denied";
         }
         model.addAttribute("patient", new PatientModel());
-        model.addAttribute("doctors", doctorRepo.findAll());
+        model.addAttribute("doctors", assignableDoctorService.findAll());
         return "patient-record";
     }
 
@@ -83,33 +112,118 @@ public class AddPatientController {
             RedirectAttributes redirectAttributes,
             HttpSession session) {
 
-        PersonalModel loggedInUser = (PersonalModel) session.getAttribute("loggedInUser");
+        StaffPrincipal loggedInUser = (StaffPrincipal) session.getAttribute("loggedInUser");
         if (!authService.hasNurseAccess(loggedInUser)) {
             return "redirect:/access-denied";
         }
 
         patientValidationService.validateDates(patient, bindingResult);
-        System.out.println(bindingResult.hasErrors());
 
         if (bindingResult.hasErrors()) {
-            model.addAttribute("doctors", doctorRepo.findAll());
+            model.addAttribute("doctors", assignableDoctorService.findAll());
             return "patient-record";
         }
 
         Long doctorId = patient.getDoctor() != null ? patient.getDoctor().getId() : null;
+        PersonalModel doctor = doctorId != null ? doctorRepo.findById(doctorId).orElse(null) : null;
 
-        if (doctorId == null || !doctorRepo.existsById(doctorId)) {
+        if (doctor == null) {
             bindingResult.rejectValue("doctor", "error.patient", "Лікар не обраний або не існує.");
-            model.addAttribute("doctors", doctorRepo.findAll());
+            model.addAttribute("doctors", assignableDoctorService.findAll());
             return "patient-record";
         }
 
-        PersonalModel doctor = doctorRepo.findById(doctorId).orElse(null);
         patient.setDoctor(doctor);
 
         patientRepo.save(patient);
+        eventPublisher.publishEvent(PatientChangedEvent.admitted(patient));
 
         redirectAttributes.addFlashAttribute("successMessage", "Пацієнта успішно додано!");
         return "redirect:/patients/add";
     }
+
+    /**
+     * Підбирає перше вільне ліжко департаменту на вказаний період.
+     * Використовується формою запису для підказки медсестрі.
+     *
+     * @param department назва департаменту
+     * @param from       дата запису
+     * @param to         дата виписки
+     * @param session    HTTP-сесія для перевірки доступу
+     * @return JSON з номерами палати та ліжка або 404, якщо вільних ліжок немає
+     */
+    @GetMapping("/free-bed")
+    @ResponseBody
+    public ResponseEntity<Map<String, Integer>> findFreeBed(
+            @RequestParam String department,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            HttpSession session) {
+
+        StaffPrincipal loggedInUser = (StaffPrincipal) session.getAttribute("loggedInUser");
+        if (!authService.hasNurseAccess(loggedInUser)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+
+        return bedOccupancyIndex.findFirstFreeBed(department, from, to)
+                .map(bed -> ResponseEntity.ok(Map.of("ward", bed.ward(), "bed", bed.bed())))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Масово імпортує пацієнтів з тіла запиту у форматі CSV або JSON-масиву.
+     * Некоректні рядки не зупиняють імпорт і повертаються у звіті з переліком помилок.
+     *
+     * @param body        тіло запиту
+     * @param contentType тип вмісту запиту (text/csv або application/json)
+     * @param session     HTTP-сесія для перевірки доступу
+     * @return звіт про імпорт
+     * @throws IOException якщо тіло запиту не вдалося прочитати
+     */
+    @PostMapping(value = "/import", consumes = {"text/csv", MediaType.APPLICATION_JSON_VALUE})
+    @ResponseBody
+    public ResponseEntity<PatientImportReport> importPatients(
+            InputStream body,
+            @RequestHeader(value = "Content-Type") String contentType,
+            HttpSession session) throws IOException {
+
+        StaffPrincipal loggedInUser = (StaffPrincipal) session.getAttribute("loggedInUser");
+        if (!authService.hasNurseAccess(loggedInUser)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+
+        boolean csv = contentType.toLowerCase().startsWith("text/csv");
+        return ResponseEntity.ok(csv ? patientImportService.importCsv(body) : patientImportService.importJson(body));
+    }
+
+    /**
+     * Масово імпортує пацієнтів із завантаженого файлу (.csv або .json).
+     *
+     * @param file    файл імпорту
+     * @param session HTTP-сесія для перевірки доступу
+     * @return звіт про імпорт або 400 для непідтримуваного формату файлу
+     * @throws IOException якщо файл не вдалося прочитати
+     */
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @ResponseBody
+    public ResponseEntity<PatientImportReport> importPatientsFile(
+            @RequestParam("file") MultipartFile file,
+            HttpSession session) throws IOException {
+
+        StaffPrincipal loggedInUser = (StaffPrincipal) session.getAttribute("loggedInUser");
+        if (!authService.hasNurseAccess(loggedInUser)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+
+        String name = file.getOriginalFilename() != null ? file.getOriginalFilename().toLowerCase() : "";
+        try (InputStream in = file.getInputStream()) {
+            if (name.endsWith(".csv")) {
+                return ResponseEntity.ok(patientImportService.importCsv(in));
+            }
+            if (name.endsWith(".json")) {
+                return ResponseEntity.ok(patientImportService.importJson(in));
+            }
+        }
+        return ResponseEntity.badRequest().build();
+    }
 }
@@ -1,12 +1,15 @@
 package hospital_registration.demo.controllers;
 
 import hospital_registration.demo.Models.PersonalModel;
+import hospital_registration.demo.Models.StaffPrincipal;
 import hospital_registration.demo.repo.PersonalRepo;
+import hospital_registration.demo.service.AssignableDoctorService;
 import hospital_registration.demo.service.AuthorizationService;
 import hospital_registration.demo.service.PersonalValidationService;
 import jakarta.servlet.http.HttpSession;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
@@ -31,6 +34,12 @@ public class AddPersonalController {
     @Autowired
     PersonalValidationService validationService;
 
+    @Autowired
+    private AssignableDoctorService assignableDoctorService;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
     /**
      * Відображає форму для створення нового працівника лікарні.
      * Перевіряє, чи користувач має права головного лікаря.
@@ -41,7 +50,7 @@ public class AddPersonalController {
      */
     @GetMapping("/addPersonal")
     public String showAddPersonalForm(Model model, HttpSession session) {
-        PersonalModel loggedInUser = (PersonalModel) session.getAttribute("loggedInUser");
+        StaffPrincipal loggedInUser = (StaffPrincipal) session.getAttribute("loggedInUser");
         if (loggedInUser == null) {
             return "redirect:/";
         }
@@ -74,7 +83,7 @@ public class AddPersonalController {
             HttpSession session,
             Model model) {
 
-        PersonalModel loggedInUser = (PersonalModel) session.getAttribute("loggedInUser");
+        StaffPrincipal loggedInUser = (StaffPrincipal) session.getAttribute("loggedInUser");
         if (loggedInUser == null) {
             return "redirect:/";
         }
@@ -91,8 +100,10 @@ public class AddPersonalController {
         }
 
 
-        // Збереження нового працівника
+        // Збереження нового працівника; пароль зберігається лише у вигляді хешу
+        person.setAccess_key(passwordEncoder.encode(person.getAccess_key()));
         personalRepo.save(person);
+        assignableDoctorService.evict();
         redirectAttributes.addFlashAttribute("successMessage", "Медичний персонал успішно додано!");
         return "redirect:/addPersonal";
     }
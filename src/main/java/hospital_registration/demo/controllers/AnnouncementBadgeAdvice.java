@@ -0,0 +1,42 @@
+package hospital_registration.demo.controllers;
+
+import hospital_registration.demo.Models.StaffPrincipal;
+import hospital_registration.demo.service.AnnouncementReadTracker;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ModelAttribute;
+
+/**
+ * Додає до моделі кожної сторінки кількість непрочитаних оголошень поточного
+ * співробітника ({@code unreadAnnouncements}) для бейджа в шапці.
+ * Лічильник береться з пам'яті {@link AnnouncementReadTracker}, без запиту до бази;
+ * для запитів без сесії атрибут не додається і сесія не створюється.
+ */
+@ControllerAdvice(annotations = Controller.class)
+public class AnnouncementBadgeAdvice {
+
+    private final AnnouncementReadTracker readTracker;
+
+    /**
+     * @param readTracker лічильники непрочитаних оголошень
+     */
+    public AnnouncementBadgeAdvice(AnnouncementReadTracker readTracker) {
+        this.readTracker = readTracker;
+    }
+
+    /**
+     * @param request поточний запит
+     * @return кількість непрочитаних оголошень або null, якщо користувач не увійшов
+     */
+    @ModelAttribute("unreadAnnouncements")
+    public Integer unreadAnnouncements(HttpServletRequest request) {
+        HttpSession session = request.getSession(false);
+        if (session == null) {
+            return null;
+        }
+        StaffPrincipal user = (StaffPrincipal) session.getAttribute("loggedInUser");
+        return user == null ? null : readTracker.unreadCount(user.getId());
+    }
+}
@@ -2,13 +2,17 @@ package hospital_registration.demo.controllers;
 
 import hospital_registration.demo.Models.PatientModel;
 import hospital_registration.demo.Models.PersonalModel;
+import hospital_registration.demo.Models.StaffPrincipal;
 import hospital_registration.demo.repo.PatientRepo;
 import hospital_registration.demo.repo.PersonalRepo;
+import hospital_registration.demo.service.AssignableDoctorService;
 import hospital_registration.demo.service.AuthorizationService;
+import hospital_registration.demo.service.PatientChangedEvent;
 import hospital_registration.demo.service.PatientValidationService;
 import jakarta.servlet.http.HttpSession;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
@@ -29,9 +33,15 @@ public class EditPatientController {
     @Autowired
     private AuthorizationService authService;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @Autowired
     PatientValidationService patientValidationService;
 
+    @Autowired
+    private AssignableDoctorService assignableDoctorService;
+
     /**
      * Конструктор із залежностями репозиторіїв.
      *
@@ -55,7 +65,7 @@ public class EditPatientController {
      */
     @GetMapping("/edit/{patientId}")
     public String showEditPatientForm(@PathVariable Long patientId, Model model, HttpSession session) {
-        PersonalModel loggedInUser = (PersonalModel) session.getAttribute("loggedInUser");
+        StaffPrincipal loggedInUser = (StaffPrincipal) session.getAttribute("loggedInUser");
 
         // Перевірка автентифікації
         if (loggedInUser == null) {
@@ -84,7 +94,7 @@ public class EditPatientController {
 
         model.addAttribute("patient", patient);
         model.addAttribute("user", loggedInUser);
-        model.addAttribute("doctors", personalRepo.findAll());
+        model.addAttribute("doctors", assignableDoctorService.findAll());
 
         return "edit-patient";
     }
@@ -110,7 +120,7 @@ public class EditPatientController {
             HttpSession session,
             Model model) {
 
-        PersonalModel loggedInUser = (PersonalModel) session.getAttribute("loggedInUser");
+        StaffPrincipal loggedInUser = (StaffPrincipal) session.getAttribute("loggedInUser");
 
         // Перевірка автентифікації
         if (loggedInUser == null) {
@@ -133,27 +143,28 @@ public class EditPatientController {
             return "redirect:/access-denied";
         }
 
+        // ID не передається формою; без нього пацієнт конфліктував би сам із собою за ліжком
+        patient.setId(patientId);
         patientValidationService.validateDates(patient, bindingResult);
 
         if (bindingResult.hasErrors()) {
             model.addAttribute("user", loggedInUser);
-            model.addAttribute("doctors", personalRepo.findAll());
+            model.addAttribute("doctors", assignableDoctorService.findAll());
             model.addAttribute("patientId", patientId);
             return "edit-patient";
         }
 
         // Перевірка вибраного лікаря
         Long doctorId = patient.getDoctor() != null ? patient.getDoctor().getId() : null;
-        if (doctorId == null || !personalRepo.existsById(doctorId)) {
+        PersonalModel doctor = doctorId != null ? personalRepo.findById(doctorId).orElse(null) : null;
+        if (doctor == null) {
             bindingResult.rejectValue("doctor", "error.patient", "Лікар не обраний або не існує.");
             model.addAttribute("user", loggedInUser);
-            model.addAttribute("doctors", personalRepo.findAll());
+            model.addAttribute("doctors", assignableDoctorService.findAll());
             model.addAttribute("patientId", patientId);
             return "edit-patient";
         }
 
-        PersonalModel doctor = personalRepo.findById(doctorId).orElse(null);
-
         // Оновлення даних пацієнта
         existingPatient.setFullName(patient.getFullName());
         existingPatient.setPhone(patient.getPhone());
@@ -168,6 +179,7 @@ public class EditPatientController {
         existingPatient.setDoctor(doctor);
 
         patientRepo.save(existingPatient);
+        eventPublisher.publishEvent(PatientChangedEvent.updated(existingPatient));
 
         redirectAttributes.addFlashAttribute("successMessage",
                 "Дані пацієнта " + existingPatient.getFullName() + " успішно оновлено!");
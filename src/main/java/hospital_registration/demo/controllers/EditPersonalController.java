@@ -1,8 +1,13 @@
 package hospital_registration.demo.controllers;
 
 import hospital_registration.demo.Models.PersonalModel;
+import hospital_registration.demo.Models.StaffPrincipal;
 import hospital_registration.demo.repo.PersonalRepo;
+import hospital_registration.demo.service.AssignableDoctorService;
 import hospital_registration.demo.service.AuthorizationService;
+import hospital_registration.demo.service.SearchResultCache;
+import hospital_registration.demo.service.StaffProfileService;
+import hospital_registration.demo.service.StaffSearchEngine;
 import jakarta.servlet.http.HttpSession;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -18,7 +23,6 @@ import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 /**
  * Контролер для керування персоналом лікарні.
@@ -27,6 +31,12 @@ import java.util.stream.Collectors;
 @Controller
 public class EditPersonalController {
 
+    /** Розмір сторінки довідника персоналу за замовчуванням. */
+    private static final int DEFAULT_PAGE_SIZE = 50;
+
+    /** Максимальний розмір сторінки, який можна запросити параметром {@code size}. */
+    private static final int MAX_PAGE_SIZE = 200;
+
     @Autowired
     private PersonalRepo personalRepo;
 
@@ -36,6 +46,18 @@ public class EditPersonalController {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private StaffProfileService staffProfileService;
+
+    @Autowired
+    private AssignableDoctorService assignableDoctorService;
+
+    @Autowired
+    private StaffSearchEngine staffSearchEngine;
+
+    @Autowired
+    private SearchResultCache searchCache;
+
 
     /**
      * Відображає таблицю всіх співробітників для головного лікаря.
@@ -44,6 +66,8 @@ public class EditPersonalController {
      * @param session HTTP-сесія для перевірки користувача
      * @param searchTerm термін для пошуку (опціонально)
      * @param searchType тип пошуку (опціонально)
+     * @param size розмір сторінки
+     * @param afterId курсор: ID останнього співробітника попередньої сторінки
      * @param model модель для передачі атрибутів у представлення
      * @return назва шаблону або редірект при відсутності доступу
      */
@@ -51,8 +75,10 @@ public class EditPersonalController {
     public String getPersonalManagement(HttpSession session,
                                         @RequestParam(value = "search", required = false) String searchTerm,
                                         @RequestParam(value = "searchType", required = false, defaultValue = "all") String searchType,
+                                        @RequestParam(value = "size", required = false, defaultValue = "" + DEFAULT_PAGE_SIZE) int size,
+                                        @RequestParam(value = "afterId", required = false) Long afterId,
                                         Model model) {
-        PersonalModel user = (PersonalModel) session.getAttribute("loggedInUser");
+        StaffPrincipal user = (StaffPrincipal) session.getAttribute("loggedInUser");
         if (user == null) {
             return "redirect:/";
         }
@@ -62,20 +88,26 @@ public class EditPersonalController {
             return "redirect:/access-denied";
         }
 
-        // Отримуємо всіх співробітників, крім поточного користувача
-        List<PersonalModel> allPersonal = personalRepo.findAll()
-                .stream()
-                .filter(p -> !p.getId().equals(user.getId()))
-                .collect(Collectors.toList());
+        String cleanSearchTerm = searchTerm != null ? searchTerm.trim() : "";
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
 
-        // Фільтруємо за пошуковим запитом
-        List<PersonalModel> filteredPersonal = getFilteredPersonal(allPersonal, searchTerm, searchType);
+        // Поточний користувач виключається в самому запиті
+        List<PersonalModel> personal = staffSearchEngine.findStaff(searchType, cleanSearchTerm, user.getId(),
+                afterId, pageSize + 1);
+        boolean hasNext = personal.size() > pageSize;
+        List<PersonalModel> page = hasNext ? personal.subList(0, pageSize) : personal;
 
         model.addAttribute("user", user);
-        model.addAttribute("personalList", filteredPersonal);
+        model.addAttribute("personalList", page);
         model.addAttribute("searchTerm", searchTerm);
         model.addAttribute("searchType", searchType);
-        model.addAttribute("totalPersonal", filteredPersonal.size());
+        model.addAttribute("totalPersonal", staffSearchEngine.countStaff(searchType, cleanSearchTerm, user.getId()));
+        model.addAttribute("size", pageSize);
+        model.addAttribute("firstPage", afterId == null);
+        model.addAttribute("hasNext", hasNext);
+        if (hasNext) {
+            model.addAttribute("nextId", page.get(page.size() - 1).getId());
+        }
 
         return "edit-personal";
     }
@@ -83,24 +115,12 @@ public class EditPersonalController {
     public String updatePersonal(@Valid @ModelAttribute("person") PersonalModel person,
                                  BindingResult bindingResult,
                                  HttpSession session,
-                                 RedirectAttributes redirectAttributes,
-                                 @RequestParam(value = "search", required = false) String searchTerm,
-                                 @RequestParam(value = "searchType", required = false, defaultValue = "all") String searchType,
-                                 Model model) {
-        PersonalModel user = (PersonalModel) session.getAttribute("loggedInUser");
+                                 RedirectAttributes redirectAttributes) {
+        StaffPrincipal user = (StaffPrincipal) session.getAttribute("loggedInUser");
         if (user == null || !authService.isMainDoctor(user)) {
             return "redirect:/";
         }
 
-        // Отримуємо всіх співробітників, крім поточного користувача
-        List<PersonalModel> allPersonal = personalRepo.findAll()
-                .stream()
-                .filter(p -> !p.getId().equals(user.getId()))
-                .collect(Collectors.toList());
-
-        // Фільтруємо за пошуковим запитом
-        List<PersonalModel> filteredPersonal = getFilteredPersonal(allPersonal, searchTerm, searchType);
-
         PersonalModel personal = personalRepo.findById(person.getId()).orElse(null);
         if (personal != null) {
             // Валідація даних
@@ -155,6 +175,7 @@ public class EditPersonalController {
             }
 
             // Оновлюємо дані
+            boolean renamed = !person.getFullName().trim().equals(personal.getFullName());
             personal.setFullName(person.getFullName().trim());
             personal.setLogin(person.getLogin().trim());
             personal.setPosition(person.getPosition().trim());
@@ -164,10 +185,16 @@ public class EditPersonalController {
 
             // Оновлюємо пароль тільки якщо він був введений
             if (person.getAccess_key() != null && !person.getAccess_key().trim().isEmpty()) {
-                personal.setAccess_key(person.getAccess_key().trim());
+                personal.setAccess_key(passwordEncoder.encode(person.getAccess_key().trim()));
             }
 
             personalRepo.save(personal);
+            staffProfileService.evict(personal.getId());
+            assignableDoctorService.evict();
+            if (renamed) {
+                // Кешовані сторінки історії містять ПІБ лікаря
+                searchCache.invalidate(SearchResultCache.Scope.HISTORY);
+            }
             redirectAttributes.addFlashAttribute("message", "Інформацію про " + personal.getFullName() + " оновлено успішно!");
         } else {
             redirectAttributes.addFlashAttribute("error", "Співробітника не знайдено!");
@@ -189,7 +216,7 @@ public class EditPersonalController {
     public String deletePersonal(@RequestParam Long personalId,
                                  HttpSession session,
                                  RedirectAttributes redirectAttributes) {
-        PersonalModel user = (PersonalModel) session.getAttribute("loggedInUser");
+        StaffPrincipal user = (StaffPrincipal) session.getAttribute("loggedInUser");
         if (user == null) {
             return "redirect:/";
         }
@@ -210,6 +237,9 @@ public class EditPersonalController {
             if (personalToDelete != null) {
                 String deletedName = personalToDelete.getFullName();
                 personalRepo.delete(personalToDelete);
+                staffProfileService.evict(personalId);
+                assignableDoctorService.evict();
+                searchCache.invalidate(SearchResultCache.Scope.HISTORY);
                 redirectAttributes.addFlashAttribute("message",
                         "Співробітника " + deletedName + " було успішно видалено з системи.");
             } else {
@@ -222,53 +252,4 @@ public class EditPersonalController {
 
         return "redirect:/editPersinal";
     }
-
-    /**
-     * Фільтрує список персоналу за пошуковим запитом та типом пошуку.
-     *
-     * @param allPersonal повний список персоналу
-     * @param searchTerm термін для пошуку
-     * @param searchType тип пошуку (name, login, position, specialty, email, phone, all)
-     * @return відфільтрований список персоналу
-     */
-    private List<PersonalModel> getFilteredPersonal(List<PersonalModel> allPersonal, String searchTerm, String searchType) {
-        if (searchTerm == null || searchTerm.trim().isEmpty()) {
-            return allPersonal;
-        }
-
-        String cleanSearchTerm = searchTerm.trim().toLowerCase();
-
-        return allPersonal.stream()
-                .filter(personal -> {
-                    switch (searchType) {
-                        case "name":
-                            return personal.getFullName() != null &&
-                                    personal.getFullName().toLowerCase().contains(cleanSearchTerm);
-                        case "login":
-                            return personal.getLogin() != null &&
-                                    personal.getLogin().toLowerCase().contains(cleanSearchTerm);
-                        case "position":
-                            return personal.getPosition() != null &&
-                                    personal.getPosition().toLowerCase().contains(cleanSearchTerm);
-                        case "specialty":
-                            return personal.getSpecialty() != null &&
-                                    personal.getSpecialty().toLowerCase().contains(cleanSearchTerm);
-                        case "email":
-                            return personal.getEmail() != null &&
-                                    personal.getEmail().toLowerCase().contains(cleanSearchTerm);
-                        case "phone":
-                            return personal.getPhone() != null &&
-                                    personal.getPhone().contains(cleanSearchTerm);
-                        case "all":
-                        default:
-                            return (personal.getFullName() != null && personal.getFullName().toLowerCase().contains(cleanSearchTerm)) ||
-                                    (personal.getLogin() != null && personal.getLogin().toLowerCase().contains(cleanSearchTerm)) ||
-                                    (personal.getPosition() != null && personal.getPosition().toLowerCase().contains(cleanSearchTerm)) ||
-                                    (personal.getSpecialty() != null && personal.getSpecialty().toLowerCase().contains(cleanSearchTerm)) ||
-                                    (personal.getEmail() != null && personal.getEmail().toLowerCase().contains(cleanSearchTerm)) ||
-                                    (personal.getPhone() != null && personal.getPhone().contains(cleanSearchTerm));
-                    }
-                })
-                .collect(Collectors.toList());
-    }
-}
\ No newline at end of file
+}
@@ -1,6 +1,6 @@
 package hospital_registration.demo.controllers;
 
-import hospital_registration.demo.Models.PersonalModel;
+import hospital_registration.demo.Models.StaffPrincipal;
 import jakarta.servlet.http.HttpSession;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -23,7 +23,7 @@ public class ErrorController {
      */
     @GetMapping("/access-denied")
     public String accessDenied(Model model, HttpSession session) {
-        PersonalModel user = (PersonalModel) session.getAttribute("loggedInUser");
+        StaffPrincipal user = (StaffPrincipal) session.getAttribute("loggedInUser");
         if (user == null) {
             return "redirect:/";
         }
@@ -1,6 +1,8 @@
 package hospital_registration.demo.controllers;
 
 import jakarta.servlet.http.HttpSession;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -21,6 +23,8 @@ import java.util.*;
 @Controller
 public class GameController {
 
+    private static final Logger log = LoggerFactory.getLogger(GameController.class);
+
     private final List<String> words;
     private final int maxAttempts = 6;
     private final int wordLength = 5;
@@ -53,7 +57,7 @@ public class GameController {
                 }
             }
         } catch (Exception e) {
-            e.printStackTrace();
+            log.error("Не вдалося завантажити слова з {}", filename, e);
         }
         return list;
     }
@@ -0,0 +1,101 @@
+package hospital_registration.demo.controllers;
+
+import hospital_registration.demo.Models.StaffPrincipal;
+import hospital_registration.demo.service.AuthorizationService;
+import hospital_registration.demo.service.HistoryExportService;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Вивантаження архіву історії пацієнтів для аналітиків. Доступне лише головному лікарю.
+ * Файл формується потоково під час передачі, без проміжного збереження в пам'яті чи на диску.
+ */
+@Controller
+public class HistoryExportController {
+
+    /** Розмір буфера стиснення, байт */
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
+    @Autowired
+    private HistoryExportService historyExportService;
+    @Autowired
+    private AuthorizationService authService;
+
+    /**
+     * Експортує історію пацієнтів.
+     *
+     * @param session        HTTP-сесія для перевірки користувача
+     * @param format         формат файлу: csv або ndjson
+     * @param gzip           чи стискати файл gzip
+     * @param dischargedFrom перший день діапазону дати виписки (ISO, необов'язково)
+     * @param dischargedTo   останній день діапазону дати виписки (ISO, необов'язково)
+     * @param doctor         ID лікаря (необов'язково)
+     * @param diagnosis      фрагмент діагнозу (необов'язково)
+     * @return потоковий файл експорту, 403 без прав головного лікаря або 400 для невідомого формату
+     */
+    @GetMapping("/historypatients/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            HttpSession session,
+            @RequestParam(value = "format", required = false, defaultValue = "csv") String format,
+            @RequestParam(value = "gzip", required = false, defaultValue = "false") boolean gzip,
+            @RequestParam(value = "dischargedFrom", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dischargedFrom,
+            @RequestParam(value = "dischargedTo", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dischargedTo,
+            @RequestParam(value = "doctor", required = false) Long doctor,
+            @RequestParam(value = "diagnosis", required = false) String diagnosis) {
+        StaffPrincipal user = (StaffPrincipal) session.getAttribute("loggedInUser");
+        if (!authService.hasMainDoctorAccess(user)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+
+        HistoryExportService.Format exportFormat;
+        switch (format.toLowerCase(Locale.ROOT)) {
+            case "csv":
+                exportFormat = HistoryExportService.Format.CSV;
+                break;
+            case "ndjson":
+                exportFormat = HistoryExportService.Format.NDJSON;
+                break;
+            default:
+                return ResponseEntity.badRequest().build();
+        }
+        HistoryExportService.Filter filter =
+                new HistoryExportService.Filter(dischargedFrom, dischargedTo, doctor, diagnosis);
+
+        String fileName = "history-" + LocalDate.now() + "." + exportFormat.getExtension() + (gzip ? ".gz" : "");
+        MediaType contentType = gzip
+                ? MediaType.parseMediaType("application/gzip")
+                : MediaType.parseMediaType(exportFormat.getContentType() + ";charset=UTF-8");
+
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                GZIPOutputStream compressed = new GZIPOutputStream(out, GZIP_BUFFER_SIZE);
+                historyExportService.export(filter, exportFormat, compressed);
+                compressed.finish();
+            } else {
+                historyExportService.export(filter, exportFormat, out);
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(fileName).build().toString())
+                .header("X-Accel-Buffering", "no")
+                .body(body);
+    }
+}
@@ -1,39 +1,85 @@
 package hospital_registration.demo.controllers;
 
-import hospital_registration.demo.Models.HistoryPatientsModel;
-import hospital_registration.demo.Models.PersonalModel;
-import hospital_registration.demo.repo.HistoryPatientRepo;
+import hospital_registration.demo.Models.StaffPrincipal;
+import hospital_registration.demo.repo.AssignableDoctor;
+import hospital_registration.demo.repo.PatientListItem;
+import hospital_registration.demo.service.AnnouncementReadTracker;
+import hospital_registration.demo.service.AssignableDoctorService;
+import hospital_registration.demo.service.PatientQuery;
+import hospital_registration.demo.service.PatientSearchEngine;
+import hospital_registration.demo.service.SearchResultCache;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.servlet.http.HttpSession;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.WebRequest;
 
-import java.time.LocalDate;
-import java.time.LocalDateTime;
-import java.time.LocalTime;
-import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 /**
  * Контролер для обробки запитів, пов'язаних з історією пацієнтів.
- * Надає можливість переглядати історію пацієнтів та здійснювати пошук за різними параметрами.
+ * Надає можливість переглядати історію пацієнтів та здійснювати пошук за різними параметрами
+ * через {@link PatientSearchEngine}.
+ * <p>
+ * Записи історії лише додаються при виписці, тому сторінка підтримує умовний GET:
+ * {@code ETag} будується з версії архіву ({@link SearchResultCache#version}), користувача
+ * та його лічильника непрочитаних оголошень, запиту пошуку, сторінки та вмісту довідника лікарів у фільтрі. Якщо архів не змінився,
+ * браузер отримує {@code 304 Not Modified} без запиту до бази даних і рендерингу шаблону.
+ * </p>
+ * <p>
+ * Архів показується сторінками з keyset-пагінацією за ID, тож у {@link SearchResultCache}
+ * потрапляє лише одна сторінка, а не весь архів.
+ * </p>
  */
 @Controller
 public class HistoryPatientsController {
 
-    /** Репозиторій для доступу до даних історії пацієнтів */
-    private final HistoryPatientRepo historyPatientRepo;
+    /** Ідентифікатор запуску застосунку: версія архіву починається з нуля після перезапуску */
+    private static final String BOOT_ID = Long.toString(System.currentTimeMillis(), 36);
+
+    /** Розмір сторінки за замовчуванням */
+    private static final int DEFAULT_PAGE_SIZE = 50;
+
+    /** Максимальний розмір сторінки */
+    private static final int MAX_PAGE_SIZE = 200;
+
+    /** Ключ кешу сторінки історії. */
+    private record HistoryPage(PatientQuery query, Long afterId, int limit) {
+    }
+
+    /** Виконавець запитів пошуку пацієнтів */
+    private final PatientSearchEngine searchEngine;
+
+    /** Довідник лікарів для фільтра */
+    private final AssignableDoctorService assignableDoctorService;
+
+    /** Короткочасний кеш результатів пошуку */
+    private final SearchResultCache searchCache;
+
+    /** Лічильники непрочитаних оголошень для бейджа в шапці */
+    private final AnnouncementReadTracker readTracker;
 
     /**
      * Конструктор контролера HistoryPatientsController.
      *
-     * @param historyPatientRepo репозиторій історії пацієнтів
+     * @param searchEngine            виконавець запитів пошуку пацієнтів
+     * @param searchCache             кеш результатів пошуку
+     * @param assignableDoctorService довідник лікарів
+     * @param readTracker             лічильники непрочитаних оголошень
      */
-    public HistoryPatientsController(HistoryPatientRepo historyPatientRepo) {
-        this.historyPatientRepo = historyPatientRepo;
+    public HistoryPatientsController(PatientSearchEngine searchEngine, SearchResultCache searchCache,
+                                     AssignableDoctorService assignableDoctorService,
+                                     AnnouncementReadTracker readTracker) {
+        this.searchEngine = searchEngine;
+        this.searchCache = searchCache;
+        this.assignableDoctorService = assignableDoctorService;
+        this.readTracker = readTracker;
     }
 
     /**
@@ -44,76 +90,86 @@ public class HistoryPatientsController {
      * @param session поточна сесія користувача
      * @param searchTerm рядок пошуку (необов'язковий)
      * @param searchType тип пошуку (наприклад: name, phone, diagnosis, dischargeDATE, recordedDATE, all)
-     * @return назва шаблону для рендерингу (history-patients або редірект на головну сторінку)
+     * @param filters    додаткові фільтри (відділення, лікар, проміжок дат запису, діагноз)
+     * @param size       розмір сторінки
+     * @param afterId    курсор: ID останнього запису попередньої сторінки
+     * @param webRequest запит для перевірки {@code If-None-Match} / {@code If-Modified-Since}
+     * @param response   відповідь для заголовка {@code Cache-Control}
+     * @return назва шаблону для рендерингу (history-patients або редірект на головну сторінку);
+     * null, якщо відповідь 304 вже сформовано
      */
     @GetMapping("/historypatients")
     public String getHistory(Model model, HttpSession session,
                              @RequestParam(value = "search", required = false) String searchTerm,
-                             @RequestParam(value = "searchType", required = false, defaultValue = "all") String searchType) {
+                             @RequestParam(value = "searchType", required = false, defaultValue = "all") String searchType,
+                             @ModelAttribute("filters") PatientFilters filters,
+                             @RequestParam(value = "size", required = false, defaultValue = "" + DEFAULT_PAGE_SIZE) int size,
+                             @RequestParam(value = "afterId", required = false) Long afterId,
+                             WebRequest webRequest, HttpServletResponse response) {
         if (session.getAttribute("loggedInUser") == null) {
             return "redirect:/";
         }
 
-        PersonalModel user = (PersonalModel) session.getAttribute("loggedInUser");
-        boolean hasSearchTerm = searchTerm != null && !searchTerm.trim().isEmpty();
-        String cleanSearchTerm = hasSearchTerm ? searchTerm.trim() : "";
+        StaffPrincipal user = (StaffPrincipal) session.getAttribute("loggedInUser");
+        PatientQuery query = filters.toQuery(searchType, searchTerm);
+        List<AssignableDoctor> doctors = assignableDoctorService.findAll();
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        HistoryPage page = new HistoryPage(query, afterId, pageSize + 1);
+
+        // Мітки читаються до завантаження даних: якщо архів зміниться під час запиту,
+        // сторінка отримає старішу мітку і наступний запит буде виконано повністю
+        long lastModified = searchCache.lastModified(SearchResultCache.Scope.HISTORY);
+        String etag = historyETag(user, page, doctors);
+        // Браузер може зберігати сторінку, але перевіряє її актуальність при кожному відкритті
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().cachePrivate().getHeaderValue());
+        if (webRequest.checkNotModified(etag, lastModified)) {
+            return null;
+        }
 
-        List<HistoryPatientsModel> patients = getFilteredPatientsForAllUsers(cleanSearchTerm, searchType);
+        // Однакові одночасні запити сторінки виконують один запит до бази
+        List<PatientListItem> patients = searchCache.get(SearchResultCache.Scope.HISTORY, page,
+                () -> searchEngine.findHistory(query, afterId, page.limit()));
+        boolean hasNext = patients.size() > pageSize;
+        List<PatientListItem> shown = hasNext ? patients.subList(0, pageSize) : patients;
         model.addAttribute("user", user);
-        model.addAttribute("patients", patients);
+        model.addAttribute("patients", shown);
         model.addAttribute("searchTerm", searchTerm);
         model.addAttribute("searchType", searchType);
-        model.addAttribute("totalPatients", patients.size());
+        model.addAttribute("doctors", doctors);
+        model.addAttribute("size", pageSize);
+        model.addAttribute("firstPage", afterId == null);
+        model.addAttribute("hasNext", hasNext);
+        if (hasNext) {
+            model.addAttribute("nextId", shown.get(shown.size() - 1).getId());
+        }
+        // Загальна кількість показується лише для результатів пошуку
+        if (query.hasFilters()) {
+            model.addAttribute("totalPatients", searchEngine.countHistory(query));
+        }
+        model.addAttribute("filtered", query.hasFilters());
         return "history-patients";
     }
 
     /**
-     * Повертає список пацієнтів, відфільтрованих за заданим типом пошуку та пошуковим запитом.
+     * Будує ETag сторінки історії. Сторінка залежить від версії архіву, запиту пошуку і курсора,
+     * користувача (шапка сторінки відрізняється для різних ролей і показує кількість
+     * непрочитаних оголошень) і списку лікарів у фільтрі.
+     * Лікарі враховуються за вмістом, а не за екземпляром списку, тож ETag не змінюється,
+     * коли кеш довідника завантажує той самий список повторно.
      *
-     * @param searchTerm текст пошуку
-     * @param searchType тип пошуку (наприклад: name, phone, diagnosis, dischargeDATE, recordedDATE, all)
-     * @return список пацієнтів, що відповідають критеріям пошуку
+     * @param user    поточний користувач
+     * @param page    запит пошуку і курсор сторінки
+     * @param doctors довідник лікарів для фільтра
+     * @return значення ETag у лапках
      */
-    private List<HistoryPatientsModel> getFilteredPatientsForAllUsers(String searchTerm, String searchType) {
-        switch (searchType) {
-            case "name":
-                return historyPatientRepo.findByFullNameContainingIgnoreCase(searchTerm);
-            case "phone":
-                return historyPatientRepo.findByPhoneContaining(searchTerm);
-            case "diagnosis":
-                return historyPatientRepo.findByDiagnosisContainingIgnoreCase(searchTerm);
-            case "dischargeDATE":
-                try {
-                    DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd.MM.yyyy");
-                    LocalDate date = LocalDate.parse(searchTerm, formatter);
-                    LocalDateTime from = date.atStartOfDay();
-                    LocalDateTime to = date.atTime(LocalTime.MAX);
-                    return historyPatientRepo.findByDischargeDate(from, to);
-                } catch (DateTimeParseException e) {
-                    // Якщо введено не дату — повернути порожній список
-                    return new ArrayList<>();
-                }
-            case "recordedDATE":
-                try {
-                    DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd.MM.yyyy");
-                    LocalDate date = LocalDate.parse(searchTerm, formatter);
-                    LocalDateTime from = date.atStartOfDay();
-                    LocalDateTime to = date.atTime(LocalTime.MAX);
-                    return historyPatientRepo.findByRecordedDate(from, to);
-                } catch (DateTimeParseException e) {
-                    return new ArrayList<>();
-                }
-            case "all":
-            default:
-                try {
-                    DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd.MM.yyyy");
-                    LocalDate date = LocalDate.parse(searchTerm, formatter);
-                    LocalDateTime from = date.atStartOfDay();
-                    LocalDateTime to = date.atTime(LocalTime.MAX);
-                    return historyPatientRepo.findByDateFields(from, to);
-                } catch (DateTimeParseException e) {
-                    return historyPatientRepo.findByAllFieldsContaining(searchTerm);
-                }
+    private String historyETag(StaffPrincipal user, HistoryPage page, List<AssignableDoctor> doctors) {
+        int doctorsHash = 1;
+        for (AssignableDoctor doctor : doctors) {
+            doctorsHash = 31 * doctorsHash + Objects.hash(doctor.getId(), doctor.getFullName(), doctor.getSpecialty());
         }
+        int request = Objects.hash(user.getId(), user.getRole(), user.getFullName(),
+                readTracker.unreadCount(user.getId()), page, doctorsHash);
+        return "\"history-" + BOOT_ID + "-" + searchCache.version(SearchResultCache.Scope.HISTORY)
+                + "-" + Integer.toHexString(request) + "\"";
     }
 }
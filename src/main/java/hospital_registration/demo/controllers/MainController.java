@@ -1,32 +1,29 @@
 package hospital_registration.demo.controllers;
 
-import hospital_registration.demo.repo.PersonalRepo;
 import hospital_registration.demo.Models.PersonalModel;
+import hospital_registration.demo.Models.StaffPrincipal;
 import hospital_registration.demo.service.AuthorizationService;
-import hospital_registration.demo.service.PasswordService;
+import hospital_registration.demo.service.LoginService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpSession;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.Optional;
-
 /**
  * Controller for handling requests to the main page.
  */
 @Controller
 public class MainController {
 
-    private final PersonalRepo personalRepo;
     private final AuthorizationService authService;
-    private final PasswordService passwordService;
+    private final LoginService loginService;
 
     @Autowired
-    public MainController(PersonalRepo personalRepo, AuthorizationService authService, PasswordService passwordService) {
-        this.personalRepo = personalRepo;
+    public MainController(AuthorizationService authService, LoginService loginService) {
         this.authService = authService;
-        this.passwordService = passwordService;
+        this.loginService = loginService;
     }
 
     /**
@@ -38,7 +35,9 @@ public class MainController {
      */
     @GetMapping("/")
     public String loginPage(@RequestParam(value = "error", required = false) String error, Model model) {
-        if (error != null) {
+        if ("busy".equals(error)) {
+            model.addAttribute("errorMessage", "Забагато спроб входу, спробуйте пізніше");
+        } else if (error != null) {
             model.addAttribute("errorMessage", "Невірний логін або пароль");
         }
         return "login-page";
@@ -50,16 +49,22 @@ public class MainController {
      * @param doctor the model object containing login information
      * @param model      the model to add attributes to
      * @param session    the HTTP session to store authenticated user
+     * @param request    the current request, used for the client address
      * @return redirect to respective home page if successful, otherwise back to login with error
+     * ({@code error=busy} when the attempt is throttled or the password verifier pool is saturated)
      */
     @PostMapping("/")
-    public String login(@ModelAttribute PersonalModel doctor, Model model, HttpSession session) {
-        Optional<PersonalModel> userOptional = personalRepo.findByLogin(doctor.getLogin());
+    public String login(@ModelAttribute PersonalModel doctor, Model model, HttpSession session,
+                        HttpServletRequest request) {
+        LoginService.LoginResult result = loginService.authenticate(doctor.getLogin(), doctor.getAccess_key(),
+                request.getRemoteAddr());
 
+        if (result.status() == LoginService.Status.BUSY || result.status() == LoginService.Status.THROTTLED) {
+            return "redirect:/?error=busy";
+        }
 
-        if ((userOptional.isPresent() && userOptional.get().getAccess_key().equals(doctor.getAccess_key())) ||
-                (userOptional.isPresent() && passwordService.matchesPassword(doctor.getAccess_key(), userOptional.get().getAccess_key()))){
-            PersonalModel loggedInUser = userOptional.get();
+        if (result.status() == LoginService.Status.SUCCESS) {
+            StaffPrincipal loggedInUser = StaffPrincipal.of(result.user());
             session.setAttribute("loggedInUser", loggedInUser);
 
             // Перенаправлення в залежності від ролі користувача
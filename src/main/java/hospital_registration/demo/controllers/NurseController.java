@@ -1,6 +1,6 @@
 package hospital_registration.demo.controllers;
 
-import hospital_registration.demo.Models.PersonalModel;
+import hospital_registration.demo.Models.StaffPrincipal;
 import hospital_registration.demo.service.AuthorizationService;
 import jakarta.servlet.http.HttpSession;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -27,7 +27,7 @@ public class NurseController {
      */
     @GetMapping("/NurseHome")
     public String nurseHome(Model model, HttpSession session) {
-        PersonalModel user = (PersonalModel) session.getAttribute("loggedInUser");
+        StaffPrincipal user = (StaffPrincipal) session.getAttribute("loggedInUser");
 
         // Якщо користувач не автентифікований — редірект на сторінку логіну
         if (user == null) {
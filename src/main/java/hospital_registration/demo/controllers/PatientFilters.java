@@ -0,0 +1,41 @@
+package hospital_registration.demo.controllers;
+
+import hospital_registration.demo.service.PatientQuery;
+import hospital_registration.demo.service.PatientQueryParser;
+import hospital_registration.demo.service.TextSearchIndex;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+/**
+ * Додаткові фільтри сторінок переліку пацієнтів та історії, які поєднуються з рядком пошуку.
+ * Заповнюється з параметрів GET-запиту і доступна в шаблоні як {@code filters}.
+ *
+ * @param department   префікс назви відділення
+ * @param doctor       ID лікаря
+ * @param recordedFrom дата запису «від» (включно)
+ * @param recordedTo   дата запису «до» (включно)
+ * @param diagnosis    фрагмент діагнозу
+ */
+public record PatientFilters(String department,
+                             Long doctor,
+                             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate recordedFrom,
+                             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate recordedTo,
+                             String diagnosis) {
+
+    /**
+     * Будує запит з рядка пошуку та фільтрів.
+     *
+     * @param searchType тип пошуку
+     * @param searchTerm рядок пошуку
+     * @return запит пошуку
+     */
+    public PatientQuery toQuery(String searchType, String searchTerm) {
+        return PatientQueryParser.parse(searchType, searchTerm)
+                .doctor(doctor)
+                .department(department)
+                .recordedBetween(recordedFrom, recordedTo)
+                .text(TextSearchIndex.Field.DIAGNOSIS, diagnosis)
+                .build();
+    }
+}
@@ -1,25 +1,28 @@
 package hospital_registration.demo.controllers;
 
-import hospital_registration.demo.Models.HistoryPatientsModel;
 import hospital_registration.demo.Models.PatientModel;
-import hospital_registration.demo.Models.PersonalModel;
-import hospital_registration.demo.repo.HistoryPatientRepo;
+import hospital_registration.demo.Models.StaffPrincipal;
+import hospital_registration.demo.repo.PatientListItem;
 import hospital_registration.demo.repo.PatientRepo;
+import hospital_registration.demo.service.AssignableDoctorService;
 import hospital_registration.demo.service.AuthorizationService;
+import hospital_registration.demo.service.DischargeService;
+import hospital_registration.demo.service.PatientChangedEvent;
+import hospital_registration.demo.service.PatientQuery;
+import hospital_registration.demo.service.PatientQueryParser;
+import hospital_registration.demo.service.PatientSearchEngine;
+import hospital_registration.demo.service.WardBoardService;
 import jakarta.servlet.http.HttpSession;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
-import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
-import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -30,12 +33,26 @@ import java.util.List;
 @Controller
 public class PatientReviewController {
 
+    /** Розмір сторінки списку пацієнтів за замовчуванням. */
+    private static final int DEFAULT_PAGE_SIZE = 50;
+
+    /** Максимальний розмір сторінки, який можна запросити параметром {@code size}. */
+    private static final int MAX_PAGE_SIZE = 200;
+
     @Autowired
     private PatientRepo patientRepo;
     @Autowired
     private AuthorizationService authService;
     @Autowired
-    private HistoryPatientRepo historyPatientRepo;
+    private ApplicationEventPublisher eventPublisher;
+    @Autowired
+    private DischargeService dischargeService;
+    @Autowired
+    private WardBoardService wardBoardService;
+    @Autowired
+    private PatientSearchEngine searchEngine;
+    @Autowired
+    private AssignableDoctorService assignableDoctorService;
 
 
     /**
@@ -43,16 +60,26 @@ public class PatientReviewController {
      * Перевіряє, чи користувач автентифікований та має права лікаря.
      * Лікар може переглядати лише своїх пацієнтів.
      *
-     * @param id      ідентифікатор лікаря
-     * @param session HTTP-сесія для отримання авторизованого користувача
-     * @param model   модель для передачі атрибутів у представлення
+     * @param id         ідентифікатор лікаря
+     * @param session    HTTP-сесія для отримання авторизованого користувача
+     * @param searchTerm рядок пошуку (необов'язковий)
+     * @param searchType тип пошуку
+     * @param size       розмір сторінки
+     * @param afterFrom  курсор: дата запису останнього пацієнта попередньої сторінки
+     * @param afterId    курсор: ID останнього пацієнта попередньої сторінки
+     * @param model      модель для передачі атрибутів у представлення
      * @return назва шаблону інформаційної панелі лікаря або редірект при відсутності доступу
      */
     @GetMapping("/DoctorHome/dashboard/{id}")
     public String getDoctorDashboard(@PathVariable Long id, HttpSession session,
                                      @RequestParam(value = "search", required = false) String searchTerm,
-                                     @RequestParam(value = "searchType", required = false, defaultValue = "all") String searchType,Model model) {
-        PersonalModel user = (PersonalModel) session.getAttribute("loggedInUser");
+                                     @RequestParam(value = "searchType", required = false, defaultValue = "all") String searchType,
+                                     @RequestParam(value = "size", required = false, defaultValue = "" + DEFAULT_PAGE_SIZE) int size,
+                                     @RequestParam(value = "afterFrom", required = false)
+                                     @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime afterFrom,
+                                     @RequestParam(value = "afterId", required = false) Long afterId,
+                                     Model model) {
+        StaffPrincipal user = (StaffPrincipal) session.getAttribute("loggedInUser");
         if (user == null) {
             return "redirect:/";
         }
@@ -65,20 +92,17 @@ public class PatientReviewController {
         if (authService.isDoctor(user) && !user.getId().equals(id)) {
             return "redirect:/access-denied";
         }
-        // Визначаємо чи є пошуковий запит
-        boolean hasSearchTerm = searchTerm != null && !searchTerm.trim().isEmpty();
-        String cleanSearchTerm = hasSearchTerm ? searchTerm.trim() : "";
+        PatientQuery query = PatientQueryParser.parse(searchType, searchTerm).doctor(id).build();
+        int pageSize = clampPageSize(size);
 
-        List<PatientModel> patients = getFilteredPatientsForDoctor(cleanSearchTerm, searchType, id);
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm");
+        List<PatientListItem> patients = searchEngine.findPatients(query, afterFrom, afterId, pageSize + 1);
 
         model.addAttribute("user", user);
-        model.addAttribute("patients", patients);
         model.addAttribute("searchTerm", searchTerm);
         model.addAttribute("searchType", searchType);
-        model.addAttribute("totalPatients", patients.size());
+        model.addAttribute("totalPatients", searchEngine.countPatients(query));
         model.addAttribute("doctorId", id);
-
+        addPageAttributes(model, patients, pageSize, afterFrom == null || afterId == null);
 
         return "patients-review-dashboard";
     }
@@ -95,7 +119,7 @@ public class PatientReviewController {
     // Форма для редагування дати виписки
     @GetMapping("/patients/discharge/{patientId}")
     public String getDischargeForm(@PathVariable Long patientId, HttpSession session, Model model) {
-        PersonalModel loggedInUser = (PersonalModel) session.getAttribute("loggedInUser");
+        StaffPrincipal loggedInUser = (StaffPrincipal) session.getAttribute("loggedInUser");
         if (loggedInUser == null) {
             return "redirect:/";
         }
@@ -137,7 +161,7 @@ public class PatientReviewController {
                                       HttpSession session,
                                       RedirectAttributes redirectAttributes) {
 
-        PersonalModel loggedInUser = (PersonalModel) session.getAttribute("loggedInUser");
+        StaffPrincipal loggedInUser = (StaffPrincipal) session.getAttribute("loggedInUser");
         if (loggedInUser == null) {
             return "redirect:/";
         }
@@ -169,6 +193,7 @@ public class PatientReviewController {
 
         patient.setAppointmentDateTo(dischargeDate);
         patientRepo.save(patient);
+        eventPublisher.publishEvent(PatientChangedEvent.dischargeDateChanged(patient));
         redirectAttributes.addFlashAttribute("message", "Дата виписки оновлена для пацієнта " + patient.getFullName());
 
         if (referer != null && referer.contains("/AllReview")) {
@@ -194,7 +219,7 @@ public class PatientReviewController {
                                 HttpSession session,
                                 RedirectAttributes redirectAttributes) {
 
-        PersonalModel loggedInUser = (PersonalModel) session.getAttribute("loggedInUser");
+        StaffPrincipal loggedInUser = (StaffPrincipal) session.getAttribute("loggedInUser");
         if (loggedInUser == null) {
             return "redirect:/";
         }
@@ -211,22 +236,7 @@ public class PatientReviewController {
             return "redirect:/access-denied";
         }
 
-        HistoryPatientsModel pastPatient = new HistoryPatientsModel(
-                patient.getFullName(),
-                patient.getPhone(),
-                patient.getDiagnosis(),
-                patient.getBirthDate(),
-                patient.getWard(),
-                patient.getDoctor(),
-                patient.getNotes(),
-                patient.getDepartment(),
-                patient.getAppointmentDateFrom(),
-                patient.getAppointmentDateTo(),
-                patient.getBed()
-        );
-        Long doctorId = patient.getDoctor().getId();
-        historyPatientRepo.save(pastPatient);
-        patientRepo.delete(patient);
+        dischargeService.discharge(patient);
         redirectAttributes.addFlashAttribute("message", "Пацієнта " + patient.getFullName() + " було виписано (видалено).");
         if (referer != null && referer.contains("/AllReview")) {
             return "redirect:/AllReview";
@@ -235,12 +245,39 @@ public class PatientReviewController {
         }
     }
 
+    /**
+     * Масово виписує всіх пацієнтів, дата виписки яких уже минула.
+     * Доступно лише головному лікарю.
+     *
+     * @param session            HTTP-сесія для перевірки користувача
+     * @param redirectAttributes об'єкт для передачі повідомлень при редіректі
+     * @return редірект на перегляд усіх пацієнтів
+     */
+    @PostMapping("/AllReview/discharge-expired")
+    public String dischargeExpired(HttpSession session, RedirectAttributes redirectAttributes) {
+        StaffPrincipal loggedInUser = (StaffPrincipal) session.getAttribute("loggedInUser");
+        if (!authService.hasMainDoctorAccess(loggedInUser)) {
+            return "redirect:/access-denied";
+        }
+
+        DischargeService.DischargeRun run = dischargeService.dischargeBefore(LocalDateTime.now());
+        redirectAttributes.addFlashAttribute("message",
+                "Виписано пацієнтів: " + run.discharged() + " (" + run.elapsedMillis() + " мс).");
+        return "redirect:/AllReview";
+    }
+
     /**
      * Відображає список усіх пацієнтів для головного лікаря та лікарів.
      * Медсестри бачать іншу сторінку з пацієнтами.
      *
-     * @param session HTTP-сесія для отримання користувача
-     * @param model   модель для передачі атрибутів у представлення
+     * @param session    HTTP-сесія для отримання користувача
+     * @param searchTerm рядок пошуку (необов'язковий)
+     * @param searchType тип пошуку
+     * @param filters    додаткові фільтри (відділення, лікар, проміжок дат запису, діагноз)
+     * @param size       розмір сторінки
+     * @param afterFrom  курсор: дата запису останнього пацієнта попередньої сторінки
+     * @param afterId    курсор: ID останнього пацієнта попередньої сторінки
+     * @param model      модель для передачі атрибутів у представлення
      * @return назва шаблону зі списком пацієнтів або редірект при відсутності доступу
      */
 
@@ -248,23 +285,32 @@ public class PatientReviewController {
     public String getAllPatientsForMainDoctor(HttpSession session,
                                               @RequestParam(value = "search", required = false) String searchTerm,
                                               @RequestParam(value = "searchType", required = false, defaultValue = "all") String searchType,
+                                              @ModelAttribute("filters") PatientFilters filters,
+                                              @RequestParam(value = "size", required = false, defaultValue = "" + DEFAULT_PAGE_SIZE) int size,
+                                              @RequestParam(value = "afterFrom", required = false)
+                                              @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime afterFrom,
+                                              @RequestParam(value = "afterId", required = false) Long afterId,
                                               Model model) {
-        PersonalModel user = (PersonalModel) session.getAttribute("loggedInUser");
+        StaffPrincipal user = (StaffPrincipal) session.getAttribute("loggedInUser");
         if (user == null) {
             return "redirect:/";
         }
-        List<PatientModel> allPatients = patientRepo.findAll();
-        // Визначаємо чи є пошуковий запит
-        boolean hasSearchTerm = searchTerm != null && !searchTerm.trim().isEmpty();
-        String cleanSearchTerm = hasSearchTerm ? searchTerm.trim() : "";
+        PatientQuery query = filters.toQuery(searchType, searchTerm);
+        int pageSize = clampPageSize(size);
+        // Версія дошки береться до запиту: зміни, зафіксовані під час побудови сторінки,
+        // буде повторно надіслано через SSE-потік
+        long boardVersion = wardBoardService.currentVersion();
 
-        List<PatientModel> patients = getFilteredPatients(cleanSearchTerm, searchType);
+        List<PatientListItem> patients = searchEngine.findPatients(query, afterFrom, afterId, pageSize + 1);
         model.addAttribute("user", user);
-        model.addAttribute("patients", patients);
         model.addAttribute("searchTerm", searchTerm);
         model.addAttribute("searchType", searchType);
-        model.addAttribute("totalPatients", patients.size());
+        model.addAttribute("totalPatients", searchEngine.countPatients(query));
+        model.addAttribute("doctors", assignableDoctorService.findAll());
+        model.addAttribute("filtered", query.hasFilters());
+        addPageAttributes(model, patients, pageSize, afterFrom == null || afterId == null);
         if (authService.isDoctor(user) || authService.isNurse(user)) {
+            model.addAttribute("boardVersion", boardVersion);
             return "patients-allreview";
         } else if (authService.isMainDoctor(user)) {
             return "patients-allreview-maindoctor";
@@ -276,124 +322,37 @@ public class PatientReviewController {
     }
 
     /**
-     * Повертає відфільтрований список пацієнтів, прикріплених до певного лікаря,
-     * згідно з вказаним типом пошуку та пошуковим терміном.
+     * Обмежує розмір сторінки, переданий у запиті, допустимим діапазоном.
      *
-     * @param searchTerm термін для пошуку (ПІБ, телефон, діагноз або дата)
-     * @param searchType тип пошуку:
-     *                   <ul>
-     *                      <li><b>name</b> — пошук за повним ім’ям пацієнта</li>
-     *                      <li><b>phone</b> — пошук за номером телефону</li>
-     *                      <li><b>diagnosis</b> — пошук за діагнозом</li>
-     *                      <li><b>dischargeDATE</b> — пошук за датою виписки (формат dd.MM.yyyy)</li>
-     *                      <li><b>recordedDATE</b> — пошук за датою реєстрації (формат dd.MM.yyyy)</li>
-     *                      <li><b>all</b> або інше — універсальний пошук по всіх полях</li>
-     *                   </ul>
-     * @param id ідентифікатор лікаря
-     * @return список пацієнтів, які відповідають умовам фільтрації; якщо пошукова дата недійсна — повертається порожній список
+     * @param size запитаний розмір сторінки
+     * @return розмір сторінки в межах [1, {@value #MAX_PAGE_SIZE}]
      */
-    private List<PatientModel> getFilteredPatientsForDoctor(String searchTerm, String searchType, Long id) {
-        switch (searchType) {
-            case "name":
-                return patientRepo.findByDoctorIdAndFullNameContainingIgnoreCase(id, searchTerm);
-            case "phone":
-                return patientRepo.findByDoctorIdAndPhoneContaining(id, searchTerm);
-            case "diagnosis":
-                return patientRepo.findByDoctorIdAndDiagnosisContainingIgnoreCase(id, searchTerm);
-            case "dischargeDATE":
-                try {
-                    DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd.MM.yyyy");
-                    LocalDate date = LocalDate.parse(searchTerm, formatter);
-                    LocalDateTime from = date.atStartOfDay();
-                    LocalDateTime to = date.atTime(LocalTime.MAX);
-                    return patientRepo.findByAppointmentDateBetweenDoctorId(id, from, to);
-                } catch (DateTimeParseException e) {
-                    // Якщо введено не дату — повернути порожній список або всі записи, або логувати помилку
-                    return new ArrayList<>();
-                }
-            case "recordedDATE":
-                try {
-                    DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd.MM.yyyy");
-                    LocalDate date = LocalDate.parse(searchTerm, formatter);
-                    LocalDateTime from = date.atStartOfDay();
-                    LocalDateTime to = date.atTime(LocalTime.MAX);
-                    return patientRepo.findByRecordedDateDoctor(id, from, to);
-                } catch (DateTimeParseException e) {
-                    // Якщо введено не дату — повернути порожній список або всі записи, або логувати помилку
-                    return new ArrayList<>();
-                }
-            case "all":
-            default:
-                try {
-                    DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd.MM.yyyy");
-                    LocalDate date = LocalDate.parse(searchTerm, formatter);
-                    LocalDateTime from = date.atStartOfDay();
-                    LocalDateTime to = date.atTime(LocalTime.MAX);
-                    return patientRepo.findByDateFieldsDoctor(id, from, to);
-                } catch (DateTimeParseException e) {
-                    return patientRepo.findByDoctorIdAndAllFieldsContaining(id, searchTerm);
-                }
-        }
+    private int clampPageSize(int size) {
+        return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
     }
 
-
     /**
-     * Повертає відфільтрований список усіх пацієнтів у системі (незалежно від лікаря),
-     * згідно з вказаним типом пошуку та пошуковим терміном.
+     * Додає до моделі поточну сторінку пацієнтів та курсор наступної сторінки.
+     * Запит повертає на один запис більше за розмір сторінки — наявність цього
+     * запису означає, що наступна сторінка існує.
      *
-     * @param searchTerm термін для пошуку (ПІБ, телефон, діагноз або дата)
-     * @param searchType тип пошуку:
-     *                   <ul>
-     *                      <li><b>name</b> — пошук за повним ім’ям пацієнта</li>
-     *                      <li><b>phone</b> — пошук за номером телефону</li>
-     *                      <li><b>diagnosis</b> — пошук за діагнозом</li>
-     *                      <li><b>dischargeDATE</b> — пошук за датою виписки (формат dd.MM.yyyy)</li>
-     *                      <li><b>recordedDATE</b> — пошук за датою реєстрації (формат dd.MM.yyyy)</li>
-     *                      <li><b>all</b> або інше — універсальний пошук по всіх полях</li>
-     *                   </ul>
-     * @return список пацієнтів, які відповідають умовам фільтрації; якщо пошукова дата недійсна — повертається порожній список
+     * @param model     модель для передачі атрибутів у представлення
+     * @param patients  результат запиту (до {@code pageSize + 1} записів)
+     * @param pageSize  розмір сторінки
+     * @param firstPage чи є сторінка першою (запит без курсора)
      */
-    private List<PatientModel> getFilteredPatients(String searchTerm, String searchType) {
-        switch (searchType) {
-            case "name":
-                return patientRepo.findByFullNameContainingIgnoreCase(searchTerm);
-            case "phone":
-                return patientRepo.findByPhoneContaining(searchTerm);
-            case "diagnosis":
-                return patientRepo.findByDiagnosisContainingIgnoreCase(searchTerm);
-            case "dischargeDATE":
-                try {
-                    DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd.MM.yyyy");
-                    LocalDate date = LocalDate.parse(searchTerm, formatter);
-                    LocalDateTime from = date.atStartOfDay();
-                    LocalDateTime to = date.atTime(LocalTime.MAX);
-                    return patientRepo.findByAppointmentDateBetween(from, to);
-                } catch (DateTimeParseException e) {
-                    // Якщо введено не дату — повернути порожній список або всі записи, або логувати помилку
-                    return new ArrayList<>();
-                }
-            case "recordedDATE":
-                try {
-                    DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd.MM.yyyy");
-                    LocalDate date = LocalDate.parse(searchTerm, formatter);
-                    LocalDateTime from = date.atStartOfDay();
-                    LocalDateTime to = date.atTime(LocalTime.MAX);
-                    return patientRepo.findByRecordedDate(from, to);
-                } catch (DateTimeParseException e) {
-                    // Якщо введено не дату — повернути порожній список або всі записи, або логувати помилку
-                    return new ArrayList<>();
-                }
-            case "all":
-            default:
-                try {
-                    DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd.MM.yyyy");
-                    LocalDate date = LocalDate.parse(searchTerm, formatter);
-                    LocalDateTime from = date.atStartOfDay();
-                    LocalDateTime to = date.atTime(LocalTime.MAX);
-                    return patientRepo.findByDateFields(from, to);
-                } catch (DateTimeParseException e) {
-                    return patientRepo.findByAllFieldsContaining(searchTerm);
-                }
+    private void addPageAttributes(Model model, List<PatientListItem> patients, int pageSize, boolean firstPage) {
+        boolean hasNext = patients.size() > pageSize;
+        List<PatientListItem> page = hasNext ? patients.subList(0, pageSize) : patients;
+
+        model.addAttribute("patients", page);
+        model.addAttribute("size", pageSize);
+        model.addAttribute("firstPage", firstPage);
+        model.addAttribute("hasNext", hasNext);
+        if (hasNext) {
+            PatientListItem last = page.get(page.size() - 1);
+            model.addAttribute("nextFrom", last.getAppointmentDateFrom());
+            model.addAttribute("nextId", last.getId());
         }
     }
 }
@@ -0,0 +1,54 @@
+package hospital_registration.demo.controllers;
+
+import hospital_registration.demo.Models.StaffPrincipal;
+import hospital_registration.demo.service.AuthorizationService;
+import hospital_registration.demo.service.EndpointStatsService;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+/**
+ * Контролер сторінки найповільніших ендпоінтів застосунку.
+ * Доступ надається лише головному лікарю.
+ */
+@Controller
+public class SlowEndpointsController {
+
+    /** Максимальна кількість рядків на сторінці */
+    private static final int MAX_LIMIT = 100;
+
+    @Autowired
+    private AuthorizationService authService;
+
+    @Autowired
+    private EndpointStatsService endpointStatsService;
+
+    /**
+     * Відображає top-N найповільніших ендпоінтів за 95-м перцентилем часу відповіді.
+     *
+     * @param limit   кількість рядків
+     * @param model   модель для передачі атрибутів у представлення
+     * @param session поточна HTTP-сесія для отримання автентифікованого користувача
+     * @return назва шаблону сторінки або редірект при відсутності доступу
+     */
+    @GetMapping("/slowest-endpoints")
+    public String slowestEndpoints(@RequestParam(value = "limit", required = false, defaultValue = "10") int limit,
+                                   Model model, HttpSession session) {
+        StaffPrincipal user = (StaffPrincipal) session.getAttribute("loggedInUser");
+        if (user == null) {
+            return "redirect:/";
+        }
+        if (!authService.hasMainDoctorAccess(user)) {
+            return "redirect:/access-denied";
+        }
+
+        int rows = Math.max(1, Math.min(limit, MAX_LIMIT));
+        model.addAttribute("user", user);
+        model.addAttribute("limit", rows);
+        model.addAttribute("endpoints", endpointStatsService.slowest(rows));
+        return "slowest-endpoints";
+    }
+}
@@ -0,0 +1,47 @@
+package hospital_registration.demo.controllers;
+
+import hospital_registration.demo.Models.StaffPrincipal;
+import hospital_registration.demo.service.WardBoardService;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Потік живої дошки відділення для сторінки {@code /AllReview}.
+ * Замість періодичного перезавантаження сторінки медсестринський пост тримає
+ * одне SSE-з'єднання і отримує лише зміни окремих пацієнтів.
+ */
+@Controller
+public class WardBoardController {
+
+    @Autowired
+    private WardBoardService wardBoardService;
+
+    /**
+     * Відкриває SSE-потік подій дошки.
+     *
+     * @param session     HTTP-сесія для перевірки користувача
+     * @param lastEventId номер останньої події, отриманої перед перепідключенням (заголовок браузера)
+     * @param since       версія дошки, з якою побудовано сторінку (перше підключення)
+     * @return SSE-потік або 403, якщо користувач не увійшов
+     */
+    @GetMapping(value = "/AllReview/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> stream(HttpSession session,
+                                             @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId,
+                                             @RequestParam(value = "since", required = false) Long since) {
+        StaffPrincipal user = (StaffPrincipal) session.getAttribute("loggedInUser");
+        if (user == null) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return ResponseEntity.ok()
+                .header("X-Accel-Buffering", "no")
+                .body(wardBoardService.subscribe(lastEventId != null ? lastEventId : since));
+    }
+}
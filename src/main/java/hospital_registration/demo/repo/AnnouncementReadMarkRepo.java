@@ -0,0 +1,14 @@
+package hospital_registration.demo.repo;
+
+import hospital_registration.demo.Models.AnnouncementReadMark;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Репозиторій позначок прочитання оголошень {@link AnnouncementReadMark}.
+ * Позначки читаються повністю лише під час запуску
+ * {@link hospital_registration.demo.service.AnnouncementReadTracker}.
+ */
+@Repository
+public interface AnnouncementReadMarkRepo extends JpaRepository<AnnouncementReadMark, Long> {
+}
@@ -1,16 +1,56 @@
 package hospital_registration.demo.repo;
 
 import hospital_registration.demo.Models.Announcement;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
  * Репозиторій для роботи з оголошеннями {@link Announcement}.
  * Надає базові CRUD-операції через інтерфейс JpaRepository.
+ * Список оголошень кешується в кеші запитів Hibernate, а самі оголошення — у кеші
+ * другого рівня; будь-який запис у таблицю через Hibernate інвалідує закешований список.
+ * Стрічка оголошень читається сторінками з keyset-курсором за {@code (createdAt, id)}
+ * по індексу {@code idx_announcement_created} і без повного тексту.
  */
 @Repository
 public interface AnnouncementRepository extends JpaRepository<Announcement, Long> {
+    /**
+     * @return усі оголошення, новіші першими
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Announcement> findAllByOrderByCreatedAtDesc();
+
+    /**
+     * Сторінка стрічки оголошень, новіші першими. Вміст обрізається в самому запиті,
+     * тож з бази не читається повний {@code TEXT}.
+     *
+     * @param afterAt  дата створення останнього оголошення попередньої сторінки (null — перша сторінка)
+     * @param afterId  ID останнього оголошення попередньої сторінки
+     * @param pageable розмір сторінки
+     * @return сторінка стрічки
+     */
+    @Query("SELECT new hospital_registration.demo.repo.AnnouncementSummary(a.id, a.title, " +
+            "SUBSTRING(a.content, 1, " + (AnnouncementSummary.EXCERPT_LENGTH + 1) + "), a.createdAt) " +
+            "FROM Announcement a WHERE (:afterAt IS NULL OR a.createdAt < :afterAt " +
+            "OR (a.createdAt = :afterAt AND a.id < :afterId)) ORDER BY a.createdAt DESC, a.id DESC")
+    List<AnnouncementSummary> findFeedPage(@Param("afterAt") LocalDateTime afterAt, @Param("afterId") Long afterId,
+                                           Pageable pageable);
+
+    /**
+     * Повертає ID усіх оголошень за зростанням для
+     * {@link hospital_registration.demo.service.AnnouncementReadTracker}.
+     *
+     * @return список ID оголошень
+     */
+    @Query("SELECT a.id FROM Announcement a ORDER BY a.id")
+    List<Long> findAllIds();
 }
@@ -0,0 +1,62 @@
+package hospital_registration.demo.repo;
+
+import java.time.LocalDateTime;
+
+/**
+ * Оголошення у стрічці: назва, дата і початок тексту.
+ * <p>
+ * Запит стрічки читає лише перші {@link #EXCERPT_LENGTH} + 1 символів вмісту: зайвий символ
+ * показує, що текст довший за уривок, і повний вміст треба завантажити окремо.
+ * Об'єкт лише для читання, тому сторінку стрічки безпечно зберігати в кеші.
+ * </p>
+ */
+public class AnnouncementSummary {
+
+    /** Довжина уривку тексту в стрічці */
+    public static final int EXCERPT_LENGTH = 200;
+
+    private final Long id;
+    private final String title;
+    private final String excerpt;
+    private final boolean truncated;
+    private final LocalDateTime createdAt;
+
+    /**
+     * Конструктор, який викликається з JPQL-запиту репозиторію.
+     *
+     * @param id        ID оголошення
+     * @param title     назва
+     * @param head      початок вмісту довжиною до {@link #EXCERPT_LENGTH} + 1 символів
+     * @param createdAt дата створення
+     */
+    public AnnouncementSummary(Long id, String title, String head, LocalDateTime createdAt) {
+        this.id = id;
+        this.title = title;
+        this.truncated = head != null && head.length() > EXCERPT_LENGTH;
+        this.excerpt = truncated ? head.substring(0, EXCERPT_LENGTH).stripTrailing() : head;
+        this.createdAt = createdAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getExcerpt() {
+        return excerpt;
+    }
+
+    /**
+     * @return true, якщо вміст довший за уривок
+     */
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+}
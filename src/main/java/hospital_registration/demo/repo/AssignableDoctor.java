@@ -0,0 +1,40 @@
+package hospital_registration.demo.repo;
+
+/**
+ * Лікар у випадаючому списку форм пацієнта.
+ * <p>
+ * Містить лише поля, потрібні для відображення варіанту вибору, тому список
+ * безпечно зберігати в кеші без хешів паролів і контактних даних. Об'єкт лише для читання.
+ * </p>
+ */
+public class AssignableDoctor {
+
+    private final Long id;
+    private final String fullName;
+    private final String specialty;
+
+    /**
+     * Конструктор, який викликається з JPQL-запиту репозиторію.
+     *
+     * @param id        ID лікаря
+     * @param fullName  ПІБ лікаря
+     * @param specialty спеціалізація
+     */
+    public AssignableDoctor(Long id, String fullName, String specialty) {
+        this.id = id;
+        this.fullName = fullName;
+        this.specialty = specialty;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getFullName() {
+        return fullName;
+    }
+
+    public String getSpecialty() {
+        return specialty;
+    }
+}
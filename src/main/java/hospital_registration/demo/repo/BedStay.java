@@ -0,0 +1,27 @@
+package hospital_registration.demo.repo;
+
+import java.time.LocalDateTime;
+
+/**
+ * Проєкція перебування пацієнта на ліжку для індексу зайнятості ліжок.
+ */
+public interface BedStay {
+
+    /** @return ID пацієнта */
+    Long getId();
+
+    /** @return номер палати */
+    Integer getWard();
+
+    /** @return номер ліжка */
+    Integer getBed();
+
+    /** @return департамент */
+    String getDepartment();
+
+    /** @return дата запису */
+    LocalDateTime getAppointmentDateFrom();
+
+    /** @return дата виписки */
+    LocalDateTime getAppointmentDateTo();
+}
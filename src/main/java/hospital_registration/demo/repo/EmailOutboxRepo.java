@@ -0,0 +1,81 @@
+package hospital_registration.demo.repo;
+
+import hospital_registration.demo.Models.EmailOutbox;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Репозиторій черги вихідних email-повідомлень {@link EmailOutbox}.
+ */
+@Repository
+public interface EmailOutboxRepo extends JpaRepository<EmailOutbox, Long> {
+
+    /**
+     * Вибирає записи, готові до надсилання, і блокує їх до кінця транзакції.
+     * Рядки, вже заблоковані іншим екземпляром застосунку, пропускаються (SKIP LOCKED),
+     * тому кілька вузлів можуть розбирати чергу паралельно.
+     *
+     * @param now      поточний час
+     * @param pageable розмір пакета
+     * @return записи для надсилання
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT e FROM EmailOutbox e WHERE e.status = hospital_registration.demo.Models.EmailOutbox.Status.PENDING " +
+            "AND e.nextAttemptAt <= :now ORDER BY e.id")
+    List<EmailOutbox> findDueForUpdate(@Param("now") LocalDateTime now, Pageable pageable);
+
+    /**
+     * Ставить у чергу однаковий лист для кожного співробітника з email одним запитом INSERT ... SELECT.
+     * Підказка {@code native.spaces} повідомляє Hibernate, що змінюється лише {@code email_outbox},
+     * тому кеш другого рівня для персоналу й оголошень не очищується.
+     *
+     * @param subject тема листа
+     * @param body    вміст листа
+     * @param now     час створення
+     * @return кількість створених записів
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "email_outbox"))
+    @Query(value = "INSERT INTO email_outbox (recipient, subject, body, status, attempts, next_attempt_at, created_at) " +
+            "SELECT p.email, :subject, :body, 'PENDING', 0, :now, :now FROM personal_model p " +
+            "WHERE p.email IS NOT NULL AND p.email <> ''", nativeQuery = true)
+    int enqueueForAllStaff(@Param("subject") String subject, @Param("body") String body,
+                           @Param("now") LocalDateTime now);
+
+    /**
+     * Відкладає наступну спробу для взятих у роботу записів. Якщо вузол впаде до
+     * завершення надсилання, записи знову стануть доступними після закінчення оренди.
+     *
+     * @param ids   ідентифікатори записів
+     * @param until час закінчення оренди
+     * @return кількість оновлених записів
+     */
+    @Modifying
+    @Query("UPDATE EmailOutbox e SET e.nextAttemptAt = :until WHERE e.id IN :ids")
+    int lease(@Param("ids") List<Long> ids, @Param("until") LocalDateTime until);
+
+    /**
+     * Позначає записи як надіслані.
+     *
+     * @param ids    ідентифікатори записів
+     * @param sentAt час надсилання
+     * @return кількість оновлених записів
+     */
+    @Modifying
+    @Query("UPDATE EmailOutbox e SET e.status = hospital_registration.demo.Models.EmailOutbox.Status.SENT, " +
+            "e.sentAt = :sentAt, e.attempts = e.attempts + 1, e.lastError = NULL WHERE e.id IN :ids")
+    int markSent(@Param("ids") List<Long> ids, @Param("sentAt") LocalDateTime sentAt);
+}
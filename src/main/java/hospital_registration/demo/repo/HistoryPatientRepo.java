@@ -2,22 +2,31 @@ package hospital_registration.demo.repo;
 
 import hospital_registration.demo.Models.HistoryPatientsModel;
 import hospital_registration.demo.Models.PersonalModel;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Репозиторій для роботи з історією пацієнтів {@link HistoryPatientsModel}.
- * Забезпечує пошук пацієнтів за різними критеріями:
- * лікар, ім'я, телефон, діагноз, дати виписки та запису тощо.
+ * Сторінку історії та пошук у ній виконує
+ * {@link hospital_registration.demo.service.PatientSearchEngine}.
  */
 @Repository
 public interface HistoryPatientRepo extends JpaRepository<HistoryPatientsModel, Long> {
 
+    /** Кількість рядків, які драйвер отримує з сервера за одне звернення при експорті */
+    String EXPORT_FETCH_SIZE = "1000";
+
     /**
      * Знаходить усіх історичних пацієнтів, які були закріплені за конкретним лікарем.
      * @param doctor лікар (PersonalModel)
@@ -33,113 +42,72 @@ public interface HistoryPatientRepo extends JpaRepository<HistoryPatientsModel,
     List<HistoryPatientsModel> findByDoctor_Id(Long doctorId);
 
     /**
-     * Пошук пацієнтів за частковим збігом імені (регістронезалежно).
-     * @param name частина імені для пошуку
-     * @return список пацієнтів
-     */
-    @Query("SELECT h FROM HistoryPatientsModel h WHERE LOWER(h.fullName) LIKE LOWER(CONCAT('%', :name, '%'))")
-    List<HistoryPatientsModel> findByFullNameContainingIgnoreCase(@Param("name") String name);
-
-    /**
-     * Пошук пацієнтів за частковим збігом телефону.
-     * @param phone частина телефону для пошуку
-     * @return список пацієнтів
-     */
-    @Query("SELECT h FROM HistoryPatientsModel h WHERE h.phone LIKE CONCAT('%', :phone, '%')")
-    List<HistoryPatientsModel> findByPhoneContaining(@Param("phone") String phone);
-
-    /**
-     * Пошук пацієнтів за частковим збігом діагнозу (регістронезалежно).
-     * @param diagnosis частина діагнозу для пошуку
-     * @return список пацієнтів
-     */
-    @Query("SELECT h FROM HistoryPatientsModel h WHERE LOWER(h.diagnosis) LIKE LOWER(CONCAT('%', :diagnosis, '%'))")
-    List<HistoryPatientsModel> findByDiagnosisContainingIgnoreCase(@Param("diagnosis") String diagnosis);
-
-    /**
-     * Пошук пацієнтів, які були виписані у певному діапазоні дат.
-     * Перевіряється поле appointmentDateTo.
-     * @param from початок діапазону
-     * @param to кінець діапазону
-     * @return список пацієнтів
-     */
-    @Query("SELECT h FROM HistoryPatientsModel h WHERE h.appointmentDateTo BETWEEN :from AND :to")
-    List<HistoryPatientsModel> findByDischargeDate(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
-
-    /**
-     * Пошук пацієнтів за датою запису (appointmentDateFrom) у заданому діапазоні.
-     * @param from початок діапазону
-     * @param to кінець діапазону
-     * @return список пацієнтів
+     * Повертає текстові поля всіх історичних пацієнтів для побудови пошукового індексу.
+     * @return список полів для індексації
      */
-    @Query("SELECT h FROM HistoryPatientsModel h WHERE h.appointmentDateFrom BETWEEN :from AND :to")
-    List<HistoryPatientsModel> findByRecordedDate(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+    @Query("SELECT h.id AS id, h.doctor.id AS doctorId, h.fullName AS fullName, " +
+            "h.phone AS phone, h.diagnosis AS diagnosis FROM HistoryPatientsModel h")
+    List<SearchFields> findAllSearchFields();
 
     /**
-     * Пошук пацієнтів, у яких appointmentDateFrom або appointmentDateTo потрапляє у заданий діапазон.
-     * @param from початок діапазону
-     * @param to кінець діапазону
-     * @return список пацієнтів
+     * Копіює поточних пацієнтів до історії одним запитом INSERT ... SELECT.
+     *
+     * @param ids ID пацієнтів з таблиці patients
+     * @return кількість доданих записів історії
      */
-    @Query("SELECT h FROM HistoryPatientsModel h WHERE " +
-            "h.appointmentDateFrom BETWEEN :from AND :to OR " +
-            "h.appointmentDateTo BETWEEN :from AND :to")
-    List<HistoryPatientsModel> findByDateFields(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "history_patients"))
+    @Query(value = "INSERT INTO history_patients (full_name, phone, diagnosis, birth_date, ward, doctor_id, " +
+            "notes, department, appointment_date_from, appointment_date_to, bed) " +
+            "SELECT full_name, phone, diagnosis, birth_date, ward, doctor_id, " +
+            "notes, department, appointment_date_from, appointment_date_to, bed " +
+            "FROM patients WHERE id IN (:ids) ORDER BY id", nativeQuery = true)
+    int archivePatients(@Param("ids") Collection<Long> ids);
 
     /**
-     * Комбінований пошук пацієнтів за іменем, телефоном або діагнозом (регістронезалежно).
-     * @param searchTerm текст для пошуку
-     * @return список пацієнтів
+     * @return найбільший ID запису історії або 0, якщо історія порожня
      */
-    @Query("SELECT h FROM HistoryPatientsModel h WHERE " +
-            "LOWER(h.fullName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
-            "h.phone LIKE CONCAT('%', :searchTerm, '%') OR " +
-            "LOWER(h.diagnosis) LIKE LOWER(CONCAT('%', :searchTerm, '%'))")
-    List<HistoryPatientsModel> findByAllFieldsContaining(@Param("searchTerm") String searchTerm);
+    @Query("SELECT COALESCE(MAX(h.id), 0) FROM HistoryPatientsModel h")
+    long findMaxId();
 
     /**
-     * Пошук пацієнтів за ID лікаря та частковим збігом імені (регістронезалежно).
-     * @param doctorId ID лікаря
-     * @param name частина імені
-     * @return список пацієнтів
+     * Завантажує поля для пошукового індексу записів, доданих після вказаного ID.
+     *
+     * @param afterId ID, після якого шукаються нові записи
+     * @return список полів для індексації
      */
-    @Query("SELECT h FROM HistoryPatientsModel h WHERE h.doctor.id = :doctorId AND " +
-            "LOWER(h.fullName) LIKE LOWER(CONCAT('%', :name, '%'))")
-    List<HistoryPatientsModel> findByDoctorIdAndFullNameContainingIgnoreCase(
-            @Param("doctorId") Long doctorId, @Param("name") String name);
+    @Query("SELECT h.id AS id, h.doctor.id AS doctorId, h.fullName AS fullName, " +
+            "h.phone AS phone, h.diagnosis AS diagnosis FROM HistoryPatientsModel h WHERE h.id > :afterId")
+    List<SearchFields> findSearchFieldsAfter(@Param("afterId") long afterId);
 
     /**
-     * Пошук пацієнтів за ID лікаря та частковим збігом телефону.
-     * @param doctorId ID лікаря
-     * @param phone частина телефону
-     * @return список пацієнтів
-     */
-    @Query("SELECT h FROM HistoryPatientsModel h WHERE h.doctor.id = :doctorId AND " +
-            "h.phone LIKE CONCAT('%', :phone, '%')")
-    List<HistoryPatientsModel> findByDoctorIdAndPhoneContaining(
-            @Param("doctorId") Long doctorId, @Param("phone") String phone);
-
-    /**
-     * Пошук пацієнтів за ID лікаря та частковим збігом діагнозу (регістронезалежно).
-     * @param doctorId ID лікаря
-     * @param diagnosis частина діагнозу
-     * @return список пацієнтів
-     */
-    @Query("SELECT h FROM HistoryPatientsModel h WHERE h.doctor.id = :doctorId AND " +
-            "LOWER(h.diagnosis) LIKE LOWER(CONCAT('%', :diagnosis, '%'))")
-    List<HistoryPatientsModel> findByDoctorIdAndDiagnosisContainingIgnoreCase(
-            @Param("doctorId") Long doctorId, @Param("diagnosis") String diagnosis);
-
-    /**
-     * Комбінований пошук пацієнтів за ID лікаря та збігом по імені, телефону або діагнозу.
-     * @param doctorId ID лікаря
-     * @param searchTerm текст для пошуку
-     * @return список пацієнтів
+     * Потокова вибірка історії для експорту
+     * ({@link hospital_registration.demo.service.HistoryExportService}).
+     * Рядки читаються з сервера порціями по {@value #EXPORT_FETCH_SIZE} і не потрапляють
+     * у контекст персистентності, тому пам'ять не залежить від розміру архіву.
+     * Потік потрібно закрити і читати в межах транзакції.
+     *
+     * @param from      початок діапазону дати виписки (включно) або null
+     * @param to        кінець діапазону дати виписки (не включно) або null
+     * @param doctorId  ID лікаря або null
+     * @param diagnosis фрагмент діагнозу з екранованими {@code %}, {@code _} та {@code \} або null
+     * @return потік записів, упорядкований за ID
      */
-    @Query("SELECT h FROM HistoryPatientsModel h WHERE h.doctor.id = :doctorId AND (" +
-            "LOWER(h.fullName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
-            "h.phone LIKE CONCAT('%', :searchTerm, '%') OR " +
-            "LOWER(h.diagnosis) LIKE LOWER(CONCAT('%', :searchTerm, '%')))")
-    List<HistoryPatientsModel> findByDoctorIdAndAllFieldsContaining(
-            @Param("doctorId") Long doctorId, @Param("searchTerm") String searchTerm);
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new hospital_registration.demo.repo.PatientListItem(" +
+            "h.id, h.fullName, h.birthDate, h.ward, h.bed, h.phone, h.diagnosis, h.notes, h.department, " +
+            "h.appointmentDateFrom, h.appointmentDateTo, d.id, d.fullName) " +
+            "FROM HistoryPatientsModel h JOIN h.doctor d " +
+            "WHERE (:from IS NULL OR h.appointmentDateTo >= :from) " +
+            "AND (:to IS NULL OR h.appointmentDateTo < :to) " +
+            "AND (:doctorId IS NULL OR d.id = :doctorId) " +
+            "AND (:diagnosis IS NULL OR h.diagnosis LIKE CONCAT('%', :diagnosis, '%') ESCAPE '\\') " +
+            "ORDER BY h.id ASC")
+    Stream<PatientListItem> streamForExport(@Param("from") LocalDateTime from,
+                                            @Param("to") LocalDateTime to,
+                                            @Param("doctorId") Long doctorId,
+                                            @Param("diagnosis") String diagnosis);
 }
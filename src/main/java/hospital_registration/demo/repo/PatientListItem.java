@@ -0,0 +1,104 @@
+package hospital_registration.demo.repo;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Рядок таблиці пацієнтів для сторінок переліку (поточні пацієнти та історія).
+ * <p>
+ * Заповнюється конструкторним виразом запиту з одним JOIN до лікаря, тому сторінка
+ * завантажується одним запитом без повної сутності {@code PersonalModel}
+ * (зокрема без хешу пароля лікаря). Об'єкт лише для читання.
+ * </p>
+ */
+public class PatientListItem {
+
+    private final Long id;
+    private final String fullName;
+    private final LocalDate birthDate;
+    private final Integer ward;
+    private final Integer bed;
+    private final String phone;
+    private final String diagnosis;
+    private final String notes;
+    private final String department;
+    private final LocalDateTime appointmentDateFrom;
+    private final LocalDateTime appointmentDateTo;
+    private final Long doctorId;
+    private final String doctorFullName;
+
+    /**
+     * Конструктор, який викликається з запитів {@link hospital_registration.demo.service.PatientSearchEngine}.
+     *
+     * @param id                  ID пацієнта
+     * @param fullName            ПІБ пацієнта
+     * @param birthDate           дата народження
+     * @param ward                номер палати
+     * @param bed                 номер ліжка
+     * @param phone               номер телефону
+     * @param diagnosis           діагноз
+     * @param notes               примітки
+     * @param department          департамент
+     * @param appointmentDateFrom дата запису
+     * @param appointmentDateTo   дата виписки
+     * @param doctorId            ID лікаря
+     * @param doctorFullName      ПІБ лікаря
+     */
+    public PatientListItem(Long id, String fullName, LocalDate birthDate, Integer ward, Integer bed,
+                           String phone, String diagnosis, String notes, String department,
+                           LocalDateTime appointmentDateFrom, LocalDateTime appointmentDateTo,
+                           Long doctorId, String doctorFullName) {
+        this.id = id;
+        this.fullName = fullName;
+        this.birthDate = birthDate;
+        this.ward = ward;
+        this.bed = bed;
+        this.phone = phone;
+        this.diagnosis = diagnosis;
+        this.notes = notes;
+        this.department = department;
+        this.appointmentDateFrom = appointmentDateFrom;
+        this.appointmentDateTo = appointmentDateTo;
+        this.doctorId = doctorId;
+        this.doctorFullName = doctorFullName;
+    }
+
+    /** @return ID пацієнта */
+    public Long getId() { return id; }
+
+    /** @return ПІБ пацієнта */
+    public String getFullName() { return fullName; }
+
+    /** @return дата народження */
+    public LocalDate getBirthDate() { return birthDate; }
+
+    /** @return номер палати */
+    public Integer getWard() { return ward; }
+
+    /** @return номер ліжка */
+    public Integer getBed() { return bed; }
+
+    /** @return номер телефону */
+    public String getPhone() { return phone; }
+
+    /** @return діагноз */
+    public String getDiagnosis() { return diagnosis; }
+
+    /** @return примітки */
+    public String getNotes() { return notes; }
+
+    /** @return департамент */
+    public String getDepartment() { return department; }
+
+    /** @return дата запису */
+    public LocalDateTime getAppointmentDateFrom() { return appointmentDateFrom; }
+
+    /** @return дата виписки */
+    public LocalDateTime getAppointmentDateTo() { return appointmentDateTo; }
+
+    /** @return ID лікаря */
+    public Long getDoctorId() { return doctorId; }
+
+    /** @return ПІБ лікаря */
+    public String getDoctorFullName() { return doctorFullName; }
+}
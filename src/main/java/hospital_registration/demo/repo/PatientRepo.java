@@ -2,19 +2,25 @@ package hospital_registration.demo.repo;
 
 import hospital_registration.demo.Models.PatientModel;
 import hospital_registration.demo.Models.PersonalModel;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 /**
  * Репозиторій для роботи з даними пацієнтів.
  * Реалізує доступ до бази даних для сутності {@link PatientModel}.
- * Забезпечує пошук пацієнтів за різними критеріями, включаючи ім'я, телефон, діагноз,
- * діапазони дат та лікарів.
+ * Сторінки переліку та пошук пацієнтів виконує
+ * {@link hospital_registration.demo.service.PatientSearchEngine}; репозиторій містить
+ * запити для пошукового індексу, зайнятості ліжок і масової виписки.
  */
 @Repository
 public interface PatientRepo extends JpaRepository<PatientModel, Long> {
@@ -36,165 +42,44 @@ public interface PatientRepo extends JpaRepository<PatientModel, Long> {
     List<PatientModel> findByDoctor_Id(Long doctorId);
 
     /**
-     * Пошук пацієнтів за ім'ям (незалежно від регістру).
+     * Повертає текстові поля всіх пацієнтів для побудови пошукового індексу.
      *
-     * @param name часткове або повне ім'я пацієнта
-     * @return список знайдених пацієнтів
+     * @return список полів для індексації
      */
-    @Query("SELECT p FROM PatientModel p WHERE LOWER(p.fullName) LIKE LOWER(CONCAT('%', :name, '%'))")
-    List<PatientModel> findByFullNameContainingIgnoreCase(@Param("name") String name);
+    @Query("SELECT p.id AS id, p.doctor.id AS doctorId, p.fullName AS fullName, " +
+            "p.phone AS phone, p.diagnosis AS diagnosis FROM PatientModel p")
+    List<SearchFields> findAllSearchFields();
 
     /**
-     * Пошук пацієнтів за номером телефону.
+     * Повертає перебування всіх поточних пацієнтів на ліжках для побудови
+     * {@link hospital_registration.demo.service.BedOccupancyIndex}.
      *
-     * @param phone частковий або повний номер телефону пацієнта
-     * @return список знайдених пацієнтів
+     * @return список перебувань
      */
-    @Query("SELECT p FROM PatientModel p WHERE p.phone LIKE CONCAT('%', :phone, '%')")
-    List<PatientModel> findByPhoneContaining(@Param("phone") String phone);
+    @Query("SELECT p.id AS id, p.ward AS ward, p.bed AS bed, p.department AS department, " +
+            "p.appointmentDateFrom AS appointmentDateFrom, p.appointmentDateTo AS appointmentDateTo " +
+            "FROM PatientModel p")
+    List<BedStay> findAllBedStays();
 
     /**
-     * Пошук пацієнтів за діагнозом (незалежно від регістру).
+     * Блокує (SELECT ... FOR UPDATE) пацієнтів, дата виписки яких уже минула,
+     * щоб їх не змінили паралельно з масовою випискою.
      *
-     * @param diagnosis діагноз або його частина
-     * @return список знайдених пацієнтів
+     * @param cutoff момент, до якого дата виписки вважається минулою
+     * @return ID пацієнтів для виписки, упорядковані за зростанням
      */
-    @Query("SELECT p FROM PatientModel p WHERE LOWER(p.diagnosis) LIKE LOWER(CONCAT('%', :diagnosis, '%'))")
-    List<PatientModel> findByDiagnosisContainingIgnoreCase(@Param("diagnosis") String diagnosis);
+    @Query(value = "SELECT id FROM patients WHERE appointment_date_to < :cutoff ORDER BY id FOR UPDATE",
+            nativeQuery = true)
+    List<Long> lockIdsDischargedBefore(@Param("cutoff") LocalDateTime cutoff);
 
     /**
-     * Пошук пацієнтів за діапазоном дати прийому (дата виходу).
+     * Видаляє пацієнтів одним запитом.
      *
-     * @param from початкова дата
-     * @param to кінцева дата
-     * @return список пацієнтів
+     * @param ids ID пацієнтів
+     * @return кількість видалених рядків
      */
-    @Query("SELECT p FROM PatientModel p WHERE p.appointmentDateTo BETWEEN :from AND :to")
-    List<PatientModel> findByAppointmentDateBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
-
-    /**
-     * Пошук пацієнтів за діапазоном дати запису.
-     *
-     * @param from початкова дата
-     * @param to кінцева дата
-     * @return список пацієнтів
-     */
-    @Query("SELECT p FROM PatientModel p WHERE p.appointmentDateFrom BETWEEN :from AND :to")
-    List<PatientModel> findByRecordedDate(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
-
-    /**
-     * Пошук пацієнтів за діапазоном дати запису або дати прийому.
-     *
-     * @param from початкова дата
-     * @param to кінцева дата
-     * @return список пацієнтів
-     */
-    @Query("SELECT p FROM PatientModel p WHERE " +
-            "p.appointmentDateFrom BETWEEN :from AND :to OR " +
-            "p.appointmentDateTo BETWEEN :from AND :to")
-    List<PatientModel> findByDateFields(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
-
-    /**
-     * Пошук пацієнтів за всіма полями: ім'я, телефон, діагноз.
-     *
-     * @param searchTerm ключове слово для пошуку
-     * @return список пацієнтів, що відповідають критеріям
-     */
-    @Query("SELECT p FROM PatientModel p WHERE " +
-            "LOWER(p.fullName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
-            "p.phone LIKE CONCAT('%', :searchTerm, '%') OR " +
-            "LOWER(p.diagnosis) LIKE LOWER(CONCAT('%', :searchTerm, '%'))")
-    List<PatientModel> findByAllFieldsContaining(@Param("searchTerm") String searchTerm);
-
-    /**
-     * Пошук пацієнтів за лікарем та ім'ям.
-     *
-     * @param doctorId ID лікаря
-     * @param name     ім'я або його частина
-     * @return список знайдених пацієнтів
-     */
-    @Query("SELECT p FROM PatientModel p WHERE p.doctor.id = :doctorId AND " +
-            "LOWER(p.fullName) LIKE LOWER(CONCAT('%', :name, '%'))")
-    List<PatientModel> findByDoctorIdAndFullNameContainingIgnoreCase(
-            @Param("doctorId") Long doctorId, @Param("name") String name);
-
-    /**
-     * Пошук пацієнтів за лікарем та телефоном.
-     *
-     * @param doctorId ID лікаря
-     * @param phone    телефон або його частина
-     * @return список знайдених пацієнтів
-     */
-    @Query("SELECT p FROM PatientModel p WHERE p.doctor.id = :doctorId AND " +
-            "p.phone LIKE CONCAT('%', :phone, '%')")
-    List<PatientModel> findByDoctorIdAndPhoneContaining(
-            @Param("doctorId") Long doctorId, @Param("phone") String phone);
-
-    /**
-     * Пошук пацієнтів за лікарем та діагнозом.
-     *
-     * @param doctorId ID лікаря
-     * @param diagnosis діагноз або його частина
-     * @return список знайдених пацієнтів
-     */
-    @Query("SELECT p FROM PatientModel p WHERE p.doctor.id = :doctorId AND " +
-            "LOWER(p.diagnosis) LIKE LOWER(CONCAT('%', :diagnosis, '%'))")
-    List<PatientModel> findByDoctorIdAndDiagnosisContainingIgnoreCase(
-            @Param("doctorId") Long doctorId, @Param("diagnosis") String diagnosis);
-
-    /**
-     * Пошук пацієнтів за лікарем та діапазоном дати прийому.
-     *
-     * @param doctorId ID лікаря
-     * @param from     початкова дата
-     * @param to       кінцева дата
-     * @return список знайдених пацієнтів
-     */
-    @Query("SELECT p FROM PatientModel p WHERE p.doctor.id = :doctorId AND p.appointmentDateTo BETWEEN :from AND :to")
-    List<PatientModel> findByAppointmentDateBetweenDoctorId(
-            @Param("doctorId") Long doctorId, @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
-
-    /**
-     * Пошук пацієнтів за лікарем та діапазоном дати запису.
-     *
-     * @param doctorId ID лікаря
-     * @param from     початкова дата
-     * @param to       кінцева дата
-     * @return список знайдених пацієнтів
-     */
-    @Query("SELECT p FROM PatientModel p WHERE p.doctor.id = :doctorId AND p.appointmentDateFrom BETWEEN :from AND :to")
-    List<PatientModel> findByRecordedDateDoctor(@Param("doctorId") Long doctorId, @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
-
-    /**
-     * Пошук пацієнтів за лікарем та діапазоном дати запису або дати прийому.
-     *
-     * @param doctorId ID лікаря
-     * @param from     початкова дата
-     * @param to       кінцева дата
-     * @return список знайдених пацієнтів
-     */
-    @Query("SELECT p FROM PatientModel p WHERE p.doctor.id = :doctorId AND " +
-            "p.appointmentDateFrom BETWEEN :from AND :to OR " +
-            "p.appointmentDateTo BETWEEN :from AND :to")
-    List<PatientModel> findByDateFieldsDoctor(@Param("doctorId") Long doctorId, @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
-
-    /**
-     * Комбінований пошук пацієнтів за лікарем та всіма полями: ім'я, телефон, діагноз.
-     *
-     * @param doctorId   ID лікаря
-     * @param searchTerm ключове слово для пошуку
-     * @return список знайдених пацієнтів
-     */
-    @Query("SELECT p FROM PatientModel p WHERE p.doctor.id = :doctorId AND (" +
-            "LOWER(p.fullName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
-            "p.phone LIKE CONCAT('%', :searchTerm, '%') OR " +
-            "LOWER(p.diagnosis) LIKE LOWER(CONCAT('%', :searchTerm, '%')))")
-    List<PatientModel> findByDoctorIdAndAllFieldsContaining(
-            @Param("doctorId") Long doctorId, @Param("searchTerm") String searchTerm);
-
-    @Query("SELECT p FROM PatientModel p WHERE " +
-            "p.ward = :ward AND p.bed = :bed AND " +
-            "p.appointmentDateTo > :from AND p.appointmentDateFrom < :to")
-    List<PatientModel> findConflictingPatients(Integer ward, Integer bed, LocalDateTime from, LocalDateTime to);
-
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "patients"))
+    @Query(value = "DELETE FROM patients WHERE id IN (:ids)", nativeQuery = true)
+    int deleteByIds(@Param("ids") Collection<Long> ids);
 }
@@ -3,14 +3,23 @@ package hospital_registration.demo.repo;
 import java.util.List;
 import java.util.Optional;
 import hospital_registration.demo.Models.PersonalModel;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Репозиторій для персоналу лікарні {@link PersonalModel}.
  * Додатково містить методи пошуку за логіном та перевірки посади.
+ * Пошук у довіднику персоналу сторінками виконує
+ * {@link hospital_registration.demo.service.StaffSearchEngine}.
+ * Сутність зберігається в кеші другого рівня Hibernate, тому {@code findById} читає її без SQL;
+ * {@code findByLogin}, {@code findAll} та {@code existsById} позначені як кешовані запити.
  */
 
 @Repository
@@ -22,8 +31,42 @@ public interface PersonalRepo extends JpaRepository<PersonalModel, Long> {
      * @param login логін співробітника
      * @return Optional з моделлю співробітника або порожній Optional
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<PersonalModel> findByLogin(String login);
 
+    /**
+     * Повертає всіх співробітників із кешу запитів.
+     *
+     * @return список усіх співробітників
+     */
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<PersonalModel> findAll();
+
+    /**
+     * Перевіряє існування співробітника з кешу запитів.
+     *
+     * @param id ID співробітника
+     * @return true, якщо співробітник існує
+     */
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    boolean existsById(Long id);
+
+    /**
+     * Замінює збережений пароль, лише якщо він не змінився після перевірки при вході,
+     * щоб оновлення хешу не перезаписало паралельну зміну пароля.
+     *
+     * @param id     ID співробітника
+     * @param oldKey пароль, перевірений при вході
+     * @param newKey новий хеш пароля
+     * @return кількість оновлених рядків (0, якщо пароль уже змінено)
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE PersonalModel p SET p.access_key = :newKey WHERE p.id = :id AND p.access_key = :oldKey")
+    int replaceAccessKey(@Param("id") Long id, @Param("oldKey") String oldKey, @Param("newKey") String newKey);
+
     /**
      * Знаходить співробітника за електронною поштою.
      *
@@ -105,37 +148,44 @@ public interface PersonalRepo extends JpaRepository<PersonalModel, Long> {
     Optional<PersonalModel> findByPhone(String phone);
 
     /**
-     * Універсальний пошук по всіх текстових полях.
-     * Шукає співробітників, у яких хоча б одне поле містить задану підстроку.
+     * Знаходить всіх лікарів (включаючи головного лікаря).
      *
-     * ВИПРАВЛЕНО: Використовується STR() замість CAST для конвертації Integer в String
+     * @return список всіх лікарів
+     */
+    @Query("SELECT p FROM PersonalModel p WHERE p.role IN (" +
+            "hospital_registration.demo.Models.StaffRole.DOCTOR, hospital_registration.demo.Models.StaffRole.OTHER_DOCTOR, " +
+            "hospital_registration.demo.Models.StaffRole.MAIN_DOCTOR)")
+    List<PersonalModel> findAllDoctors();
+
+    /**
+     * Повертає лікарів (включаючи головного лікаря), яких можна призначити пацієнту,
+     * у вигляді легкої проєкції для випадаючих списків, впорядкованих за ПІБ.
      *
-     * @param searchTerm термін для пошуку
-     * @return список співробітників, що відповідають критерію пошуку
+     * @return список лікарів для вибору
      */
-    @Query("SELECT p FROM PersonalModel p WHERE " +
-            "LOWER(p.fullName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
-            "LOWER(p.login) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
-            "LOWER(p.position) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
-            "LOWER(p.specialty) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
-            "LOWER(p.email) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
-            "STR(p.phone) LIKE CONCAT('%', :searchTerm, '%')")
-    List<PersonalModel> findByAllFieldsContaining(@Param("searchTerm") String searchTerm);
+    @Query("SELECT new hospital_registration.demo.repo.AssignableDoctor(p.id, p.fullName, p.specialty) " +
+            "FROM PersonalModel p WHERE p.role IN (" +
+            "hospital_registration.demo.Models.StaffRole.DOCTOR, hospital_registration.demo.Models.StaffRole.OTHER_DOCTOR, " +
+            "hospital_registration.demo.Models.StaffRole.MAIN_DOCTOR) " +
+            "ORDER BY p.fullName")
+    List<AssignableDoctor> findAssignableDoctors();
 
     /**
-     * Знаходить всіх лікарів (включаючи головного лікаря).
+     * Повертає профіль співробітника для сторінки акаунта без хешу пароля.
      *
-     * @return список всіх лікарів
+     * @param id ID співробітника
+     * @return Optional з профілем або порожній Optional
      */
-    @Query("SELECT p FROM PersonalModel p WHERE LOWER(p.position) LIKE '%лікар%'")
-    List<PersonalModel> findAllDoctors();
+    @Query("SELECT new hospital_registration.demo.repo.StaffProfile(p.id, p.fullName, p.login, p.phone, " +
+            "p.position, p.specialty, p.email) FROM PersonalModel p WHERE p.id = :id")
+    Optional<StaffProfile> findProfileById(@Param("id") Long id);
 
     /**
      * Знаходить всіх медсестер.
      *
      * @return список всіх медсестер
      */
-    @Query("SELECT p FROM PersonalModel p WHERE LOWER(p.position) LIKE '%сестр%'")
+    @Query("SELECT p FROM PersonalModel p WHERE p.role = hospital_registration.demo.Models.StaffRole.NURSE")
     List<PersonalModel> findAllNurses();
 
     /**
@@ -0,0 +1,23 @@
+package hospital_registration.demo.repo;
+
+/**
+ * Проєкція текстових полів пацієнта, які потрапляють до пошукового індексу.
+ * Використовується як для поточних пацієнтів, так і для історії.
+ */
+public interface SearchFields {
+
+    /** @return ID запису */
+    Long getId();
+
+    /** @return ID лікаря, за яким закріплено пацієнта */
+    Long getDoctorId();
+
+    /** @return ПІБ пацієнта */
+    String getFullName();
+
+    /** @return номер телефону */
+    String getPhone();
+
+    /** @return діагноз */
+    String getDiagnosis();
+}
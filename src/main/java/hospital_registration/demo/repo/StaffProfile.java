@@ -0,0 +1,70 @@
+package hospital_registration.demo.repo;
+
+/**
+ * Профіль співробітника для сторінки акаунта.
+ * <p>
+ * Містить лише дані, що показуються на сторінці, без хешу пароля, тому профіль
+ * безпечно зберігати в кеші {@code staffProfiles}. Об'єкт лише для читання:
+ * зміни профілю виконуються через сутність {@link hospital_registration.demo.Models.PersonalModel}.
+ * </p>
+ */
+public class StaffProfile {
+
+    private final Long id;
+    private final String fullName;
+    private final String login;
+    private final String phone;
+    private final String position;
+    private final String specialty;
+    private final String email;
+
+    /**
+     * Конструктор, який викликається з JPQL-запиту репозиторію.
+     *
+     * @param id        ID співробітника
+     * @param fullName  ПІБ
+     * @param login     логін
+     * @param phone     номер телефону
+     * @param position  посада
+     * @param specialty спеціалізація
+     * @param email     електронна пошта
+     */
+    public StaffProfile(Long id, String fullName, String login, String phone,
+                        String position, String specialty, String email) {
+        this.id = id;
+        this.fullName = fullName;
+        this.login = login;
+        this.phone = phone;
+        this.position = position;
+        this.specialty = specialty;
+        this.email = email;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getFullName() {
+        return fullName;
+    }
+
+    public String getLogin() {
+        return login;
+    }
+
+    public String getPhone() {
+        return phone;
+    }
+
+    public String getPosition() {
+        return position;
+    }
+
+    public String getSpecialty() {
+        return specialty;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+}
@@ -0,0 +1,90 @@
+package hospital_registration.demo.service;
+
+import hospital_registration.demo.repo.AnnouncementRepository;
+import hospital_registration.demo.repo.AnnouncementSummary;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Стрічка оголошень сторінками по {@link #PAGE_SIZE} записів.
+ * <p>
+ * Сторінка містить лише {@link AnnouncementSummary} (назва, дата, уривок тексту); повний текст
+ * завантажується окремим запитом, коли користувач його відкриває. Першу сторінку відкривають
+ * найчастіше, тому вона зберігається в кеші {@code announcementFeed} і скидається після
+ * публікації нового оголошення.
+ * </p>
+ */
+@Service
+public class AnnouncementFeedService {
+
+    /** Назва кешу першої сторінки стрічки */
+    public static final String CACHE = "announcementFeed";
+
+    /** Кількість оголошень на сторінці */
+    public static final int PAGE_SIZE = 20;
+
+    /**
+     * Сторінка стрічки.
+     *
+     * @param items   оголошення сторінки, новіші першими
+     * @param hasNext чи є наступна сторінка
+     * @param total   загальна кількість оголошень
+     */
+    public record FeedPage(List<AnnouncementSummary> items, boolean hasNext, long total) {
+
+        /**
+         * @return останнє оголошення сторінки — курсор наступної сторінки
+         */
+        public AnnouncementSummary last() {
+            return items.get(items.size() - 1);
+        }
+    }
+
+    private final AnnouncementRepository announcementRepository;
+
+    /**
+     * @param announcementRepository репозиторій оголошень
+     */
+    public AnnouncementFeedService(AnnouncementRepository announcementRepository) {
+        this.announcementRepository = announcementRepository;
+    }
+
+    /**
+     * @return перша сторінка стрічки (з кешу, якщо нових оголошень не було)
+     */
+    @Cacheable(CACHE)
+    public FeedPage firstPage() {
+        return load(null, null);
+    }
+
+    /**
+     * Повертає сторінку, що йде після курсора.
+     *
+     * @param afterAt дата створення останнього оголошення попередньої сторінки
+     * @param afterId ID останнього оголошення попередньої сторінки
+     * @return сторінка стрічки
+     */
+    public FeedPage pageAfter(LocalDateTime afterAt, Long afterId) {
+        return load(afterAt, afterId);
+    }
+
+    /**
+     * Скидає кешовану першу сторінку після публікації оголошення.
+     */
+    @CacheEvict(value = CACHE, allEntries = true)
+    public void evict() {
+    }
+
+    private FeedPage load(LocalDateTime afterAt, Long afterId) {
+        List<AnnouncementSummary> rows = announcementRepository.findFeedPage(afterAt, afterId,
+                PageRequest.ofSize(PAGE_SIZE + 1));
+        boolean hasNext = rows.size() > PAGE_SIZE;
+        List<AnnouncementSummary> items = List.copyOf(hasNext ? rows.subList(0, PAGE_SIZE) : rows);
+        return new FeedPage(items, hasNext, announcementRepository.count());
+    }
+}
@@ -0,0 +1,151 @@
+package hospital_registration.demo.service;
+
+import hospital_registration.demo.Models.AnnouncementReadMark;
+import hospital_registration.demo.repo.AnnouncementReadMarkRepo;
+import hospital_registration.demo.repo.AnnouncementRepository;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Лічильники непрочитаних оголошень для бейджа в шапці сторінок.
+ * <p>
+ * Для кожного співробітника в пам'яті зберігається позначка: найбільший ID прочитаного
+ * оголошення та кількість оголошень з ID не більшим за нього. Нові оголошення завжди
+ * отримують більший ID, тому кількість прочитаних не змінюється, а лічильник
+ * непрочитаних — це різниця із загальною кількістю. Показ бейджа на кожній сторінці
+ * коштує одне звернення до {@link ConcurrentHashMap} без запиту до бази.
+ * </p>
+ * Позначки та список ID оголошень завантажуються під час запуску застосунку;
+ * позначка записується в базу лише тоді, коли співробітник побачив нові оголошення.
+ * <p>
+ * Стан у пам'яті належить одному екземпляру застосунку. Щоб при кількох екземплярах
+ * за балансувальником бейдж враховував оголошення та позначки, збережені іншими вузлами,
+ * стан перечитується з бази кожні {@code announcements.read-refresh}; до оновлення
+ * лічильник на іншому вузлі може відставати не більше ніж на цей інтервал.
+ * </p>
+ */
+@Service
+public class AnnouncementReadTracker implements SmartInitializingSingleton {
+
+    /** Позначка співробітника: найбільший прочитаний ID та кількість прочитаних оголошень. */
+    private record Mark(long lastReadId, int readCount) {
+    }
+
+    private static final Mark NOTHING_READ = new Mark(0, 0);
+
+    private final AnnouncementRepository announcementRepository;
+    private final AnnouncementReadMarkRepo readMarkRepo;
+
+    /** Позначки співробітників; замінюється цілком при перечитуванні з бази. */
+    private volatile Map<Long, Mark> marks = new ConcurrentHashMap<>();
+
+    /** ID усіх оголошень за зростанням; замінюється цілком при публікації. */
+    private volatile long[] announcementIds = new long[0];
+
+    /**
+     * @param announcementRepository репозиторій оголошень
+     * @param readMarkRepo           репозиторій позначок прочитання
+     */
+    public AnnouncementReadTracker(AnnouncementRepository announcementRepository,
+                                   AnnouncementReadMarkRepo readMarkRepo) {
+        this.announcementRepository = announcementRepository;
+        this.readMarkRepo = readMarkRepo;
+    }
+
+    /**
+     * Завантажує ID оголошень і позначки під час запуску застосунку.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    /**
+     * Повністю перечитує ID оголошень і позначки з бази даних. Новий стан будується окремо
+     * і підміняє поточний цілком, тож читачі не бачать частково заповнених позначок.
+     * Позначка, новіша за збережену в базі (запис ще не видно), залишається.
+     */
+    @Scheduled(fixedDelayString = "${announcements.read-refresh:PT30S}",
+            initialDelayString = "${announcements.read-refresh:PT30S}")
+    public synchronized void rebuild() {
+        List<Long> ids = announcementRepository.findAllIds();
+        long[] sorted = new long[ids.size()];
+        for (int i = 0; i < sorted.length; i++) {
+            sorted[i] = ids.get(i);
+        }
+
+        Map<Long, Mark> previous = marks;
+        Map<Long, Mark> loaded = new ConcurrentHashMap<>();
+        for (AnnouncementReadMark mark : readMarkRepo.findAll()) {
+            loaded.put(mark.getStaffId(), new Mark(mark.getLastReadId(), countUpTo(sorted, mark.getLastReadId())));
+        }
+        previous.forEach((staffId, mark) -> {
+            Mark stored = loaded.get(staffId);
+            if (stored == null || stored.lastReadId() < mark.lastReadId()) {
+                loaded.put(staffId, new Mark(mark.lastReadId(), countUpTo(sorted, mark.lastReadId())));
+            }
+        });
+        announcementIds = sorted;
+        marks = loaded;
+    }
+
+    /**
+     * @param staffId ID співробітника
+     * @return кількість оголошень, опублікованих після останнього перегляду стрічки
+     */
+    public int unreadCount(Long staffId) {
+        if (staffId == null) {
+            return 0;
+        }
+        return Math.max(0, announcementIds.length - marks.getOrDefault(staffId, NOTHING_READ).readCount());
+    }
+
+    /**
+     * Позначає всі оголошення прочитаними, коли співробітник відкрив першу сторінку стрічки.
+     *
+     * @param staffId ID співробітника
+     */
+    public void markAllRead(Long staffId) {
+        long[] ids = announcementIds;
+        if (staffId == null || ids.length == 0) {
+            return;
+        }
+        long newest = ids[ids.length - 1];
+        Mark current = marks.getOrDefault(staffId, NOTHING_READ);
+        if (current.lastReadId() >= newest) {
+            return;
+        }
+        marks.put(staffId, new Mark(newest, ids.length));
+        readMarkRepo.save(new AnnouncementReadMark(staffId, newest, LocalDateTime.now()));
+    }
+
+    /**
+     * Додає нове оголошення до лічильників після його збереження.
+     *
+     * @param announcementId ID збереженого оголошення
+     */
+    public synchronized void announcementPublished(long announcementId) {
+        long[] ids = announcementIds;
+        if (ids.length > 0 && ids[ids.length - 1] >= announcementId) {
+            return;
+        }
+        long[] updated = Arrays.copyOf(ids, ids.length + 1);
+        updated[ids.length] = announcementId;
+        announcementIds = updated;
+    }
+
+    /**
+     * Кількість ID у відсортованому масиві, що не перевищують {@code lastReadId}.
+     */
+    private static int countUpTo(long[] sorted, long lastReadId) {
+        int index = Arrays.binarySearch(sorted, lastReadId);
+        return index >= 0 ? index + 1 : -index - 1;
+    }
+}
@@ -0,0 +1,46 @@
+package hospital_registration.demo.service;
+
+import hospital_registration.demo.Models.Announcement;
+import hospital_registration.demo.repo.AnnouncementRepository;
+import hospital_registration.demo.repo.EmailOutboxRepo;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Сервіс публікації оголошень.
+ * <p>
+ * Оголошення та листи-сповіщення для всіх співробітників записуються в одній транзакції:
+ * листи лише ставляться в чергу {@code email_outbox}, а надсилає їх
+ * {@link EmailOutboxDispatcher} у фоновому режимі.
+ * </p>
+ */
+@Service
+public class AnnouncementService {
+
+    private final AnnouncementRepository announcementRepository;
+    private final EmailOutboxRepo outboxRepo;
+
+    /**
+     * @param announcementRepository репозиторій оголошень
+     * @param outboxRepo             репозиторій черги листів
+     */
+    public AnnouncementService(AnnouncementRepository announcementRepository, EmailOutboxRepo outboxRepo) {
+        this.announcementRepository = announcementRepository;
+        this.outboxRepo = outboxRepo;
+    }
+
+    /**
+     * Зберігає оголошення і ставить у чергу лист про нього кожному співробітнику.
+     *
+     * @param announcement оголошення
+     * @return кількість листів, поставлених у чергу
+     */
+    @Transactional
+    public int publish(Announcement announcement) {
+        announcementRepository.save(announcement);
+        String subject = "Нове оголошення: " + announcement.getTitle();
+        return outboxRepo.enqueueForAllStaff(subject, announcement.getContent(), LocalDateTime.now());
+    }
+}
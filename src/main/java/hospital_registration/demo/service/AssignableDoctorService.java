@@ -0,0 +1,50 @@
+package hospital_registration.demo.service;
+
+import hospital_registration.demo.repo.AssignableDoctor;
+import hospital_registration.demo.repo.PersonalRepo;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Довідник лікарів для випадаючих списків у формах пацієнта.
+ * <p>
+ * Список змінюється лише разом зі складом персоналу, тому зберігається в кеші
+ * {@code assignableDoctors} і не запитується з бази при кожному показі форми.
+ * Кеш повністю очищається при додаванні, редагуванні або видаленні співробітника.
+ * </p>
+ */
+@Service
+public class AssignableDoctorService {
+
+    /** Назва кешу довідника лікарів */
+    public static final String CACHE = "assignableDoctors";
+
+    private final PersonalRepo personalRepo;
+
+    /**
+     * @param personalRepo репозиторій персоналу
+     */
+    public AssignableDoctorService(PersonalRepo personalRepo) {
+        this.personalRepo = personalRepo;
+    }
+
+    /**
+     * Повертає незмінний список лікарів, яких можна призначити пацієнту.
+     *
+     * @return список лікарів, впорядкований за ПІБ
+     */
+    @Cacheable(CACHE)
+    public List<AssignableDoctor> findAll() {
+        return List.copyOf(personalRepo.findAssignableDoctors());
+    }
+
+    /**
+     * Очищає кеш довідника після зміни складу персоналу.
+     */
+    @CacheEvict(value = CACHE, allEntries = true)
+    public void evict() {
+    }
+}
@@ -1,30 +1,32 @@
 package hospital_registration.demo.service;
 
 import hospital_registration.demo.Models.PersonalModel;
+import hospital_registration.demo.Models.StaffPrincipal;
+import hospital_registration.demo.Models.StaffRole;
 import org.springframework.stereotype.Service;
 
 /**
  * Сервіс авторизації, який визначає роль користувача
  * та перевіряє доступ до різних частин системи.
  * <p>
- * Працює з об'єктами {@link PersonalModel}, де визначено посаду користувача.
+ * Працює з описом користувача {@link StaffPrincipal}, що зберігається в сесії,
+ * і перевіряє його роль {@link StaffRole} без порівняння рядків посад.
  * </p>
  */
 @Service
 public class AuthorizationService {
 
-    public static final String ROLE_MAIN_DOCTOR = "Головний лікар";
-    public static final String ROLE_DOCTOR = "Лікар";
-    public static final String ROLE_NURSE = "Медсестра/Медбрат";
+    public static final String ROLE_MAIN_DOCTOR = StaffRole.MAIN_DOCTOR.getTitle();
+    public static final String ROLE_DOCTOR = StaffRole.DOCTOR.getTitle();
+    public static final String ROLE_NURSE = StaffRole.NURSE.getTitle();
 
     /**
      * Перевіряє, чи є користувач головним лікарем
      * @param user користувач для перевірки
      * @return true, якщо користувач - головний лікар
      */
-    public boolean isMainDoctor(PersonalModel user) {
-        return user != null && user.getPosition() != null &&
-                ROLE_MAIN_DOCTOR.equalsIgnoreCase(user.getPosition().trim());
+    public boolean isMainDoctor(StaffPrincipal user) {
+        return user != null && user.getRole() == StaffRole.MAIN_DOCTOR;
     }
 
     /**
@@ -32,20 +34,18 @@ public class AuthorizationService {
      * @param user користувач для перевірки
      * @return true, якщо користувач - лікар
      */
-    public boolean isDoctor(PersonalModel user) {
-        return user != null && user.getPosition() != null &&
-                ROLE_DOCTOR.equalsIgnoreCase(user.getPosition().trim());
+    public boolean isDoctor(StaffPrincipal user) {
+        return user != null && user.getRole() == StaffRole.DOCTOR;
     }
 
     /**
-     * Перевіряє, чи є користувач будь-яким типом лікаря (включаючи головного)
+     * Перевіряє, чи є користувач будь-яким типом лікаря (включаючи головного
+     * та посади на кшталт «Лікар-хірург»)
      * @param user користувач для перевірки
      * @return true, якщо користувач - лікар або головний лікар
      */
-    public boolean isAnyDoctor(PersonalModel user) {
-        return isDoctor(user) || isMainDoctor(user) ||
-                (user != null && user.getPosition() != null &&
-                        user.getPosition().toLowerCase().contains("лікар"));
+    public boolean isAnyDoctor(StaffPrincipal user) {
+        return isDoctor(user) || isMainDoctor(user) || (user != null && user.getRole() == StaffRole.OTHER_DOCTOR);
     }
 
     /**
@@ -53,10 +53,8 @@ public class AuthorizationService {
      * @param user користувач для перевірки
      * @return true, якщо користувач - медсестра/медбрат
      */
-    public boolean isNurse(PersonalModel user) {
-        return user != null && user.getPosition() != null &&
-                (ROLE_NURSE.equalsIgnoreCase(user.getPosition().trim()) ||
-                        user.getPosition().toLowerCase().contains("сестр"));
+    public boolean isNurse(StaffPrincipal user) {
+        return user != null && user.getRole() == StaffRole.NURSE;
     }
 
     /**
@@ -64,7 +62,7 @@ public class AuthorizationService {
      * @param user користувач для перевірки
      * @return true, якщо користувач має доступ
      */
-    public boolean hasMainDoctorAccess(PersonalModel user) {
+    public boolean hasMainDoctorAccess(StaffPrincipal user) {
         return isMainDoctor(user);
     }
 
@@ -73,7 +71,7 @@ public class AuthorizationService {
      * @param user користувач для перевірки
      * @return true, якщо користувач має доступ
      */
-    public boolean hasDoctorAccess(PersonalModel user) {
+    public boolean hasDoctorAccess(StaffPrincipal user) {
         return isAnyDoctor(user);
     }
 
@@ -82,7 +80,7 @@ public class AuthorizationService {
      * @param user користувач для перевірки
      * @return true, якщо користувач має доступ
      */
-    public boolean hasNurseAccess(PersonalModel user) {
+    public boolean hasNurseAccess(StaffPrincipal user) {
         return isNurse(user);
     }
 
@@ -91,7 +89,7 @@ public class AuthorizationService {
      * @param user користувач для перевірки
      * @return true, якщо користувач може керувати персоналом
      */
-    public boolean canManagePersonal(PersonalModel user) {
+    public boolean canManagePersonal(StaffPrincipal user) {
         return isMainDoctor(user);
     }
 
@@ -101,7 +99,7 @@ public class AuthorizationService {
      * @param targetUser користувач, якого планується видалити
      * @return true, якщо видалення дозволено
      */
-    public boolean canDeletePersonal(PersonalModel currentUser, PersonalModel targetUser) {
+    public boolean canDeletePersonal(StaffPrincipal currentUser, PersonalModel targetUser) {
         if (currentUser == null || targetUser == null) {
             return false;
         }
@@ -118,22 +116,17 @@ public class AuthorizationService {
     /**
      * Отримує роль користувача як рядок
      * @param user користувач
-     * @return роль користувача або "Невідома роль"
+     * @return назва ролі, посада користувача, якщо роль не має власної назви, або "Невідома роль"
      */
-    public String getUserRole(PersonalModel user) {
-        if (user == null || user.getPosition() == null) {
+    public String getUserRole(StaffPrincipal user) {
+        if (user == null) {
             return "Невідома роль";
         }
-
-        if (isMainDoctor(user)) {
-            return "Головний лікар";
-        } else if (isDoctor(user)) {
-            return "Лікар";
-        } else if (isNurse(user)) {
-            return "Медсестра/Медбрат";
-        } else {
-            return user.getPosition();
+        StaffRole role = user.getRole();
+        if (role != null && role.getTitle() != null) {
+            return role.getTitle();
         }
+        return user.getPosition().isEmpty() ? "Невідома роль" : user.getPosition();
     }
 
     /**
@@ -141,7 +134,7 @@ public class AuthorizationService {
      * @param user користувач для перевірки
      * @return true, якщо користувач не null
      */
-    public boolean isAuthenticated(PersonalModel user) {
+    public boolean isAuthenticated(StaffPrincipal user) {
         return user != null;
     }
 }
\ No newline at end of file
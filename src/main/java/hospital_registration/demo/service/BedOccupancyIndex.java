@@ -0,0 +1,386 @@
+package hospital_registration.demo.service;
+
+import hospital_registration.demo.Models.PatientModel;
+import hospital_registration.demo.repo.BedStay;
+import hospital_registration.demo.repo.PatientRepo;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Індекс зайнятості ліжок у пам'яті.
+ * <p>
+ * Для кожного ліжка {@code (палата, ліжко)} зберігає дерево інтервалів перебувань поточних
+ * пацієнтів: збалансоване за датою запису дерево, вузли якого знають найпізнішу дату виписки
+ * у своєму піддереві. Перевірка «чи вільне ліжко у проміжку [from, to)» відкидає піддерева,
+ * де всі перебування закінчилися до {@code from}, тому виконується за O(log n) без запиту
+ * до бази даних і не залежить від тривалості найдовшого перебування.
+ * </p>
+ * <p>
+ * Джерелом істини залишається таблиця пацієнтів: індекс будується з неї під час запуску
+ * застосунку і оновлюється подіями {@link PatientChangedEvent}, {@link PatientsArchivedEvent}
+ * та {@link PatientsImportedEvent} після фіксації транзакцій.
+ * </p>
+ */
+@Service
+public class BedOccupancyIndex implements SmartInitializingSingleton {
+
+    /** Ліжко в палаті. */
+    public record BedKey(int ward, int bed) implements Comparable<BedKey> {
+        @Override
+        public int compareTo(BedKey other) {
+            int byWard = Integer.compare(ward, other.ward);
+            return byWard != 0 ? byWard : Integer.compare(bed, other.bed);
+        }
+    }
+
+    /** Перебування пацієнта на ліжку. */
+    private record Stay(long patientId, BedKey bed, String department, LocalDateTime from, LocalDateTime to) {
+    }
+
+    private static final Comparator<Stay> BY_START =
+            Comparator.comparing(Stay::from).thenComparingLong(Stay::patientId);
+
+    /**
+     * Перебування на одному ліжку: AVL-дерево, впорядковане за початком перебування,
+     * де кожен вузол зберігає найпізніший кінець перебування у своєму піддереві.
+     */
+    private static final class BedTimeline {
+
+        private static final class Node {
+            final Stay stay;
+            Node left;
+            Node right;
+            int height = 1;
+            LocalDateTime maxEnd;
+
+            Node(Stay stay) {
+                this.stay = stay;
+                this.maxEnd = stay.to();
+            }
+        }
+
+        private Node root;
+
+        boolean isEmpty() {
+            return root == null;
+        }
+
+        void add(Stay stay) {
+            root = insert(root, stay);
+        }
+
+        void remove(Stay stay) {
+            root = delete(root, stay);
+        }
+
+        /**
+         * Шукає перебування, що перетинається з {@code [from, to)}. Пошук спускається лише
+         * в піддерева, де найпізніший кінець більший за {@code from}, і не йде праворуч від
+         * перебувань, що почалися не раніше {@code to}.
+         */
+        boolean overlaps(LocalDateTime from, LocalDateTime to, Long excludePatientId) {
+            return overlaps(root, from, to, excludePatientId);
+        }
+
+        private static boolean overlaps(Node node, LocalDateTime from, LocalDateTime to, Long excludePatientId) {
+            if (node == null || !node.maxEnd.isAfter(from)) {
+                return false;
+            }
+            if (overlaps(node.left, from, to, excludePatientId)) {
+                return true;
+            }
+            if (!node.stay.from().isBefore(to)) {
+                return false;
+            }
+            if (node.stay.to().isAfter(from)
+                    && (excludePatientId == null || node.stay.patientId() != excludePatientId)) {
+                return true;
+            }
+            return overlaps(node.right, from, to, excludePatientId);
+        }
+
+        private static Node insert(Node node, Stay stay) {
+            if (node == null) {
+                return new Node(stay);
+            }
+            if (BY_START.compare(stay, node.stay) < 0) {
+                node.left = insert(node.left, stay);
+            } else {
+                node.right = insert(node.right, stay);
+            }
+            return balance(node);
+        }
+
+        private static Node delete(Node node, Stay stay) {
+            if (node == null) {
+                return null;
+            }
+            int cmp = BY_START.compare(stay, node.stay);
+            if (cmp < 0) {
+                node.left = delete(node.left, stay);
+            } else if (cmp > 0) {
+                node.right = delete(node.right, stay);
+            } else {
+                if (node.left == null) {
+                    return node.right;
+                }
+                if (node.right == null) {
+                    return node.left;
+                }
+                Node successor = node.right;
+                while (successor.left != null) {
+                    successor = successor.left;
+                }
+                Node replacement = new Node(successor.stay);
+                replacement.right = delete(node.right, successor.stay);
+                replacement.left = node.left;
+                node = replacement;
+            }
+            return balance(node);
+        }
+
+        private static Node balance(Node node) {
+            update(node);
+            int skew = height(node.left) - height(node.right);
+            if (skew > 1) {
+                if (height(node.left.left) < height(node.left.right)) {
+                    node.left = rotateLeft(node.left);
+                }
+                return rotateRight(node);
+            }
+            if (skew < -1) {
+                if (height(node.right.right) < height(node.right.left)) {
+                    node.right = rotateRight(node.right);
+                }
+                return rotateLeft(node);
+            }
+            return node;
+        }
+
+        private static Node rotateRight(Node node) {
+            Node pivot = node.left;
+            node.left = pivot.right;
+            pivot.right = node;
+            update(node);
+            update(pivot);
+            return pivot;
+        }
+
+        private static Node rotateLeft(Node node) {
+            Node pivot = node.right;
+            node.right = pivot.left;
+            pivot.left = node;
+            update(node);
+            update(pivot);
+            return pivot;
+        }
+
+        private static void update(Node node) {
+            node.height = 1 + Math.max(height(node.left), height(node.right));
+            LocalDateTime maxEnd = node.stay.to();
+            if (node.left != null && node.left.maxEnd.isAfter(maxEnd)) {
+                maxEnd = node.left.maxEnd;
+            }
+            if (node.right != null && node.right.maxEnd.isAfter(maxEnd)) {
+                maxEnd = node.right.maxEnd;
+            }
+            node.maxEnd = maxEnd;
+        }
+
+        private static int height(Node node) {
+            return node == null ? 0 : node.height;
+        }
+    }
+
+    private final PatientRepo patientRepo;
+
+    private final Map<BedKey, BedTimeline> timelines = new HashMap<>();
+    private final Map<Long, Stay> staysByPatient = new HashMap<>();
+    private final Map<String, TreeMap<BedKey, Integer>> bedsByDepartment = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * @param patientRepo репозиторій пацієнтів
+     */
+    public BedOccupancyIndex(PatientRepo patientRepo) {
+        this.patientRepo = patientRepo;
+    }
+
+    /**
+     * Будує індекс під час запуску застосунку.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    /**
+     * Повністю перебудовує індекс з таблиці пацієнтів.
+     */
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            timelines.clear();
+            staysByPatient.clear();
+            bedsByDepartment.clear();
+            for (BedStay row : patientRepo.findAllBedStays()) {
+                putUnlocked(row.getId(), row.getWard(), row.getBed(), row.getDepartment(),
+                        row.getAppointmentDateFrom(), row.getAppointmentDateTo());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Перевіряє, чи вільне ліжко у проміжку {@code [from, to)}.
+     *
+     * @param ward             номер палати
+     * @param bed              номер ліжка
+     * @param from             початок проміжку
+     * @param to               кінець проміжку
+     * @param excludePatientId пацієнт, перебування якого не враховується (при редагуванні), або null
+     * @return true, якщо ліжко вільне
+     */
+    public boolean isFree(int ward, int bed, LocalDateTime from, LocalDateTime to, Long excludePatientId) {
+        lock.readLock().lock();
+        try {
+            return isFreeUnlocked(new BedKey(ward, bed), from, to, excludePatientId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Знаходить перше (за номером палати і ліжка) вільне ліжко департаменту у проміжку {@code [from, to)}.
+     * Розглядаються ліжка, на яких зараз записані пацієнти цього департаменту.
+     *
+     * @param department назва департаменту
+     * @param from       початок проміжку
+     * @param to         кінець проміжку
+     * @return вільне ліжко або порожній Optional
+     */
+    public Optional<BedKey> findFirstFreeBed(String department, LocalDateTime from, LocalDateTime to) {
+        lock.readLock().lock();
+        try {
+            TreeMap<BedKey, Integer> beds = bedsByDepartment.get(department);
+            if (beds == null) {
+                return Optional.empty();
+            }
+            for (BedKey bed : beds.keySet()) {
+                if (isFreeUnlocked(bed, from, to, null)) {
+                    return Optional.of(bed);
+                }
+            }
+            return Optional.empty();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Оновлює індекс після зміни пацієнта.
+     *
+     * @param event подія зміни пацієнта
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPatientChanged(PatientChangedEvent event) {
+        PatientModel patient = event.getPatient();
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(patient.getId());
+            if (event.getType() != PatientChangedEvent.Type.DISCHARGED) {
+                putUnlocked(patient.getId(), patient.getWard(), patient.getBed(), patient.getDepartment(),
+                        patient.getAppointmentDateFrom(), patient.getAppointmentDateTo());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Звільняє ліжка пацієнтів після масової виписки.
+     *
+     * @param event подія масової виписки
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPatientsArchived(PatientsArchivedEvent event) {
+        lock.writeLock().lock();
+        try {
+            event.getPatientIds().forEach(this::removeUnlocked);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Додає перебування імпортованих пацієнтів під одним блокуванням запису.
+     *
+     * @param event подія масового імпорту
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPatientsImported(PatientsImportedEvent event) {
+        lock.writeLock().lock();
+        try {
+            for (PatientModel patient : event.getPatients()) {
+                putUnlocked(patient.getId(), patient.getWard(), patient.getBed(), patient.getDepartment(),
+                        patient.getAppointmentDateFrom(), patient.getAppointmentDateTo());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private boolean isFreeUnlocked(BedKey key, LocalDateTime from, LocalDateTime to, Long excludePatientId) {
+        BedTimeline timeline = timelines.get(key);
+        return timeline == null || !timeline.overlaps(from, to, excludePatientId);
+    }
+
+    private void putUnlocked(Long patientId, Integer ward, Integer bed, String department,
+                             LocalDateTime from, LocalDateTime to) {
+        if (patientId == null || ward == null || bed == null || from == null || to == null || !to.isAfter(from)) {
+            return;
+        }
+        BedKey key = new BedKey(ward, bed);
+        Stay stay = new Stay(patientId, key, department, from, to);
+        BedTimeline timeline = timelines.computeIfAbsent(key, k -> new BedTimeline());
+        timeline.add(stay);
+        staysByPatient.put(patientId, stay);
+        if (department != null) {
+            bedsByDepartment.computeIfAbsent(department, d -> new TreeMap<>()).merge(key, 1, Integer::sum);
+        }
+    }
+
+    private void removeUnlocked(Long patientId) {
+        Stay stay = staysByPatient.remove(patientId);
+        if (stay == null) {
+            return;
+        }
+        BedTimeline timeline = timelines.get(stay.bed());
+        if (timeline != null) {
+            timeline.remove(stay);
+            if (timeline.isEmpty()) {
+                timelines.remove(stay.bed());
+            }
+        }
+        if (stay.department() != null) {
+            TreeMap<BedKey, Integer> beds = bedsByDepartment.get(stay.department());
+            if (beds != null) {
+                beds.computeIfPresent(stay.bed(), (k, count) -> count > 1 ? count - 1 : null);
+                if (beds.isEmpty()) {
+                    bedsByDepartment.remove(stay.department());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package hospital_registration.demo.service;
+
+import hospital_registration.demo.Models.HistoryPatientsModel;
+import hospital_registration.demo.Models.PatientModel;
+import hospital_registration.demo.repo.HistoryPatientRepo;
+import hospital_registration.demo.repo.PatientRepo;
+import hospital_registration.demo.repo.SearchFields;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сервіс виписки пацієнтів: перенесення записів з поточних пацієнтів до історії.
+ * <p>
+ * Виписка одного пацієнта та масова виписка виконуються в одній транзакції, тому
+ * збій між копіюванням і видаленням не може втратити або задублювати запис.
+ * Масова виписка працює set-based: блокує рядки, копіює їх запитом INSERT ... SELECT
+ * і видаляє одним DELETE, не завантажуючи сутності.
+ * Тривалість етапів масової виписки записується таймером {@code hospital.discharge.bulk}
+ * з тегом {@code stage} (lock, move, total), а кількість виписаних — лічильником
+ * {@code hospital.discharge.bulk.patients}.
+ * </p>
+ */
+@Service
+public class DischargeService {
+
+    private static final Logger log = LoggerFactory.getLogger(DischargeService.class);
+
+    /** Максимальна кількість ID в одному IN (...) */
+    private static final int CHUNK_SIZE = 1000;
+
+    /**
+     * Результат масової виписки.
+     *
+     * @param discharged    кількість виписаних пацієнтів
+     * @param lockMillis    час блокування рядків, мс
+     * @param moveMillis    час копіювання і видалення, мс
+     * @param elapsedMillis загальна тривалість, мс
+     */
+    public record DischargeRun(int discharged, long lockMillis, long moveMillis, long elapsedMillis) {
+    }
+
+    private final PatientRepo patientRepo;
+    private final HistoryPatientRepo historyPatientRepo;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * @param patientRepo        репозиторій пацієнтів
+     * @param historyPatientRepo репозиторій історії пацієнтів
+     * @param eventPublisher     публікатор подій зміни пацієнтів
+     * @param meterRegistry      реєстр метрик для таймінгів масової виписки
+     */
+    public DischargeService(PatientRepo patientRepo, HistoryPatientRepo historyPatientRepo,
+                            ApplicationEventPublisher eventPublisher, MeterRegistry meterRegistry) {
+        this.patientRepo = patientRepo;
+        this.historyPatientRepo = historyPatientRepo;
+        this.eventPublisher = eventPublisher;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Виписує одного пацієнта: створює запис історії та видаляє пацієнта з поточних.
+     *
+     * @param patient пацієнт для виписки
+     * @return створений запис історії
+     */
+    @Transactional
+    public HistoryPatientsModel discharge(PatientModel patient) {
+        HistoryPatientsModel pastPatient = new HistoryPatientsModel(
+                patient.getFullName(),
+                patient.getPhone(),
+                patient.getDiagnosis(),
+                patient.getBirthDate(),
+                patient.getWard(),
+                patient.getDoctor(),
+                patient.getNotes(),
+                patient.getDepartment(),
+                patient.getAppointmentDateFrom(),
+                patient.getAppointmentDateTo(),
+                patient.getBed()
+        );
+        historyPatientRepo.save(pastPatient);
+        patientRepo.delete(patient);
+        eventPublisher.publishEvent(PatientChangedEvent.discharged(patient, pastPatient));
+        return pastPatient;
+    }
+
+    /**
+     * Виписує всіх пацієнтів, дата виписки яких раніше за {@code cutoff}.
+     *
+     * @param cutoff момент, до якого дата виписки вважається минулою
+     * @return результат із кількістю виписаних пацієнтів і таймінгами етапів
+     */
+    @Transactional
+    public DischargeRun dischargeBefore(LocalDateTime cutoff) {
+        long started = System.nanoTime();
+
+        List<Long> ids = patientRepo.lockIdsDischargedBefore(cutoff);
+        long locked = System.nanoTime();
+        if (ids.isEmpty()) {
+            record("lock", locked - started);
+            record("total", locked - started);
+            DischargeRun run = new DischargeRun(0, millis(started, locked), 0, millis(started, locked));
+            log.info("Масова виписка до {}: пацієнтів для виписки немає ({} мс)", cutoff, run.elapsedMillis());
+            return run;
+        }
+
+        long lastHistoryId = historyPatientRepo.findMaxId();
+        int archived = 0;
+        int deleted = 0;
+        for (int from = 0; from < ids.size(); from += CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + CHUNK_SIZE, ids.size()));
+            archived += historyPatientRepo.archivePatients(chunk);
+            deleted += patientRepo.deleteByIds(chunk);
+        }
+        if (archived != ids.size() || deleted != ids.size()) {
+            throw new IllegalStateException("Масова виписка не узгоджена: заблоковано " + ids.size()
+                    + ", перенесено " + archived + ", видалено " + deleted);
+        }
+        long moved = System.nanoTime();
+
+        List<SearchFields> archivedRows = historyPatientRepo.findSearchFieldsAfter(lastHistoryId);
+        eventPublisher.publishEvent(new PatientsArchivedEvent(ids, archivedRows));
+
+        long finished = System.nanoTime();
+        record("lock", locked - started);
+        record("move", moved - locked);
+        record("total", finished - started);
+        meterRegistry.counter("hospital.discharge.bulk.patients").increment(ids.size());
+        DischargeRun run = new DischargeRun(ids.size(), millis(started, locked), millis(locked, moved),
+                millis(started, finished));
+        log.info("Масова виписка до {}: {} пацієнтів перенесено до історії за {} мс (блокування {} мс, перенесення {} мс)",
+                cutoff, run.discharged(), run.elapsedMillis(), run.lockMillis(), run.moveMillis());
+        return run;
+    }
+
+    private void record(String stage, long nanos) {
+        Timer.builder("hospital.discharge.bulk")
+                .description("Bulk discharge time per stage")
+                .tag("stage", stage)
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    private static long millis(long fromNanos, long toNanos) {
+        return (toNanos - fromNanos) / 1_000_000;
+    }
+}
@@ -0,0 +1,267 @@
+package hospital_registration.demo.service;
+
+import hospital_registration.demo.Models.EmailOutbox;
+import hospital_registration.demo.repo.EmailOutboxRepo;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Фоновий диспетчер черги email-повідомлень {@link EmailOutbox}.
+ * <p>
+ * Періодично забирає пакет записів, готових до надсилання, розбиває його на частини
+ * і надсилає їх на обмеженому пулі потоків {@code mailExecutor}. Кожна частина
+ * надсилається одним викликом {@link JavaMailSender#send(MimeMessage...)}, тобто
+ * через одне SMTP-з'єднання. Невдалі листи повторюються з експоненційною затримкою,
+ * після {@code outbox.max-attempts} спроб запис позначається як {@link EmailOutbox.Status#FAILED}.
+ * </p>
+ */
+@Service
+public class EmailOutboxDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(EmailOutboxDispatcher.class);
+
+    private final EmailOutboxRepo outboxRepo;
+    private final SmsService smsService;
+    private final JavaMailSender mailSender;
+    private final TransactionTemplate transactionTemplate;
+    private final AsyncTaskExecutor mailExecutor;
+    private final MeterRegistry meterRegistry;
+
+    /** Кількість записів, що забираються з черги за один раз */
+    @Value("${outbox.batch-size:200}")
+    private int batchSize;
+
+    /** Кількість листів, що надсилаються через одне SMTP-з'єднання */
+    @Value("${outbox.chunk-size:50}")
+    private int chunkSize;
+
+    /** Максимальна кількість спроб надсилання одного листа */
+    @Value("${outbox.max-attempts:6}")
+    private int maxAttempts;
+
+    /** Затримка перед першою повторною спробою */
+    @Value("${outbox.backoff-base:PT30S}")
+    private Duration backoffBase;
+
+    /** Максимальна затримка між спробами */
+    @Value("${outbox.backoff-max:PT1H}")
+    private Duration backoffMax;
+
+    /** Час, на який записи резервуються за вузлом під час надсилання */
+    @Value("${outbox.lease:PT5M}")
+    private Duration lease;
+
+    /**
+     * @param outboxRepo          репозиторій черги листів
+     * @param smsService          сервіс формування листів
+     * @param mailSender          відправник пошти
+     * @param transactionTemplate шаблон транзакцій
+     * @param mailExecutor        обмежений пул потоків для надсилання
+     * @param meterRegistry       реєстр метрик для часу надсилання через SMTP
+     */
+    public EmailOutboxDispatcher(EmailOutboxRepo outboxRepo, SmsService smsService, JavaMailSender mailSender,
+                                 TransactionTemplate transactionTemplate,
+                                 @Qualifier("mailExecutor") AsyncTaskExecutor mailExecutor,
+                                 MeterRegistry meterRegistry) {
+        this.outboxRepo = outboxRepo;
+        this.smsService = smsService;
+        this.mailSender = mailSender;
+        this.transactionTemplate = transactionTemplate;
+        this.mailExecutor = mailExecutor;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Розбирає чергу, доки в ній є готові до надсилання записи.
+     */
+    @Scheduled(fixedDelayString = "${outbox.poll-interval:PT2S}")
+    public void dispatch() {
+        List<EmailOutbox> batch;
+        do {
+            batch = claimBatch();
+            if (batch.isEmpty()) {
+                return;
+            }
+            long started = System.nanoTime();
+            int sent = send(batch);
+            log.info("Email outbox: надіслано {} з {} листів за {} мс",
+                    sent, batch.size(), (System.nanoTime() - started) / 1_000_000);
+        } while (batch.size() == batchSize);
+    }
+
+    /**
+     * Забирає пакет записів і резервує його за поточним вузлом на час {@link #lease}.
+     */
+    private List<EmailOutbox> claimBatch() {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<EmailOutbox> due = outboxRepo.findDueForUpdate(now, PageRequest.ofSize(batchSize));
+            if (!due.isEmpty()) {
+                outboxRepo.lease(due.stream().map(EmailOutbox::getId).toList(), now.plus(lease));
+            }
+            return due;
+        });
+    }
+
+    /**
+     * Надсилає пакет частинами паралельно і фіксує результати.
+     * Частина, яку пул відхилив або яка завершилася неочікуваною помилкою, вважається
+     * невдалою для кожного свого запису, тож результати решти частин фіксуються завжди
+     * і вже надіслані листи не повторюються після закінчення резервування.
+     *
+     * @return кількість успішно надісланих листів
+     */
+    private int send(List<EmailOutbox> batch) {
+        List<CompletableFuture<Map<Long, String>>> futures = new ArrayList<>();
+        for (int from = 0; from < batch.size(); from += chunkSize) {
+            List<EmailOutbox> chunk = batch.subList(from, Math.min(from + chunkSize, batch.size()));
+            CompletableFuture<Map<Long, String>> future;
+            try {
+                future = mailExecutor.submitCompletable(() -> sendChunk(chunk));
+            } catch (TaskRejectedException e) {
+                future = CompletableFuture.failedFuture(e);
+            }
+            futures.add(future.exceptionally(e -> failAll(chunk, e)));
+        }
+
+        Map<Long, String> failures = new HashMap<>();
+        for (CompletableFuture<Map<Long, String>> future : futures) {
+            failures.putAll(future.join());
+        }
+
+        List<Long> sentIds = batch.stream()
+                .map(EmailOutbox::getId)
+                .filter(id -> !failures.containsKey(id))
+                .toList();
+        recordResults(sentIds, failures);
+        return sentIds.size();
+    }
+
+    /**
+     * Надсилає частину пакета через одне SMTP-з'єднання.
+     *
+     * @return невдалі записи: ID запису → текст помилки
+     */
+    private Map<Long, String> sendChunk(List<EmailOutbox> chunk) {
+        Map<Long, String> failures = new HashMap<>();
+        Map<MimeMessage, Long> messages = new LinkedHashMap<>();
+        for (EmailOutbox entry : chunk) {
+            try {
+                messages.put(smsService.createMessage(entry.getRecipient(), entry.getSubject(), entry.getBody()),
+                        entry.getId());
+            } catch (MessagingException e) {
+                failures.put(entry.getId(), e.getMessage());
+            }
+        }
+        if (messages.isEmpty()) {
+            return failures;
+        }
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
+        try {
+            mailSender.send(messages.keySet().toArray(new MimeMessage[0]));
+        } catch (MailSendException e) {
+            outcome = "failure";
+            Map<Object, Exception> failed = e.getFailedMessages();
+            if (failed.isEmpty()) {
+                messages.values().forEach(id -> failures.put(id, e.getMessage()));
+            } else {
+                failed.forEach((message, error) -> {
+                    Long id = messages.get(message);
+                    if (id != null) {
+                        failures.put(id, error.getMessage());
+                    }
+                });
+            }
+        } catch (MailException e) {
+            outcome = "failure";
+            messages.values().forEach(id -> failures.put(id, e.getMessage()));
+        } finally {
+            sample.stop(Timer.builder("hospital.mail.send")
+                    .description("SMTP send time per connection (one outbox chunk)")
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+        return failures;
+    }
+
+    /**
+     * Позначає всі записи частини невдалими з текстом помилки.
+     */
+    private static Map<Long, String> failAll(List<EmailOutbox> chunk, Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        log.warn("Email outbox: частину з {} листів не надіслано", chunk.size(), cause);
+        Map<Long, String> failures = new HashMap<>();
+        chunk.forEach(entry -> failures.put(entry.getId(), String.valueOf(cause.getMessage())));
+        return failures;
+    }
+
+    /**
+     * Позначає надіслані записи та планує повторні спроби для невдалих.
+     */
+    private void recordResults(List<Long> sentIds, Map<Long, String> failures) {
+        transactionTemplate.executeWithoutResult(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            if (!sentIds.isEmpty()) {
+                outboxRepo.markSent(sentIds, now);
+            }
+            for (EmailOutbox entry : outboxRepo.findAllById(failures.keySet())) {
+                int attempts = entry.getAttempts() + 1;
+                entry.setAttempts(attempts);
+                entry.setLastError(truncate(failures.get(entry.getId())));
+                if (attempts >= maxAttempts) {
+                    entry.setStatus(EmailOutbox.Status.FAILED);
+                    log.warn("Email outbox: лист #{} для {} не надіслано після {} спроб",
+                            entry.getId(), entry.getRecipient(), attempts);
+                } else {
+                    entry.setNextAttemptAt(now.plus(backoff(attempts)));
+                }
+            }
+        });
+    }
+
+    /**
+     * Експоненційна затримка з невеликим випадковим розкидом, щоб повторні спроби
+     * не надходили до SMTP-сервера одночасно.
+     */
+    private Duration backoff(int attempts) {
+        long base = backoffBase.toMillis() << Math.min(attempts - 1, 20);
+        long capped = Math.min(base, backoffMax.toMillis());
+        long jitter = ThreadLocalRandom.current().nextLong(capped / 5 + 1);
+        return Duration.ofMillis(capped + jitter);
+    }
+
+    private static String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() > 500 ? message.substring(0, 500) : message;
+    }
+}
@@ -0,0 +1,112 @@
+package hospital_registration.demo.service;
+
+import hospital_registration.demo.config.RequestMetricsInterceptor;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.springframework.stereotype.Service;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Зведення метрик {@code http.server.requests} по ендпоінтах застосунку для сторінки
+ * найповільніших запитів головного лікаря.
+ */
+@Service
+public class EndpointStatsService {
+
+    private static final String HTTP_REQUESTS = "http.server.requests";
+
+    /**
+     * Статистика одного ендпоінта (метод + шаблон маршруту) з моменту запуску застосунку.
+     *
+     * @param method          HTTP-метод
+     * @param uri             шаблон маршруту
+     * @param count           кількість запитів
+     * @param meanMillis      середній час відповіді, мс
+     * @param p95Millis       95-й перцентиль часу відповіді, мс (найгірший серед статусів відповіді)
+     * @param maxMillis       максимальний час відповіді за останнє вікно метрики, мс
+     * @param sqlPerRequest   середня кількість SQL-запитів на запит або -1, якщо невідомо
+     */
+    public record EndpointStats(String method, String uri, long count, double meanMillis,
+                                double p95Millis, double maxMillis, double sqlPerRequest) {
+    }
+
+    private final MeterRegistry registry;
+
+    /**
+     * @param registry реєстр метрик
+     */
+    public EndpointStatsService(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Повертає найповільніші ендпоінти за 95-м перцентилем часу відповіді.
+     *
+     * @param limit максимальна кількість рядків
+     * @return список ендпоінтів, від найповільнішого
+     */
+    public List<EndpointStats> slowest(int limit) {
+        Map<String, Accumulator> byEndpoint = new LinkedHashMap<>();
+        for (Timer timer : registry.find(HTTP_REQUESTS).timers()) {
+            String uri = timer.getId().getTag("uri");
+            String method = timer.getId().getTag("method");
+            if (uri == null || method == null || uri.startsWith("/actuator") || uri.equals("/**")) {
+                continue;
+            }
+            byEndpoint.computeIfAbsent(method + " " + uri, key -> new Accumulator(method, uri)).add(timer);
+        }
+
+        return byEndpoint.values().stream()
+                .map(this::toStats)
+                .sorted(Comparator.comparingDouble(EndpointStats::p95Millis)
+                        .thenComparingDouble(EndpointStats::meanMillis)
+                        .reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    private EndpointStats toStats(Accumulator acc) {
+        DistributionSummary sql = registry.find(RequestMetricsInterceptor.SQL_STATEMENTS)
+                .tag("method", acc.method)
+                .tag("uri", acc.uri)
+                .summary();
+        double mean = acc.count > 0 ? acc.totalMillis / acc.count : 0;
+        return new EndpointStats(acc.method, acc.uri, acc.count, mean, acc.p95Millis, acc.maxMillis,
+                sql != null && sql.count() > 0 ? sql.mean() : -1);
+    }
+
+    /** Накопичувач метрик одного ендпоінта по всіх статусах відповіді. */
+    private static final class Accumulator {
+        final String method;
+        final String uri;
+        long count;
+        double totalMillis;
+        double maxMillis;
+        double p95Millis;
+
+        Accumulator(String method, String uri) {
+            this.method = method;
+            this.uri = uri;
+        }
+
+        void add(Timer timer) {
+            HistogramSnapshot snapshot = timer.takeSnapshot();
+            count += snapshot.count();
+            totalMillis += snapshot.total(TimeUnit.MILLISECONDS);
+            maxMillis = Math.max(maxMillis, snapshot.max(TimeUnit.MILLISECONDS));
+            for (ValueAtPercentile value : snapshot.percentileValues()) {
+                if (value.percentile() == 0.95) {
+                    p95Millis = Math.max(p95Millis, value.value(TimeUnit.MILLISECONDS));
+                }
+            }
+        }
+    }
+}
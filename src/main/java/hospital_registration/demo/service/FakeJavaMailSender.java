@@ -0,0 +1,56 @@
+package hospital_registration.demo.service;
+
+import jakarta.mail.internet.MimeMessage;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Локальний відправник пошти, який нічого не надсилає, а лише рахує листи.
+ * <p>
+ * Імітує затримку SMTP-з'єднання (один раз на пакет), тому придатний для вимірювання
+ * пропускної здатності черги {@code email_outbox} без реального поштового сервера.
+ * Вмикається профілем {@code fake-mail}.
+ * </p>
+ */
+public class FakeJavaMailSender extends JavaMailSenderImpl {
+
+    private final Duration latency;
+    private final AtomicLong sentMessages = new AtomicLong();
+    private final AtomicLong connections = new AtomicLong();
+
+    /**
+     * @param latency імітована затримка одного SMTP-з'єднання
+     */
+    public FakeJavaMailSender(Duration latency) {
+        this.latency = latency;
+    }
+
+    @Override
+    protected void doSend(MimeMessage[] mimeMessages, Object[] originalMessages) {
+        connections.incrementAndGet();
+        if (!latency.isZero()) {
+            try {
+                Thread.sleep(latency);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        sentMessages.addAndGet(mimeMessages.length);
+    }
+
+    /**
+     * @return кількість «надісланих» листів
+     */
+    public long getSentMessages() {
+        return sentMessages.get();
+    }
+
+    /**
+     * @return кількість імітованих SMTP-з'єднань
+     */
+    public long getConnections() {
+        return connections.get();
+    }
+}
@@ -0,0 +1,198 @@
+package hospital_registration.demo.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hospital_registration.demo.repo.HistoryPatientRepo;
+import hospital_registration.demo.repo.PatientListItem;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Сервіс потокового експорту історії пацієнтів у CSV або NDJSON.
+ * <p>
+ * Записи читаються з бази серверним курсором ({@link HistoryPatientRepo#streamForExport})
+ * і одразу пишуться у вихідний потік, тому використання пам'яті не залежить від розміру
+ * архіву. Колонки CSV збігаються з форматом {@link PatientImportService}, тож
+ * експортований файл можна повторно імпортувати. Після завершення кількість рядків
+ * і швидкість експорту записуються в журнал та метрику {@code hospital.history.export}.
+ * </p>
+ */
+@Service
+public class HistoryExportService {
+
+    private static final Logger log = LoggerFactory.getLogger(HistoryExportService.class);
+
+    /** Розмір буфера запису, символів */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final String CSV_HEADER = "id,fullName,phone,diagnosis,birthDate,ward,bed,department," +
+            "doctorId,doctorFullName,notes,appointmentDateFrom,appointmentDateTo";
+
+    /** Формат експорту. */
+    public enum Format {
+        /** CSV з заголовком, UTF-8 з BOM для коректного відкриття в Excel. */
+        CSV("text/csv", "csv"),
+        /** Один JSON-об'єкт на рядок. */
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+    }
+
+    /**
+     * Фільтри експорту; усі необов'язкові.
+     *
+     * @param dischargedFrom перший день діапазону дати виписки (включно)
+     * @param dischargedTo   останній день діапазону дати виписки (включно)
+     * @param doctorId       ID лікаря
+     * @param diagnosis      фрагмент діагнозу
+     */
+    public record Filter(LocalDate dischargedFrom, LocalDate dischargedTo, Long doctorId, String diagnosis) {
+    }
+
+    /**
+     * Результат експорту.
+     *
+     * @param rows          кількість записаних рядків
+     * @param elapsedMillis тривалість, мс
+     */
+    public record ExportRun(long rows, long elapsedMillis) {
+
+        /**
+         * @return кількість рядків за секунду
+         */
+        public long rowsPerSecond() {
+            return elapsedMillis == 0 ? rows * 1000 : rows * 1000 / elapsedMillis;
+        }
+    }
+
+    private final HistoryPatientRepo historyPatientRepo;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * @param historyPatientRepo репозиторій історії пацієнтів
+     * @param objectMapper       JSON-серіалізатор
+     * @param meterRegistry      реєстр метрик
+     */
+    public HistoryExportService(HistoryPatientRepo historyPatientRepo, ObjectMapper objectMapper,
+                                MeterRegistry meterRegistry) {
+        this.historyPatientRepo = historyPatientRepo;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Записує відфільтровану історію у вихідний потік. Потік не закривається.
+     *
+     * @param filter фільтри експорту
+     * @param format формат експорту
+     * @param out    вихідний потік
+     * @return кількість рядків і тривалість експорту
+     * @throws IOException якщо запис у потік не вдався (наприклад, клієнт розірвав з'єднання)
+     */
+    @Transactional(readOnly = true)
+    public ExportRun export(Filter filter, Format format, OutputStream out) throws IOException {
+        long started = System.nanoTime();
+        long rows = 0;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        if (format == Format.CSV) {
+            writer.write('﻿');
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+
+        LocalDateTime from = filter.dischargedFrom() != null ? filter.dischargedFrom().atStartOfDay() : null;
+        LocalDateTime to = filter.dischargedTo() != null ? filter.dischargedTo().plusDays(1).atStartOfDay() : null;
+        String diagnosis = filter.diagnosis() == null || filter.diagnosis().isBlank()
+                ? null : escapeLike(filter.diagnosis().trim());
+        try (Stream<PatientListItem> stream = historyPatientRepo.streamForExport(from, to, filter.doctorId(), diagnosis)) {
+            Iterator<PatientListItem> items = stream.iterator();
+            while (items.hasNext()) {
+                PatientListItem item = items.next();
+                if (format == Format.CSV) {
+                    writeCsv(writer, item);
+                } else {
+                    writer.write(objectMapper.writeValueAsString(item));
+                    writer.write('\n');
+                }
+                rows++;
+            }
+        }
+        writer.flush();
+
+        long elapsedNanos = System.nanoTime() - started;
+        ExportRun run = new ExportRun(rows, TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+        Timer.builder("hospital.history.export")
+                .tag("format", format.getExtension())
+                .register(meterRegistry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+        meterRegistry.counter("hospital.history.export.rows", "format", format.getExtension()).increment(rows);
+        log.info("Експорт історії ({}): {} рядків за {} мс ({} рядків/с)",
+                format.getExtension(), run.rows(), run.elapsedMillis(), run.rowsPerSecond());
+        return run;
+    }
+
+    private static void writeCsv(Writer writer, PatientListItem item) throws IOException {
+        Object[] cells = {item.getId(), item.getFullName(), item.getPhone(), item.getDiagnosis(),
+                item.getBirthDate(), item.getWard(), item.getBed(), item.getDepartment(),
+                item.getDoctorId(), item.getDoctorFullName(), item.getNotes(),
+                item.getAppointmentDateFrom(), item.getAppointmentDateTo()};
+        for (int i = 0; i < cells.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            if (cells[i] != null) {
+                writer.write(csvCell(cells[i].toString()));
+            }
+        }
+        writer.write('\n');
+    }
+
+    /**
+     * Екранує значення клітинки CSV. Клітинка, що починається з {@code =}, {@code +}, {@code -},
+     * {@code @}, табуляції чи повернення каретки, отримує префікс {@code '}, щоб Excel не виконав
+     * вільний текст (діагноз, примітки) як формулу.
+     */
+    private static String csvCell(String value) {
+        if (!value.isEmpty() && "=+-@\t\r".indexOf(value.charAt(0)) >= 0) {
+            value = "'" + value;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,99 @@
+package hospital_registration.demo.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Обмежує частоту спроб входу з IP-адреси клієнта та кількість невдалих спроб для логіна
+ * в ковзному вікні.
+ * <p>
+ * Лічильники зберігаються у двох {@link SlidingCountMinSketch} фіксованого розміру, тож
+ * перебір довільних логінів чи адрес не збільшує споживання пам'яті. Перевірка виконується
+ * до пошуку користувача в базі та до хешування пароля, тому відхилена спроба майже
+ * нічого не коштує. Для адреси враховуються всі спроби, включно з відхиленими: клієнт,
+ * який продовжує перебір, залишається заблокованим, доки не зменшить темп. Для логіна
+ * враховуються лише спроби з неправильним паролем ({@link #recordFailure}), тож потік
+ * запитів без пароля не блокує вхід власнику облікового запису.
+ * </p>
+ * <p>
+ * Адреса клієнта береться з {@code HttpServletRequest#getRemoteAddr()}. За зворотним
+ * проксі застосунок покладається на {@code server.forward-headers-strategy=native}:
+ * Tomcat бере адресу з {@code X-Forwarded-For} лише від внутрішніх проксі, тож клієнт
+ * не може підставити довільну адресу заголовком.
+ * </p>
+ * Відхилення рахуються метрикою {@code hospital.login.throttled} з тегом {@code by}
+ * ({@code login} або {@code ip}).
+ */
+@Service
+public class LoginAttemptLimiter {
+
+    private static final int BUCKETS = 6;
+    private static final int DEPTH = 4;
+    private static final int WIDTH = 4096;
+
+    private final SlidingCountMinSketch byLogin;
+    private final SlidingCountMinSketch byAddress;
+    private final int maxPerLogin;
+    private final int maxPerAddress;
+    private final Counter throttledByLogin;
+    private final Counter throttledByAddress;
+
+    /**
+     * @param window        тривалість ковзного вікна
+     * @param maxPerLogin   максимум невдалих спроб для одного логіна у вікні
+     * @param maxPerAddress максимум спроб з однієї IP-адреси у вікні
+     * @param meterRegistry реєстр метрик
+     */
+    public LoginAttemptLimiter(@Value("${login.throttle.window:PT1M}") Duration window,
+                               @Value("${login.throttle.per-login:10}") int maxPerLogin,
+                               @Value("${login.throttle.per-address:30}") int maxPerAddress,
+                               MeterRegistry meterRegistry) {
+        this.byLogin = new SlidingCountMinSketch(window.toMillis(), BUCKETS, DEPTH, WIDTH);
+        this.byAddress = new SlidingCountMinSketch(window.toMillis(), BUCKETS, DEPTH, WIDTH);
+        this.maxPerLogin = maxPerLogin;
+        this.maxPerAddress = maxPerAddress;
+        this.throttledByLogin = meterRegistry.counter("hospital.login.throttled", "by", "login");
+        this.throttledByAddress = meterRegistry.counter("hospital.login.throttled", "by", "ip");
+    }
+
+    /**
+     * Реєструє спробу входу з адреси і перевіряє, чи не перевищено ліміти.
+     * Лічильник логіна лише перевіряється: його збільшує {@link #recordFailure}.
+     *
+     * @param login         введений логін (може бути null)
+     * @param clientAddress IP-адреса клієнта (може бути null)
+     * @return {@code true}, якщо спробу дозволено
+     */
+    public boolean tryAcquire(String login, String clientAddress) {
+        long now = System.currentTimeMillis();
+        String addressKey = clientAddress == null ? "" : clientAddress;
+
+        if (byAddress.incrementAndEstimate(addressKey, now) > maxPerAddress) {
+            throttledByAddress.increment();
+            return false;
+        }
+        if (byLogin.estimate(loginKey(login), now) >= maxPerLogin) {
+            throttledByLogin.increment();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Реєструє невдалу перевірку пароля для логіна.
+     *
+     * @param login введений логін (може бути null)
+     */
+    public void recordFailure(String login) {
+        byLogin.incrementAndEstimate(loginKey(login), System.currentTimeMillis());
+    }
+
+    private static String loginKey(String login) {
+        return login == null ? "" : login.trim().toLowerCase(Locale.ROOT);
+    }
+}
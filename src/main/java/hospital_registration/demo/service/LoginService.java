@@ -0,0 +1,155 @@
+package hospital_registration.demo.service;
+
+import hospital_registration.demo.Models.PersonalModel;
+import hospital_registration.demo.repo.PersonalRepo;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Сервіс входу співробітника за логіном і паролем.
+ * <p>
+ * Перевірка пароля (BCrypt) виконується в обмеженому пулі {@code passwordVerifierExecutor}:
+ * якщо пул і його черга заповнені, спроба входу одразу отримує {@link Status#BUSY},
+ * а потоки вебсервера не блокуються на хешуванні. Для неіснуючого логіна перевіряється
+ * фіктивний хеш, тож час відповіді не видає, чи існує обліковий запис.
+ * </p>
+ * Після успішного входу пароль, збережений хешем зі слабшою вартістю BCrypt, непомітно
+ * для користувача переписується поточним хешем.
+ * Перед пошуком користувача спроба проходить через {@link LoginAttemptLimiter}; відхилена
+ * спроба не звертається ні до бази, ні до пулу хешування, а неправильний пароль
+ * враховується в ліміті невдалих спроб для логіна.
+ * Результати входу рахуються метрикою {@code hospital.login}.
+ */
+@Service
+public class LoginService {
+
+    /** Результат спроби входу. */
+    public enum Status {
+        /** Логін і пароль правильні. */
+        SUCCESS,
+        /** Невірний логін або пароль. */
+        FAILED,
+        /** Пул перевірки паролів перевантажений; спробу не перевірено. */
+        BUSY,
+        /** Перевищено ліміт спроб для логіна або IP-адреси; спробу не перевірено. */
+        THROTTLED
+    }
+
+    /**
+     * Результат входу.
+     *
+     * @param status результат
+     * @param user   співробітник при {@link Status#SUCCESS}, інакше null
+     */
+    public record LoginResult(Status status, PersonalModel user) {
+    }
+
+    /** Результат перевірки в пулі: чи збігся пароль і новий хеш, якщо старий треба замінити. */
+    private record Verification(boolean matches, String newHash) {
+    }
+
+    private final PersonalRepo personalRepo;
+    private final PasswordService passwordService;
+    private final ThreadPoolTaskExecutor verifierExecutor;
+    private final Duration timeout;
+    private final MeterRegistry meterRegistry;
+    private final LoginAttemptLimiter attemptLimiter;
+    private final String dummyHash;
+
+    /**
+     * @param personalRepo     репозиторій персоналу
+     * @param passwordService  сервіс хешування паролів
+     * @param verifierExecutor обмежений пул перевірки паролів
+     * @param timeout          максимальний час очікування перевірки
+     * @param meterRegistry    реєстр метрик
+     * @param attemptLimiter   обмежувач частоти спроб входу
+     */
+    public LoginService(PersonalRepo personalRepo, PasswordService passwordService,
+                        @Qualifier("passwordVerifierExecutor") ThreadPoolTaskExecutor verifierExecutor,
+                        @Value("${password.verify-timeout:PT2S}") Duration timeout,
+                        MeterRegistry meterRegistry,
+                        LoginAttemptLimiter attemptLimiter) {
+        this.personalRepo = personalRepo;
+        this.passwordService = passwordService;
+        this.verifierExecutor = verifierExecutor;
+        this.timeout = timeout;
+        this.meterRegistry = meterRegistry;
+        this.attemptLimiter = attemptLimiter;
+        this.dummyHash = passwordService.encodePassword(UUID.randomUUID().toString());
+    }
+
+    /**
+     * Перевіряє логін і пароль та за потреби оновлює збережений хеш.
+     *
+     * @param login         логін
+     * @param rawPassword   введений пароль
+     * @param clientAddress IP-адреса клієнта
+     * @return результат входу
+     */
+    public LoginResult authenticate(String login, String rawPassword, String clientAddress) {
+        if (!attemptLimiter.tryAcquire(login, clientAddress)) {
+            return result(Status.THROTTLED, null);
+        }
+
+        PersonalModel user = login == null ? null : personalRepo.findByLogin(login).orElse(null);
+        String stored = user != null ? user.getAccess_key() : dummyHash;
+
+        Future<Verification> future;
+        try {
+            future = verifierExecutor.submit(() -> verify(rawPassword, stored));
+        } catch (TaskRejectedException e) {
+            return result(Status.BUSY, null);
+        }
+
+        Verification verification;
+        try {
+            verification = future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            return result(Status.BUSY, null);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return result(Status.BUSY, null);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Не вдалося перевірити пароль", e.getCause());
+        }
+
+        if (user == null || !verification.matches()) {
+            attemptLimiter.recordFailure(login);
+            return result(Status.FAILED, null);
+        }
+        if (verification.newHash() != null) {
+            personalRepo.replaceAccessKey(user.getId(), stored, verification.newHash());
+        }
+        return result(Status.SUCCESS, user);
+    }
+
+    /**
+     * Виконується в пулі перевірки: порівнює пароль і, якщо збережене значення застаріло,
+     * одразу обчислює новий хеш, щоб не займати потік запиту другим хешуванням.
+     */
+    private Verification verify(String rawPassword, String stored) {
+        if (!passwordService.matchesPassword(rawPassword, stored)) {
+            return new Verification(false, null);
+        }
+        String newHash = passwordService.needsRehash(stored) ? passwordService.encodePassword(rawPassword) : null;
+        return new Verification(true, newHash);
+    }
+
+    private LoginResult result(Status status, PersonalModel user) {
+        meterRegistry.counter("hospital.login", "result", status.name().toLowerCase(Locale.ROOT)).increment();
+        return new LoginResult(status, user);
+    }
+}
@@ -0,0 +1,34 @@
+package hospital_registration.demo.service;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Нічна масова виписка пацієнтів, дата виписки яких уже минула.
+ * Вмикається властивістю {@code discharge.nightly.enabled=true}; розклад задається
+ * cron-виразом {@code discharge.nightly.cron}.
+ */
+@Component
+@ConditionalOnProperty(name = "discharge.nightly.enabled", havingValue = "true")
+public class NightlyDischargeJob {
+
+    private final DischargeService dischargeService;
+
+    /**
+     * @param dischargeService сервіс виписки пацієнтів
+     */
+    public NightlyDischargeJob(DischargeService dischargeService) {
+        this.dischargeService = dischargeService;
+    }
+
+    /**
+     * Виписує всіх пацієнтів із минулою датою виписки.
+     */
+    @Scheduled(cron = "${discharge.nightly.cron:0 0 2 * * *}")
+    public void run() {
+        dischargeService.dischargeBefore(LocalDateTime.now());
+    }
+}
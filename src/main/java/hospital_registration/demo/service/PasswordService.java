@@ -4,16 +4,24 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.util.regex.Pattern;
+
 /**
  * Сервіс для кодування та перевірки паролів за допомогою {@link PasswordEncoder}.
  * <p>
  * Цей сервіс інкапсулює логіку хешування паролів і порівняння
  * сирих паролів із хешованими значеннями.
  * </p>
+ * Паролі, що зберігалися відкритим текстом, хешує міграція {@code V5__Hash_plaintext_passwords},
+ * тому збережене значення, яке не є хешем BCrypt, ніколи не збігається з введеним паролем.
+ * {@link #needsRehash} повідомляє, що хеш зі слабшою вартістю BCrypt треба переписати
+ * після успішного входу.
  */
 @Service
 public class PasswordService {
 
+    private static final Pattern BCRYPT = Pattern.compile("\\A\\$2([ayb])?\\$\\d\\d\\$[./0-9A-Za-z]{53}");
+
     private final PasswordEncoder passwordEncoder;
 
     /**
@@ -44,6 +52,27 @@ public class PasswordService {
      * @return {@code true}, якщо паролі збігаються; інакше {@code false}
      */
     public boolean matchesPassword(String rawPassword, String encodedPassword) {
+        if (rawPassword == null || !isHashed(encodedPassword)) {
+            return false;
+        }
         return passwordEncoder.matches(rawPassword, encodedPassword);
     }
+
+    /**
+     * Перевіряє, чи потрібно переписати збережений хеш з меншою вартістю BCrypt, ніж поточна.
+     *
+     * @param encodedPassword збережений пароль
+     * @return {@code true}, якщо після успішного входу пароль слід хешувати заново
+     */
+    public boolean needsRehash(String encodedPassword) {
+        return isHashed(encodedPassword) && passwordEncoder.upgradeEncoding(encodedPassword);
+    }
+
+    /**
+     * @param value збережене значення пароля
+     * @return {@code true}, якщо значення є хешем BCrypt
+     */
+    public static boolean isHashed(String value) {
+        return value != null && BCRYPT.matcher(value).matches();
+    }
 }
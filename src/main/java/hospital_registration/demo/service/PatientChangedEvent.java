@@ -0,0 +1,82 @@
+package hospital_registration.demo.service;
+
+import hospital_registration.demo.Models.HistoryPatientsModel;
+import hospital_registration.demo.Models.PatientModel;
+
+/**
+ * Подія зміни даних пацієнта: прийом, редагування або виписка.
+ * Публікується контролерами після збереження та дає змогу залежним підсистемам
+ * (наприклад, {@link PatientSearchIndex}) оновлюватися без повторного читання таблиці.
+ */
+public class PatientChangedEvent {
+
+    /** Тип зміни пацієнта. */
+    public enum Type {
+        /** Пацієнта додано. */
+        ADMITTED,
+        /** Дані пацієнта змінено. */
+        UPDATED,
+        /** Змінено лише дату виписки пацієнта. */
+        DISCHARGE_DATE_CHANGED,
+        /** Пацієнта виписано та перенесено до історії. */
+        DISCHARGED
+    }
+
+    private final Type type;
+    private final PatientModel patient;
+    private final HistoryPatientsModel archived;
+
+    private PatientChangedEvent(Type type, PatientModel patient, HistoryPatientsModel archived) {
+        this.type = type;
+        this.patient = patient;
+        this.archived = archived;
+    }
+
+    /**
+     * @param patient збережений пацієнт
+     * @return подія додавання пацієнта
+     */
+    public static PatientChangedEvent admitted(PatientModel patient) {
+        return new PatientChangedEvent(Type.ADMITTED, patient, null);
+    }
+
+    /**
+     * @param patient збережений пацієнт
+     * @return подія зміни даних пацієнта
+     */
+    public static PatientChangedEvent updated(PatientModel patient) {
+        return new PatientChangedEvent(Type.UPDATED, patient, null);
+    }
+
+    /**
+     * @param patient збережений пацієнт з новою датою виписки
+     * @return подія зміни дати виписки
+     */
+    public static PatientChangedEvent dischargeDateChanged(PatientModel patient) {
+        return new PatientChangedEvent(Type.DISCHARGE_DATE_CHANGED, patient, null);
+    }
+
+    /**
+     * @param patient  видалений з активного списку пацієнт
+     * @param archived запис історії, створений для пацієнта
+     * @return подія виписки пацієнта
+     */
+    public static PatientChangedEvent discharged(PatientModel patient, HistoryPatientsModel archived) {
+        return new PatientChangedEvent(Type.DISCHARGED, patient, archived);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public PatientModel getPatient() {
+        return patient;
+    }
+
+    /**
+     * @return запис історії для події {@link Type#DISCHARGED}, інакше null
+     */
+    public HistoryPatientsModel getArchived() {
+        return archived;
+    }
+}
@@ -0,0 +1,72 @@
+package hospital_registration.demo.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Звіт про масовий імпорт пацієнтів: загальні лічильники та результат для кожного рядка.
+ */
+public class PatientImportReport {
+
+    /**
+     * Результат обробки одного рядка.
+     *
+     * @param row       номер рядка даних (з 1, без урахування заголовка CSV)
+     * @param imported  чи збережено пацієнта
+     * @param patientId ID створеного пацієнта або null
+     * @param errors    помилки валідації
+     */
+    public record RowResult(int row, boolean imported, Long patientId, List<String> errors) {
+    }
+
+    private final List<RowResult> rows = new ArrayList<>();
+    private int imported;
+    private long elapsedMillis;
+
+    /**
+     * Додає успішно імпортований рядок.
+     *
+     * @param row       номер рядка
+     * @param patientId ID створеного пацієнта
+     */
+    public void addImported(int row, Long patientId) {
+        rows.add(new RowResult(row, true, patientId, List.of()));
+        imported++;
+    }
+
+    /**
+     * Додає відхилений рядок.
+     *
+     * @param row    номер рядка
+     * @param errors помилки валідації
+     */
+    public void addRejected(int row, List<String> errors) {
+        rows.add(new RowResult(row, false, null, errors));
+    }
+
+    /** @return кількість оброблених рядків */
+    public int getTotal() { return rows.size(); }
+
+    /** @return кількість імпортованих пацієнтів */
+    public int getImported() { return imported; }
+
+    /** @return кількість відхилених рядків */
+    public int getRejected() { return rows.size() - imported; }
+
+    /** @return тривалість імпорту в мілісекундах */
+    public long getElapsedMillis() { return elapsedMillis; }
+
+    /**
+     * Завершує звіт: упорядковує рядки за номером і фіксує тривалість імпорту.
+     *
+     * @param elapsedMillis тривалість імпорту в мілісекундах
+     */
+    public void finish(long elapsedMillis) {
+        rows.sort(Comparator.comparingInt(RowResult::row));
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    /** @return результати по рядках, упорядковані за номером рядка */
+    public List<RowResult> getRows() { return rows; }
+}
@@ -0,0 +1,418 @@
+package hospital_registration.demo.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hospital_registration.demo.Models.PatientModel;
+import hospital_registration.demo.Models.PersonalModel;
+import hospital_registration.demo.repo.PersonalRepo;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.ObjectError;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Сервіс масового імпорту пацієнтів з CSV або JSON (наприклад, при переведенні відділення
+ * з іншої клініки).
+ * <p>
+ * Вхідні дані читаються потоково і обробляються частинами по {@link #BATCH_SIZE} рядків:
+ * лікарі частини завантажуються одним запитом, кожен рядок проходить ті самі перевірки,
+ * що й форма запису, плюс перевірку конфліктів ліжок між рядками самого імпорту.
+ * Коректні рядки вставляються пакетами через
+ * {@link JdbcTemplate#batchUpdate}: сутність пацієнта використовує {@code IDENTITY}-ключі,
+ * з якими Hibernate не групує INSERT-запити. Некоректні рядки не зупиняють імпорт —
+ * вони потрапляють у звіт з переліком помилок. Після імпорту публікується одна
+ * подія {@link PatientsImportedEvent}.
+ * </p>
+ * Очікувані колонки (заголовок CSV або ключі JSON-об'єктів): {@code fullName, phone, diagnosis,
+ * birthDate (yyyy-MM-dd), ward, bed, department, doctorId, notes,
+ * appointmentDateFrom, appointmentDateTo (yyyy-MM-ddTHH:mm)}.
+ */
+@Service
+public class PatientImportService {
+
+    /** Кількість рядків в одному пакеті INSERT */
+    private static final int BATCH_SIZE = 500;
+
+    private static final String INSERT_SQL = "INSERT INTO patients (full_name, phone, diagnosis, birth_date, " +
+            "ward, doctor_id, notes, department, appointment_date_from, appointment_date_to, bed) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    /** Інтервал перебування прийнятого рядка для перевірки конфліктів ліжок усередині імпорту. */
+    private record BatchStay(int row, LocalDateTime from, LocalDateTime to) {
+    }
+
+    /** Рядок імпорту після розбору. */
+    private static final class ParsedRow {
+        final int row;
+        final PatientModel patient = new PatientModel();
+        Long doctorId;
+        final List<String> errors = new ArrayList<>();
+
+        ParsedRow(int row) {
+            this.row = row;
+        }
+    }
+
+    private final PersonalRepo personalRepo;
+    private final PatientValidationService patientValidationService;
+    private final Validator validator;
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * @param personalRepo             репозиторій персоналу
+     * @param patientValidationService сервіс валідації пацієнтів
+     * @param validator                валідатор Bean Validation
+     * @param jdbcTemplate             шаблон JDBC для пакетних вставок
+     * @param eventPublisher           публікатор подій зміни пацієнтів
+     * @param objectMapper             JSON-парсер
+     */
+    public PatientImportService(PersonalRepo personalRepo, PatientValidationService patientValidationService,
+                                Validator validator, JdbcTemplate jdbcTemplate,
+                                ApplicationEventPublisher eventPublisher, ObjectMapper objectMapper) {
+        this.personalRepo = personalRepo;
+        this.patientValidationService = patientValidationService;
+        this.validator = validator;
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Імпортує пацієнтів з CSV. Перший рядок — заголовок з назвами колонок;
+     * роздільник — кома або крапка з комою. Комірки в лапках можуть містити роздільник,
+     * подвоєні лапки та переведення рядка.
+     *
+     * @param in вхідний потік CSV у кодуванні UTF-8
+     * @return звіт про імпорт
+     * @throws IOException якщо потік не вдалося прочитати
+     */
+    @Transactional
+    public PatientImportReport importCsv(InputStream in) throws IOException {
+        long started = System.nanoTime();
+        ImportRun run = new ImportRun();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        String headerLine = reader.readLine();
+        if (headerLine == null) {
+            return run.finish(started);
+        }
+        if (headerLine.startsWith("\uFEFF")) {
+            headerLine = headerLine.substring(1);
+        }
+        char delimiter = headerLine.indexOf(';') >= 0 && headerLine.indexOf(',') < 0 ? ';' : ',';
+        List<String> header = readCsvRecord(new BufferedReader(new StringReader(headerLine)), delimiter);
+
+        List<String> cells;
+        int rowNumber = 0;
+        while ((cells = readCsvRecord(reader, delimiter)) != null) {
+            if (cells.size() == 1 && cells.get(0).isBlank()) {
+                continue;
+            }
+            Map<String, String> values = new HashMap<>();
+            for (int i = 0; i < header.size() && i < cells.size(); i++) {
+                values.put(header.get(i).trim(), cells.get(i));
+            }
+            run.add(parse(++rowNumber, values));
+        }
+        return run.finish(started);
+    }
+
+    /**
+     * Імпортує пацієнтів з JSON-масиву об'єктів. Масив читається потоково, по одному об'єкту.
+     *
+     * @param in вхідний потік JSON
+     * @return звіт про імпорт
+     * @throws IOException якщо потік не вдалося прочитати або JSON некоректний
+     */
+    @Transactional
+    public PatientImportReport importJson(InputStream in) throws IOException {
+        long started = System.nanoTime();
+        ImportRun run = new ImportRun();
+        try (MappingIterator<Map<String, Object>> it = objectMapper
+                .readerFor(new TypeReference<Map<String, Object>>() { })
+                .readValues(in)) {
+            int rowNumber = 0;
+            while (it.hasNextValue()) {
+                Map<String, String> values = new HashMap<>();
+                it.nextValue().forEach((key, value) -> values.put(key, value == null ? null : value.toString()));
+                run.add(parse(++rowNumber, values));
+            }
+        }
+        return run.finish(started);
+    }
+
+    /**
+     * Стан одного імпорту. Розібрані рядки накопичуються лише до {@code BATCH_SIZE},
+     * після чого перевіряються і вставляються одним пакетом, тож пам'ять не залежить
+     * від розміру файлу. Між пакетами зберігаються лише знайдені лікарі та інтервали
+     * прийнятих рядків для перевірки конфліктів ліжок.
+     */
+    private final class ImportRun {
+        final PatientImportReport report = new PatientImportReport();
+        final Map<Long, PersonalModel> doctors = new HashMap<>();
+        final Map<BedOccupancyIndex.BedKey, List<BatchStay>> batchBeds = new HashMap<>();
+        final List<ParsedRow> chunk = new ArrayList<>(BATCH_SIZE);
+        final List<PatientModel> imported = new ArrayList<>();
+
+        void add(ParsedRow row) {
+            chunk.add(row);
+            if (chunk.size() == BATCH_SIZE) {
+                flush();
+            }
+        }
+
+        /**
+         * Перевіряє накопичені рядки і вставляє коректні одним пакетом.
+         */
+        void flush() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            Set<Long> missing = chunk.stream()
+                    .map(r -> r.doctorId)
+                    .filter(id -> id != null && !doctors.containsKey(id))
+                    .collect(Collectors.toSet());
+            if (!missing.isEmpty()) {
+                // Відсутні ID теж запам'ятовуються, щоб не шукати їх повторно в наступних пакетах
+                missing.forEach(id -> doctors.put(id, null));
+                personalRepo.findAllById(missing).forEach(d -> doctors.put(d.getId(), d));
+            }
+
+            List<ParsedRow> accepted = new ArrayList<>();
+            for (ParsedRow row : chunk) {
+                validate(row, doctors, batchBeds);
+                if (row.errors.isEmpty()) {
+                    accepted.add(row);
+                } else {
+                    report.addRejected(row.row, row.errors);
+                }
+            }
+            if (!accepted.isEmpty()) {
+                insertBatch(accepted);
+            }
+            for (ParsedRow row : accepted) {
+                report.addImported(row.row, row.patient.getId());
+                imported.add(row.patient);
+            }
+            chunk.clear();
+        }
+
+        /**
+         * Вставляє залишок і публікує одну подію на весь імпорт.
+         */
+        PatientImportReport finish(long started) {
+            flush();
+            if (!imported.isEmpty()) {
+                eventPublisher.publishEvent(new PatientsImportedEvent(imported));
+            }
+            report.finish((System.nanoTime() - started) / 1_000_000);
+            return report;
+        }
+    }
+
+    private void validate(ParsedRow row, Map<Long, PersonalModel> doctors,
+                          Map<BedOccupancyIndex.BedKey, List<BatchStay>> batchBeds) {
+        if (!row.errors.isEmpty()) {
+            return;
+        }
+        PatientModel patient = row.patient;
+
+        PersonalModel doctor = row.doctorId != null ? doctors.get(row.doctorId) : null;
+        if (doctor == null) {
+            row.errors.add("Лікар не обраний або не існує.");
+        }
+        patient.setDoctor(doctor);
+
+        for (ConstraintViolation<PatientModel> violation : validator.validate(patient)) {
+            row.errors.add(violation.getMessage());
+        }
+
+        BeanPropertyBindingResult bindingResult = new BeanPropertyBindingResult(patient, "patient");
+        patientValidationService.validateDates(patient, bindingResult);
+        for (ObjectError error : bindingResult.getAllErrors()) {
+            row.errors.add(error.getDefaultMessage());
+        }
+
+        if (patient.getWard() != null && patient.getBed() != null
+                && patient.getAppointmentDateFrom() != null && patient.getAppointmentDateTo() != null) {
+            BedOccupancyIndex.BedKey bed = new BedOccupancyIndex.BedKey(patient.getWard(), patient.getBed());
+            List<BatchStay> sameBed = batchBeds.computeIfAbsent(bed, b -> new ArrayList<>());
+            for (BatchStay other : sameBed) {
+                if (other.to().isAfter(patient.getAppointmentDateFrom())
+                        && other.from().isBefore(patient.getAppointmentDateTo())) {
+                    row.errors.add("Ліжко вже зайняте пацієнтом з рядка " + other.row() + " цього імпорту.");
+                    break;
+                }
+            }
+            if (row.errors.isEmpty()) {
+                sameBed.add(new BatchStay(row.row, patient.getAppointmentDateFrom(), patient.getAppointmentDateTo()));
+            }
+        }
+    }
+
+    private void insertBatch(List<ParsedRow> batch) {
+        GeneratedKeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                con -> con.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        PatientModel p = batch.get(i).patient;
+                        ps.setString(1, p.getFullName());
+                        ps.setString(2, p.getPhone());
+                        ps.setString(3, p.getDiagnosis());
+                        ps.setObject(4, p.getBirthDate());
+                        ps.setInt(5, p.getWard());
+                        ps.setLong(6, p.getDoctor().getId());
+                        ps.setString(7, p.getNotes());
+                        ps.setString(8, p.getDepartment());
+                        ps.setObject(9, p.getAppointmentDateFrom());
+                        ps.setObject(10, p.getAppointmentDateTo());
+                        ps.setInt(11, p.getBed());
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return batch.size();
+                    }
+                },
+                keyHolder);
+
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        for (int i = 0; i < batch.size() && i < keys.size(); i++) {
+            Object key = keys.get(i).values().iterator().next();
+            batch.get(i).patient.setId(((Number) key).longValue());
+        }
+    }
+
+    private ParsedRow parse(int rowNumber, Map<String, String> values) {
+        ParsedRow row = new ParsedRow(rowNumber);
+        PatientModel patient = row.patient;
+        patient.setFullName(text(values, "fullName"));
+        patient.setPhone(text(values, "phone"));
+        patient.setDiagnosis(text(values, "diagnosis"));
+        patient.setDepartment(text(values, "department"));
+        patient.setNotes(text(values, "notes"));
+        patient.setWard(integer(values, "ward", row));
+        patient.setBed(integer(values, "bed", row));
+        Integer doctorId = integer(values, "doctorId", row);
+        row.doctorId = doctorId != null ? doctorId.longValue() : null;
+
+        String birthDate = text(values, "birthDate");
+        try {
+            patient.setBirthDate(birthDate != null ? LocalDate.parse(birthDate) : null);
+        } catch (DateTimeParseException e) {
+            row.errors.add("Некоректна дата народження: " + birthDate);
+        }
+        patient.setAppointmentDateFrom(dateTime(values, "appointmentDateFrom", row));
+        patient.setAppointmentDateTo(dateTime(values, "appointmentDateTo", row));
+        return row;
+    }
+
+    private static String text(Map<String, String> values, String column) {
+        String value = values.get(column);
+        if (value == null) {
+            return null;
+        }
+        value = value.trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static Integer integer(Map<String, String> values, String column, ParsedRow row) {
+        String value = text(values, column);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(value);
+        } catch (NumberFormatException e) {
+            row.errors.add("Некоректне число в колонці " + column + ": " + value);
+            return null;
+        }
+    }
+
+    private static LocalDateTime dateTime(Map<String, String> values, String column, ParsedRow row) {
+        String value = text(values, column);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return LocalDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            row.errors.add("Некоректна дата в колонці " + column + ": " + value);
+            return null;
+        }
+    }
+
+    /**
+     * Читає один запис CSV з урахуванням лапок: усередині лапок роздільник і переведення
+     * рядка належать комірці, а подвоєні лапки означають одну лапку.
+     *
+     * @param reader    джерело CSV
+     * @param delimiter роздільник комірок
+     * @return комірки запису або null, якщо потік закінчився
+     * @throws IOException якщо потік не вдалося прочитати
+     */
+    static List<String> readCsvRecord(BufferedReader reader, char delimiter) throws IOException {
+        int c = reader.read();
+        if (c < 0) {
+            return null;
+        }
+        List<String> cells = new ArrayList<>();
+        StringBuilder cell = new StringBuilder();
+        boolean quoted = false;
+        for (; c >= 0; c = reader.read()) {
+            if (quoted) {
+                if (c != '"') {
+                    cell.append((char) c);
+                    continue;
+                }
+                reader.mark(1);
+                if (reader.read() == '"') {
+                    cell.append('"');
+                } else {
+                    reader.reset();
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == delimiter) {
+                cells.add(cell.toString());
+                cell.setLength(0);
+            } else if (c == '\n') {
+                break;
+            } else if (c != '\r') {
+                cell.append((char) c);
+            }
+        }
+        cells.add(cell.toString());
+        return cells;
+    }
+}
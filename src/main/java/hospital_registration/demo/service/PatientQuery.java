@@ -0,0 +1,130 @@
+package hospital_registration.demo.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Типізований запит пошуку пацієнтів, спільний для поточних пацієнтів та історії.
+ * <p>
+ * Складається з незалежних фільтрів, які поєднуються через AND: лікар, відділення
+ * (префікс назви), проміжок дат запису, конкретна дата запису/виписки та текстові умови
+ * по полях пошукового індексу (ПІБ, телефон, діагноз). Запит будується з рядка пошуку
+ * {@link PatientQueryParser} і виконується {@link PatientSearchEngine}.
+ * </p>
+ * Запит незмінний і має рівність за значенням, тому використовується як ключ
+ * {@link SearchResultCache}.
+ *
+ * @param doctorId       ID лікаря або null
+ * @param department     префікс назви відділення або null
+ * @param recordedFrom   перша дата запису проміжку (включно) або null
+ * @param recordedTo     остання дата запису проміжку (включно) або null
+ * @param date           умова на конкретну дату або null
+ * @param texts          текстові умови (усі мають виконуватися)
+ * @param matchesNothing true, якщо запит свідомо не має результатів (наприклад, некоректна дата)
+ */
+public record PatientQuery(Long doctorId, String department, LocalDate recordedFrom, LocalDate recordedTo,
+                           DateMatch date, List<TextMatch> texts, boolean matchesNothing) {
+
+    /** Поле дати, до якого застосовується {@link DateMatch}. */
+    public enum DateField {
+        /** Дата запису (прийому). */
+        RECORDED,
+        /** Дата виписки. */
+        DISCHARGED,
+        /** Будь-яка з двох дат. */
+        ANY
+    }
+
+    /**
+     * Умова «дата припадає на вказаний день».
+     *
+     * @param field поле дати
+     * @param day   день
+     */
+    public record DateMatch(DateField field, LocalDate day) {
+    }
+
+    /**
+     * Текстова умова по пошуковому індексу.
+     *
+     * @param field поле індексу або null для пошуку по всіх полях
+     * @param text  нормалізований текст
+     */
+    public record TextMatch(TextSearchIndex.Field field, String text) {
+    }
+
+    public PatientQuery {
+        texts = List.copyOf(texts);
+    }
+
+    /**
+     * @return true, якщо запит обмежує вибірку хоча б одним фільтром
+     */
+    public boolean hasFilters() {
+        return doctorId != null || department != null || recordedFrom != null || recordedTo != null
+                || date != null || !texts.isEmpty() || matchesNothing;
+    }
+
+    /**
+     * @return новий порожній будівник запиту
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Будівник {@link PatientQuery}. Порожні значення фільтрів ігноруються.
+     */
+    public static final class Builder {
+
+        private Long doctorId;
+        private String department;
+        private LocalDate recordedFrom;
+        private LocalDate recordedTo;
+        private DateMatch date;
+        private final List<TextMatch> texts = new ArrayList<>();
+        private boolean matchesNothing;
+
+        private Builder() {
+        }
+
+        public Builder doctor(Long doctorId) {
+            this.doctorId = doctorId;
+            return this;
+        }
+
+        public Builder department(String department) {
+            this.department = department == null || department.isBlank() ? null : department.trim();
+            return this;
+        }
+
+        public Builder recordedBetween(LocalDate from, LocalDate to) {
+            this.recordedFrom = from;
+            this.recordedTo = to;
+            return this;
+        }
+
+        public Builder date(DateField field, LocalDate day) {
+            this.date = new DateMatch(field, day);
+            return this;
+        }
+
+        public Builder text(TextSearchIndex.Field field, String text) {
+            if (text != null && !text.isBlank()) {
+                texts.add(new TextMatch(field, text.trim().toLowerCase(Locale.ROOT)));
+            }
+            return this;
+        }
+
+        public Builder nothing() {
+            this.matchesNothing = true;
+            return this;
+        }
+
+        public PatientQuery build() {
+            return new PatientQuery(doctorId, department, recordedFrom, recordedTo, date, texts, matchesNothing);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package hospital_registration.demo.service;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Розбір рядка пошуку з форм списків пацієнтів у типізований {@link PatientQuery}.
+ * <p>
+ * Тип пошуку {@code searchType} задає умову явно (name, phone, diagnosis, recordedDATE,
+ * dischargeDATE). Для типу {@code all} дата {@code dd.MM.yyyy} шукається в обох датах,
+ * а будь-який інший рядок — по всіх текстових полях: ПІБ, діагнозі та телефоні
+ * (за цифрами рядка), тож число знаходить і номер телефону, і, наприклад, номер у діагнозі.
+ * Дата перевіряється без винятків; некоректна дата для типів дат дає запит без результатів.
+ * </p>
+ */
+public final class PatientQueryParser {
+
+    private static final Pattern DATE = Pattern.compile("(\\d{1,2})\\.(\\d{1,2})\\.(\\d{4})");
+
+    private PatientQueryParser() {
+    }
+
+    /**
+     * Розбирає рядок пошуку.
+     *
+     * @param searchType тип пошуку з форми
+     * @param term       рядок пошуку (може бути null або порожнім)
+     * @return будівник запиту, до якого можна додати інші фільтри
+     */
+    public static PatientQuery.Builder parse(String searchType, String term) {
+        PatientQuery.Builder query = PatientQuery.builder();
+        String value = term == null ? "" : term.trim();
+        if (value.isEmpty()) {
+            return query;
+        }
+        switch (searchType == null ? "all" : searchType) {
+            case "name":
+                return query.text(TextSearchIndex.Field.NAME, value);
+            case "phone":
+                return query.text(TextSearchIndex.Field.PHONE, value);
+            case "diagnosis":
+                return query.text(TextSearchIndex.Field.DIAGNOSIS, value);
+            case "recordedDATE":
+                return dateOrNothing(query, PatientQuery.DateField.RECORDED, value);
+            case "dischargeDATE":
+                return dateOrNothing(query, PatientQuery.DateField.DISCHARGED, value);
+            case "all":
+            default:
+                LocalDate date = parseDate(value);
+                if (date != null) {
+                    return query.date(PatientQuery.DateField.ANY, date);
+                }
+                return query.text(null, value);
+        }
+    }
+
+    /**
+     * Розбирає дату у форматі {@code d.M.yyyy} / {@code dd.MM.yyyy} без винятків.
+     *
+     * @param value рядок
+     * @return дата або null, якщо рядок не є коректною датою
+     */
+    public static LocalDate parseDate(String value) {
+        Matcher matcher = DATE.matcher(value);
+        if (!matcher.matches()) {
+            return null;
+        }
+        int day = Integer.parseInt(matcher.group(1));
+        int month = Integer.parseInt(matcher.group(2));
+        int year = Integer.parseInt(matcher.group(3));
+        if (month < 1 || month > 12 || day < 1 || day > YearMonth.of(year, month).lengthOfMonth()) {
+            return null;
+        }
+        return LocalDate.of(year, month, day);
+    }
+
+    private static PatientQuery.Builder dateOrNothing(PatientQuery.Builder query, PatientQuery.DateField field,
+                                                      String value) {
+        LocalDate date = parseDate(value);
+        return date != null ? query.date(field, date) : query.nothing();
+    }
+}
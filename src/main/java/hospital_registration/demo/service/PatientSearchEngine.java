@@ -0,0 +1,311 @@
+package hospital_registration.demo.service;
+
+import hospital_registration.demo.Models.HistoryPatientsModel;
+import hospital_registration.demo.Models.PatientModel;
+import hospital_registration.demo.repo.PatientListItem;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CompoundSelection;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Виконавець {@link PatientQuery} для сторінок поточних пацієнтів та історії.
+ * <p>
+ * Замість окремого JPQL-методу репозиторію на кожну комбінацію «тип пошуку × лікар ×
+ * сторінка/кількість» запит збирається Criteria API з тих фільтрів, які задані.
+ * Значення фільтрів Hibernate передає як JDBC-параметри
+ * ({@code hibernate.criteria.value_handling_mode=bind}), тому SQL залежить лише від набору
+ * фільтрів, а його план повторно використовується кешем планів запитів.
+ * </p>
+ * <p>
+ * Текстові умови не перетворюються на {@code LIKE '%...%'}: ID знаходить
+ * {@link PatientSearchIndex} (через {@link SearchResultCache}), а в SQL вони потрапляють
+ * умовою {@code id IN (...)} разом з рештою фільтрів. Кілька текстових умов перетинаються
+ * ще в пам'яті; порожній перетин повертає результат без звернення до бази.
+ * </p>
+ * <p>
+ * Короткий запит може збігтися з більшістю записів, тому ID передаються в SQL порціями
+ * не більше 1000 ID: один список не перевищує ліміт параметрів підготовленого
+ * запиту MySQL навіть після доповнення {@code in_clause_parameter_padding}. Історія
+ * впорядкована за ID, тож порції читаються від курсора по черзі, доки сторінка не заповниться;
+ * сторінка пацієнтів збирається з перших рядків кожної порції. Якщо, крім тексту, інших
+ * SQL-фільтрів немає, кількість береться з розміру списку ID без запиту до бази.
+ * </p>
+ */
+@Service
+public class PatientSearchEngine {
+
+    private static final String FROM = "appointmentDateFrom";
+    private static final String TO = "appointmentDateTo";
+    private static final char LIKE_ESCAPE = '\\';
+
+    /** Найбільша кількість ID в одній умові {@code id IN (...)}. */
+    private static final int ID_SLICE = 1000;
+
+    /** Порядок сторінки поточних пацієнтів: дата запису, потім ID. */
+    private static final Comparator<PatientListItem> PATIENT_ORDER = Comparator
+            .comparing(PatientListItem::getAppointmentDateFrom, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(PatientListItem::getId);
+
+    /** Ключ кешу ID, знайдених індексом для однієї текстової умови. */
+    private record TextLookup(Long doctorId, PatientQuery.TextMatch text) {
+    }
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final PatientSearchIndex searchIndex;
+    private final SearchResultCache searchCache;
+
+    /**
+     * @param searchIndex пошуковий індекс пацієнтів
+     * @param searchCache кеш результатів пошуку
+     */
+    public PatientSearchEngine(PatientSearchIndex searchIndex, SearchResultCache searchCache) {
+        this.searchIndex = searchIndex;
+        this.searchCache = searchCache;
+    }
+
+    /**
+     * Сторінка поточних пацієнтів з keyset-пагінацією за курсором {@code (appointmentDateFrom, id)}.
+     *
+     * @param query     запит
+     * @param afterFrom дата запису останнього пацієнта попередньої сторінки
+     * @param afterId   ID останнього пацієнта попередньої сторінки
+     *                  (якщо хоча б одна частина курсора null — перша сторінка)
+     * @param limit     максимальна кількість рядків
+     * @return сторінка пацієнтів, упорядкована за датою запису та ID
+     */
+    public List<PatientListItem> findPatients(PatientQuery query, LocalDateTime afterFrom, Long afterId, int limit) {
+        List<Long> ids = textIds(SearchResultCache.Scope.PATIENTS, query);
+        if (query.matchesNothing() || (ids != null && ids.isEmpty())) {
+            return List.of();
+        }
+        if (afterFrom == null || afterId == null) {
+            afterFrom = null;
+            afterId = null;
+        }
+        if (ids == null || ids.size() <= ID_SLICE) {
+            return patientRows(query, ids, afterFrom, afterId, limit);
+        }
+        // Перші limit рядків об'єднання порцій є серед перших limit рядків кожної порції
+        List<PatientListItem> rows = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i += ID_SLICE) {
+            rows.addAll(patientRows(query, slice(ids, i), afterFrom, afterId, limit));
+        }
+        rows.sort(PATIENT_ORDER);
+        return rows.size() > limit ? new ArrayList<>(rows.subList(0, limit)) : rows;
+    }
+
+    /**
+     * Кількість поточних пацієнтів, що відповідають запиту.
+     *
+     * @param query запит
+     * @return кількість пацієнтів
+     */
+    public long countPatients(PatientQuery query) {
+        return count(PatientModel.class, query, textIds(SearchResultCache.Scope.PATIENTS, query));
+    }
+
+    /**
+     * Сторінка записів історії з keyset-пагінацією за ID.
+     *
+     * @param query   запит
+     * @param afterId ID останнього запису попередньої сторінки (null — перша сторінка)
+     * @param limit   максимальна кількість рядків
+     * @return сторінка записів історії, упорядкована за ID
+     */
+    public List<PatientListItem> findHistory(PatientQuery query, Long afterId, int limit) {
+        List<Long> ids = textIds(SearchResultCache.Scope.HISTORY, query);
+        if (query.matchesNothing() || (ids != null && ids.isEmpty())) {
+            return List.of();
+        }
+        if (ids == null) {
+            return historyRows(query, null, afterId, limit);
+        }
+        // ID відсортовані, тому порції після курсора читаються по черзі, доки сторінка не заповниться
+        int start = 0;
+        if (afterId != null) {
+            int found = Collections.binarySearch(ids, afterId);
+            start = found >= 0 ? found + 1 : -found - 1;
+        }
+        List<PatientListItem> rows = new ArrayList<>();
+        for (int i = start; i < ids.size() && rows.size() < limit; i += ID_SLICE) {
+            rows.addAll(historyRows(query, slice(ids, i), null, limit - rows.size()));
+        }
+        return rows;
+    }
+
+    /**
+     * Кількість записів історії, що відповідають запиту.
+     *
+     * @param query запит
+     * @return кількість записів
+     */
+    public long countHistory(PatientQuery query) {
+        return count(HistoryPatientsModel.class, query, textIds(SearchResultCache.Scope.HISTORY, query));
+    }
+
+    private List<PatientListItem> patientRows(PatientQuery query, List<Long> ids,
+                                              LocalDateTime afterFrom, Long afterId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<PatientListItem> cq = cb.createQuery(PatientListItem.class);
+        Root<PatientModel> root = cq.from(PatientModel.class);
+        List<Predicate> where = filters(cb, root, query, ids);
+        if (afterFrom != null) {
+            Path<LocalDateTime> from = root.get(FROM);
+            Path<Long> id = root.get("id");
+            where.add(cb.or(cb.greaterThan(from, afterFrom),
+                    cb.and(cb.equal(from, afterFrom), cb.greaterThan(id, afterId))));
+        }
+        cq.select(listItem(cb, root, root.join("doctor")))
+                .where(where.toArray(Predicate[]::new))
+                .orderBy(cb.asc(root.get(FROM)), cb.asc(root.get("id")));
+        return entityManager.createQuery(cq).setMaxResults(limit).getResultList();
+    }
+
+    private List<PatientListItem> historyRows(PatientQuery query, List<Long> ids, Long afterId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<PatientListItem> cq = cb.createQuery(PatientListItem.class);
+        Root<HistoryPatientsModel> root = cq.from(HistoryPatientsModel.class);
+        List<Predicate> where = filters(cb, root, query, ids);
+        if (afterId != null) {
+            where.add(cb.greaterThan(root.get("id"), afterId));
+        }
+        cq.select(listItem(cb, root, root.join("doctor")))
+                .where(where.toArray(Predicate[]::new))
+                .orderBy(cb.asc(root.get("id")));
+        return entityManager.createQuery(cq).setMaxResults(limit).getResultList();
+    }
+
+    /**
+     * Підраховує записи сутності за запитом. Якщо всі умови, крім текстових, уже враховані
+     * індексом (лікар), повертає розмір списку ID; інакше рахує в базі порціями ID.
+     */
+    private long count(Class<?> entity, PatientQuery query, List<Long> ids) {
+        if (query.matchesNothing() || (ids != null && ids.isEmpty())) {
+            return 0;
+        }
+        if (ids == null) {
+            return countRows(entity, query, null);
+        }
+        if (!hasSqlFilters(query)) {
+            return ids.size();
+        }
+        long total = 0;
+        for (int i = 0; i < ids.size(); i += ID_SLICE) {
+            total += countRows(entity, query, slice(ids, i));
+        }
+        return total;
+    }
+
+    private long countRows(Class<?> entity, PatientQuery query, List<Long> ids) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> cq = cb.createQuery(Long.class);
+        Root<?> root = cq.from(entity);
+        cq.select(cb.count(root)).where(filters(cb, root, query, ids).toArray(Predicate[]::new));
+        return entityManager.createQuery(cq).getSingleResult();
+    }
+
+    /** Чи є в запиті фільтри, які перевіряються лише в SQL, а не в текстовому індексі. */
+    private static boolean hasSqlFilters(PatientQuery query) {
+        return query.department() != null || query.recordedFrom() != null
+                || query.recordedTo() != null || query.date() != null;
+    }
+
+    private static List<Long> slice(List<Long> ids, int from) {
+        return ids.subList(from, Math.min(from + ID_SLICE, ids.size()));
+    }
+
+    /**
+     * Повертає ID, що задовольняють усі текстові умови запиту.
+     *
+     * @return відсортований список ID або null, якщо текстових умов немає
+     */
+    private List<Long> textIds(SearchResultCache.Scope scope, PatientQuery query) {
+        if (query.texts().isEmpty() || query.matchesNothing()) {
+            return null;
+        }
+        Set<Long> ids = null;
+        for (PatientQuery.TextMatch text : query.texts()) {
+            List<Long> found = searchCache.get(scope, new TextLookup(query.doctorId(), text),
+                    () -> scope == SearchResultCache.Scope.PATIENTS
+                            ? searchIndex.searchPatients(text.field(), text.text(), query.doctorId())
+                            : searchIndex.searchHistory(text.field(), text.text(), query.doctorId()));
+            if (ids == null) {
+                ids = new LinkedHashSet<>(found);
+            } else {
+                ids.retainAll(found);
+            }
+            if (ids.isEmpty()) {
+                break;
+            }
+        }
+        return new ArrayList<>(ids);
+    }
+
+    /**
+     * Будує умови WHERE для заданих фільтрів. Поля однакові для пацієнтів та історії.
+     */
+    private static List<Predicate> filters(CriteriaBuilder cb, Root<?> root, PatientQuery query, List<Long> ids) {
+        List<Predicate> where = new ArrayList<>();
+        Path<LocalDateTime> from = root.get(FROM);
+        Path<LocalDateTime> to = root.get(TO);
+        if (ids != null) {
+            where.add(root.get("id").in(ids));
+        }
+        if (query.doctorId() != null) {
+            where.add(cb.equal(root.get("doctor").get("id"), query.doctorId()));
+        }
+        if (query.department() != null) {
+            where.add(cb.like(root.<String>get("department"), escapeLike(query.department()) + "%", LIKE_ESCAPE));
+        }
+        if (query.recordedFrom() != null) {
+            where.add(cb.greaterThanOrEqualTo(from, query.recordedFrom().atStartOfDay()));
+        }
+        if (query.recordedTo() != null) {
+            where.add(cb.lessThan(from, query.recordedTo().plusDays(1).atStartOfDay()));
+        }
+        PatientQuery.DateMatch date = query.date();
+        if (date != null) {
+            switch (date.field()) {
+                case RECORDED -> where.add(onDay(cb, from, date.day()));
+                case DISCHARGED -> where.add(onDay(cb, to, date.day()));
+                case ANY -> where.add(cb.or(onDay(cb, from, date.day()), onDay(cb, to, date.day())));
+            }
+        }
+        return where;
+    }
+
+    private static Predicate onDay(CriteriaBuilder cb, Path<LocalDateTime> path, LocalDate day) {
+        return cb.and(cb.greaterThanOrEqualTo(path, day.atStartOfDay()),
+                cb.lessThan(path, day.plusDays(1).atStartOfDay()));
+    }
+
+    private static CompoundSelection<PatientListItem> listItem(
+            CriteriaBuilder cb, Root<?> root, Join<?, ?> doctor) {
+        return cb.construct(PatientListItem.class,
+                root.get("id"), root.get("fullName"), root.get("birthDate"), root.get("ward"), root.get("bed"),
+                root.get("phone"), root.get("diagnosis"), root.get("notes"), root.get("department"),
+                root.get(FROM), root.get(TO), doctor.get("id"), doctor.get("fullName"));
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,178 @@
+package hospital_registration.demo.service;
+
+import hospital_registration.demo.Models.HistoryPatientsModel;
+import hospital_registration.demo.Models.PatientModel;
+import hospital_registration.demo.Models.PersonalModel;
+import hospital_registration.demo.repo.HistoryPatientRepo;
+import hospital_registration.demo.repo.PatientRepo;
+import hospital_registration.demo.repo.SearchFields;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+
+/**
+ * Сервіс текстового пошуку пацієнтів за ПІБ, телефоном і діагнозом.
+ * <p>
+ * Замість запитів {@code LIKE '%...%'}, які змушують MySQL сканувати всю таблицю,
+ * пошук виконується по двох триграмних індексах у пам'яті ({@link TextSearchIndex}):
+ * для поточних пацієнтів та для історії. Індекси будуються під час запуску застосунку,
+ * до того як вебсервер почне приймати запити, і надалі оновлюються подіями
+ * {@link PatientChangedEvent}, {@link PatientsArchivedEvent} та {@link PatientsImportedEvent}
+ * після фіксації транзакції.
+ * </p>
+ */
+@Service
+public class PatientSearchIndex implements SmartInitializingSingleton {
+
+    private final PatientRepo patientRepo;
+    private final HistoryPatientRepo historyPatientRepo;
+
+    private final TextSearchIndex patients = new TextSearchIndex();
+    private final TextSearchIndex history = new TextSearchIndex();
+
+    /**
+     * @param patientRepo        репозиторій пацієнтів
+     * @param historyPatientRepo репозиторій історії пацієнтів
+     */
+    public PatientSearchIndex(PatientRepo patientRepo, HistoryPatientRepo historyPatientRepo) {
+        this.patientRepo = patientRepo;
+        this.historyPatientRepo = historyPatientRepo;
+    }
+
+    /**
+     * Будує індекси під час запуску застосунку.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    /**
+     * Повністю перебудовує обидва індекси з бази даних.
+     */
+    public void rebuild() {
+        patients.clear();
+        for (SearchFields row : patientRepo.findAllSearchFields()) {
+            patients.put(row.getId(), row.getDoctorId(), row.getFullName(), row.getPhone(), row.getDiagnosis());
+        }
+        history.clear();
+        for (SearchFields row : historyPatientRepo.findAllSearchFields()) {
+            history.put(row.getId(), row.getDoctorId(), row.getFullName(), row.getPhone(), row.getDiagnosis());
+        }
+    }
+
+    /**
+     * Пошук серед поточних пацієнтів.
+     *
+     * @param field    поле пошуку або null для пошуку по всіх полях
+     * @param term     текст пошуку
+     * @param doctorId обмеження за лікарем або null для всіх пацієнтів
+     * @return відсортований список ID знайдених пацієнтів
+     */
+    public List<Long> searchPatients(TextSearchIndex.Field field, String term, Long doctorId) {
+        return patients.search(field, term, doctorId);
+    }
+
+    /**
+     * Пошук в історії пацієнтів.
+     *
+     * @param field    поле пошуку або null для пошуку по всіх полях
+     * @param term     текст пошуку
+     * @param doctorId обмеження за лікарем або null для всіх записів
+     * @return відсортований список ID знайдених записів історії
+     */
+    public List<Long> searchHistory(TextSearchIndex.Field field, String term, Long doctorId) {
+        return history.search(field, term, doctorId);
+    }
+
+    /**
+     * Оновлює індекси після зміни пацієнта.
+     * Виконується після фіксації транзакції або одразу, якщо подію опубліковано поза транзакцією,
+     * і раніше за {@link SearchResultCache}, щоб скинутий кеш заповнювався вже з оновленого індексу.
+     *
+     * @param event подія зміни пацієнта
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onPatientChanged(PatientChangedEvent event) {
+        PatientModel patient = event.getPatient();
+        switch (event.getType()) {
+            case ADMITTED, UPDATED, DISCHARGE_DATE_CHANGED -> patients.put(patient.getId(), doctorId(patient.getDoctor()),
+                    patient.getFullName(), patient.getPhone(), patient.getDiagnosis());
+            case DISCHARGED -> {
+                patients.remove(patient.getId());
+                HistoryPatientsModel archived = event.getArchived();
+                if (archived != null) {
+                    history.put(archived.getId(), doctorId(archived.getDoctor()),
+                            archived.getFullName(), archived.getPhone(), archived.getDiagnosis());
+                }
+            }
+        }
+    }
+
+    /**
+     * Оновлює індекси після масової виписки.
+     *
+     * @param event подія масової виписки
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onPatientsArchived(PatientsArchivedEvent event) {
+        patients.removeAll(event.getPatientIds());
+        history.putAll(event.getArchived());
+    }
+
+    /**
+     * Додає імпортованих пацієнтів до індексу під одним блокуванням запису.
+     *
+     * @param event подія масового імпорту
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onPatientsImported(PatientsImportedEvent event) {
+        patients.putAll(event.getPatients().stream().map(ImportedFields::of).toList());
+    }
+
+    /** Поля імпортованого пацієнта для пакетного додавання до індексу. */
+    private record ImportedFields(Long id, Long doctorId, String fullName, String phone, String diagnosis)
+            implements SearchFields {
+
+        static ImportedFields of(PatientModel patient) {
+            return new ImportedFields(patient.getId(), doctorId(patient.getDoctor()),
+                    patient.getFullName(), patient.getPhone(), patient.getDiagnosis());
+        }
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public Long getDoctorId() {
+            return doctorId;
+        }
+
+        @Override
+        public String getFullName() {
+            return fullName;
+        }
+
+        @Override
+        public String getPhone() {
+            return phone;
+        }
+
+        @Override
+        public String getDiagnosis() {
+            return diagnosis;
+        }
+    }
+
+    private static Long doctorId(PersonalModel doctor) {
+        return doctor != null ? doctor.getId() : null;
+    }
+}
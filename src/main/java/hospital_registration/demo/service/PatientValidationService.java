@@ -1,13 +1,10 @@
 package hospital_registration.demo.service;
 
 import hospital_registration.demo.Models.PatientModel;
-import hospital_registration.demo.repo.PatientRepo;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.validation.BindingResult;
 
-import java.util.List;
-
 /**
  * Сервіс для валідації даних пацієнта.
  * <p>
@@ -15,7 +12,8 @@ import java.util.List;
  * <ul>
  *     <li>Дата народження не може бути пізнішою за дату запису.</li>
  *     <li>Дата запису не може бути пізнішою за дату виписки.</li>
- *     <li>Ліжко в палаті не може бути зайняте двома пацієнтами в один і той самий період.</li>
+ *     <li>Ліжко в палаті не може бути зайняте двома пацієнтами в один і той самий період
+ *     (перевіряється за {@link BedOccupancyIndex} без запиту до бази даних).</li>
  * </ul>
  * Для додаткових повідомлень про помилки використовується {@link BindingResult}.
  */
@@ -24,7 +22,7 @@ import java.util.List;
 public class PatientValidationService {
 
     @Autowired
-    private PatientRepo patientRepository;
+    private BedOccupancyIndex bedOccupancyIndex;
 
     /**
      * Перевіряє відповідність дат бізнес-логіці:
@@ -52,18 +50,10 @@ public class PatientValidationService {
         if (patient.getWard() != null && patient.getBed() != null &&
                 patient.getAppointmentDateFrom() != null && patient.getAppointmentDateTo() != null) {
 
-            List<PatientModel> conflicts = patientRepository.findConflictingPatients(
-                    patient.getWard(), patient.getBed(),
-                    patient.getAppointmentDateFrom(), patient.getAppointmentDateTo()
-            );
-
-            if (patient.getId() != null) {
-                conflicts = conflicts.stream()
-                        .filter(p -> !p.getId().equals(patient.getId()))
-                        .toList();
-            }
+            boolean free = bedOccupancyIndex.isFree(patient.getWard(), patient.getBed(),
+                    patient.getAppointmentDateFrom(), patient.getAppointmentDateTo(), patient.getId());
 
-            if (!conflicts.isEmpty()) {
+            if (!free) {
                 bindingResult.rejectValue("bed", "error.bed",
                         "Це ліжко вже зайняте на вказаний період.");
             }
@@ -0,0 +1,33 @@
+package hospital_registration.demo.service;
+
+import hospital_registration.demo.repo.SearchFields;
+
+import java.util.List;
+
+/**
+ * Подія масової виписки: пацієнтів перенесено до історії set-based запитами,
+ * без завантаження сутностей. Дає змогу {@link PatientSearchIndex} та
+ * {@link BedOccupancyIndex} оновитися без повної перебудови.
+ */
+public class PatientsArchivedEvent {
+
+    private final List<Long> patientIds;
+    private final List<SearchFields> archived;
+
+    /**
+     * @param patientIds ID виписаних пацієнтів
+     * @param archived   поля створених записів історії для пошукового індексу
+     */
+    public PatientsArchivedEvent(List<Long> patientIds, List<SearchFields> archived) {
+        this.patientIds = patientIds;
+        this.archived = archived;
+    }
+
+    public List<Long> getPatientIds() {
+        return patientIds;
+    }
+
+    public List<SearchFields> getArchived() {
+        return archived;
+    }
+}
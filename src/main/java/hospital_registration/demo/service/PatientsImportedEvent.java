@@ -0,0 +1,26 @@
+package hospital_registration.demo.service;
+
+import hospital_registration.demo.Models.PatientModel;
+
+import java.util.List;
+
+/**
+ * Подія масового імпорту: пацієнтів вставлено пакетами через {@link PatientImportService}.
+ * Публікується один раз на весь імпорт, щоб {@link PatientSearchIndex}, {@link BedOccupancyIndex},
+ * {@link SearchResultCache} та {@link WardBoardService} оновилися за один прохід.
+ */
+public class PatientsImportedEvent {
+
+    private final List<PatientModel> patients;
+
+    /**
+     * @param patients вставлені пацієнти з присвоєними ID
+     */
+    public PatientsImportedEvent(List<PatientModel> patients) {
+        this.patients = patients;
+    }
+
+    public List<PatientModel> getPatients() {
+        return patients;
+    }
+}
@@ -0,0 +1,231 @@
+package hospital_registration.demo.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Короткочасний кеш результатів пошуку пацієнтів з об'єднанням однакових одночасних запитів.
+ * <p>
+ * Ключ — {@code (область, запит)}, де запит — значення з рівністю за значенням, зазвичай
+ * {@link PatientQuery} або його текстова умова. Якщо кілька запитів
+ * з однаковим ключем надходять одночасно, результат обчислює лише перший, а решта
+ * чекають на той самий {@link CompletableFuture} (single-flight). Готовий результат
+ * зберігається {@code search-cache.ttl}; загальна кількість рядків у кеші обмежена
+ * {@code search-cache.max-rows}.
+ * </p>
+ * <p>
+ * Кожна область має лічильник покоління, що входить до ключа. Зміна пацієнтів збільшує
+ * покоління після фіксації транзакції (і після оновлення {@link PatientSearchIndex}), тому
+ * результат, обчислений до зміни, вже не буде повернено, навіть якщо його обчислення
+ * завершиться пізніше. Кількість влучань, промахів та об'єднаних запитів експортується
+ * лічильником {@code hospital.search.cache}.
+ * </p>
+ * <p>
+ * Записи історії не редагуються, а лише додаються при виписці, тому покоління області
+ * {@link Scope#HISTORY} є версією архіву: поки воно не змінилося, результати історії
+ * зберігаються довше ({@code search-cache.history-ttl}), а сторінка історії відповідає
+ * на умовні GET-запити за {@link #version} та {@link #lastModified}.
+ * </p>
+ */
+@Service
+public class SearchResultCache {
+
+    /** Область пошуку. */
+    public enum Scope {
+        /** Поточні пацієнти. */
+        PATIENTS,
+        /** Історія пацієнтів. */
+        HISTORY
+    }
+
+    private record Key(Scope scope, long generation, Object query) {
+    }
+
+    private final MeterRegistry meterRegistry;
+    private final AsyncCache<Key, List<?>> cache;
+    private final Map<Scope, AtomicLong> generations = new EnumMap<>(Scope.class);
+    private final Map<Scope, AtomicLong> modifiedAt = new EnumMap<>(Scope.class);
+
+    /**
+     * @param meterRegistry реєстр метрик
+     * @param ttl           час життя готового результату пошуку поточних пацієнтів
+     * @param historyTtl    час життя готового результату пошуку в історії
+     * @param maxRows       максимальна сумарна кількість рядків у кеші
+     */
+    public SearchResultCache(MeterRegistry meterRegistry,
+                             @Value("${search-cache.ttl:PT15S}") Duration ttl,
+                             @Value("${search-cache.history-ttl:PT12H}") Duration historyTtl,
+                             @Value("${search-cache.max-rows:50000}") long maxRows) {
+        this.meterRegistry = meterRegistry;
+        this.cache = Caffeine.newBuilder()
+                .expireAfter(new ScopeExpiry(ttl, historyTtl))
+                .maximumWeight(maxRows)
+                .<Key, List<?>>weigher((key, rows) -> Math.max(1, rows.size()))
+                .buildAsync();
+        long now = Instant.now().truncatedTo(ChronoUnit.SECONDS).toEpochMilli();
+        for (Scope scope : Scope.values()) {
+            generations.put(scope, new AtomicLong());
+            modifiedAt.put(scope, new AtomicLong(now));
+        }
+    }
+
+    /**
+     * Повертає результат пошуку з кешу або обчислює його один раз для всіх одночасних запитів.
+     *
+     * @param scope  область пошуку
+     * @param query  незмінний запит з рівністю за значенням (наприклад, {@link PatientQuery})
+     * @param loader обчислення результату при промаху
+     * @param <T>    тип рядка результату
+     * @return незмінний список результатів
+     */
+    @SuppressWarnings("unchecked")
+    public <T> List<T> get(Scope scope, Object query, Supplier<List<T>> loader) {
+        Key key = new Key(scope, generations.get(scope).get(), query);
+
+        CompletableFuture<List<?>> created = new CompletableFuture<>();
+        CompletableFuture<List<?>> existing = cache.asMap().putIfAbsent(key, created);
+        if (existing != null) {
+            count(scope, existing.isDone() ? "hit" : "coalesced");
+            return (List<T>) join(existing);
+        }
+
+        count(scope, "miss");
+        try {
+            List<T> rows = List.copyOf(loader.get());
+            created.complete(rows);
+            return rows;
+        } catch (Throwable e) {
+            // Невдалий результат видаляється з кешу; запити, що чекали на нього, отримують ту саму помилку.
+            // Перехоплюються і Error, інакше незавершений результат блокував би ключ до кінця TTL
+            created.completeExceptionally(e);
+            cache.asMap().remove(key, created);
+            throw e;
+        }
+    }
+
+    /**
+     * Робить недійсними результати області: нові запити отримують нове покоління ключів.
+     *
+     * @param scope область пошуку
+     */
+    public void invalidate(Scope scope) {
+        // Покоління змінюється раніше за час зміни: хто побачив новий час, побачить і нове покоління.
+        // Час зміни строго зростає посекундно, щоб Last-Modified розрізняв зміни в межах однієї секунди
+        generations.get(scope).incrementAndGet();
+        long now = Instant.now().truncatedTo(ChronoUnit.SECONDS).toEpochMilli();
+        modifiedAt.get(scope).accumulateAndGet(now, (previous, current) -> Math.max(current, previous + 1000));
+        // Записи старого покоління не видаляються перебором: до них більше ніхто не звертається,
+        // тож вони першими витісняються за вагою або закінчуються за часом життя
+    }
+
+    /**
+     * @param scope область пошуку
+     * @return поточна версія даних області; змінюється при кожному скиданні
+     */
+    public long version(Scope scope) {
+        return generations.get(scope).get();
+    }
+
+    /**
+     * @param scope область пошуку
+     * @return час останньої зміни даних області (або запуску застосунку) в мілісекундах,
+     * округлений до секунди для заголовка {@code Last-Modified}
+     */
+    public long lastModified(Scope scope) {
+        return modifiedAt.get(scope).get();
+    }
+
+    /**
+     * Скидає результати після зміни пацієнта. Виконується після оновлення пошукового індексу.
+     *
+     * @param event подія зміни пацієнта
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onPatientChanged(PatientChangedEvent event) {
+        invalidate(Scope.PATIENTS);
+        if (event.getType() == PatientChangedEvent.Type.DISCHARGED) {
+            invalidate(Scope.HISTORY);
+        }
+    }
+
+    /**
+     * Скидає результати обох областей після масової виписки.
+     *
+     * @param event подія масової виписки
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onPatientsArchived(PatientsArchivedEvent event) {
+        invalidate(Scope.PATIENTS);
+        invalidate(Scope.HISTORY);
+    }
+
+    /**
+     * Скидає результати пошуку пацієнтів один раз на весь масовий імпорт.
+     *
+     * @param event подія масового імпорту
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onPatientsImported(PatientsImportedEvent event) {
+        invalidate(Scope.PATIENTS);
+    }
+
+    private void count(Scope scope, String result) {
+        meterRegistry.counter("hospital.search.cache",
+                "scope", scope.name().toLowerCase(Locale.ROOT), "result", result).increment();
+    }
+
+    /** Час життя запису залежно від області: історія змінюється лише при виписці. */
+    private record ScopeExpiry(Duration ttl, Duration historyTtl) implements Expiry<Key, List<?>> {
+
+        @Override
+        public long expireAfterCreate(Key key, List<?> rows, long currentTime) {
+            return (key.scope() == Scope.HISTORY ? historyTtl : ttl).toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(Key key, List<?> rows, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, rows, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Key key, List<?> rows, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+    private static List<?> join(CompletableFuture<List<?>> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package hospital_registration.demo.service;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Наближений лічильник подій за ключем у ковзному часовому вікні на основі count-min sketch.
+ * <p>
+ * Вікно поділене на кошики фіксованої тривалості; кожен кошик — окремий скетч
+ * {@code depth × width} атомарних лічильників. Подія збільшує по одному лічильнику в кожному
+ * рядку поточного кошика, а оцінка — це мінімум по рядках суми лічильників усіх кошиків,
+ * що ще потрапляють у вікно. Оцінка ніколи не менша за справжню кількість (крім рідкісних
+ * подій, втрачених під час очищення кошика), а пам'ять не залежить від кількості ключів.
+ * </p>
+ * Клас не використовує блокувань: кошик, що повертається в роботу, очищає той потік,
+ * який першим оновив його епоху через CAS. Хеш має випадкове зерно, тому підібрати
+ * ключі, що гарантовано збігаються з чужим, заздалегідь неможливо.
+ */
+public class SlidingCountMinSketch {
+
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final int depth;
+    private final int mask;
+    private final long bucketMillis;
+    private final AtomicIntegerArray[] buckets;
+    private final AtomicLongArray epochs;
+    private final long seed = ThreadLocalRandom.current().nextLong();
+
+    /**
+     * @param window  тривалість вікна в мілісекундах
+     * @param buckets кількість кошиків у вікні
+     * @param depth   кількість рядків (незалежних хешів)
+     * @param width   кількість лічильників у рядку; округлюється до степеня двійки
+     */
+    public SlidingCountMinSketch(long window, int buckets, int depth, int width) {
+        if (window <= 0 || buckets <= 0 || depth <= 0 || width <= 0) {
+            throw new IllegalArgumentException("Параметри скетча мають бути додатними");
+        }
+        int size = Integer.highestOneBit(width);
+        if (size < width) {
+            size <<= 1;
+        }
+        this.depth = depth;
+        this.mask = size - 1;
+        this.bucketMillis = Math.max(1, window / buckets);
+        this.buckets = new AtomicIntegerArray[buckets];
+        this.epochs = new AtomicLongArray(buckets);
+        for (int i = 0; i < buckets; i++) {
+            this.buckets[i] = new AtomicIntegerArray(depth * size);
+            this.epochs.set(i, Long.MIN_VALUE);
+        }
+    }
+
+    /**
+     * Реєструє подію для ключа і повертає оцінку кількості подій у вікні разом із нею.
+     *
+     * @param key ключ
+     * @param now поточний час у мілісекундах
+     * @return оцінка кількості подій у вікні
+     */
+    public int incrementAndEstimate(String key, long now) {
+        long epoch = now / bucketMillis;
+        AtomicIntegerArray bucket = current(epoch);
+        long hash = hash(key);
+        int width = mask + 1;
+        for (int row = 0; row < depth; row++) {
+            bucket.incrementAndGet(row * width + index(hash, row));
+        }
+        return estimate(hash, epoch);
+    }
+
+    /**
+     * Повертає оцінку кількості подій для ключа у вікні без реєстрації нової.
+     *
+     * @param key ключ
+     * @param now поточний час у мілісекундах
+     * @return оцінка кількості подій у вікні
+     */
+    public int estimate(String key, long now) {
+        return estimate(hash(key), now / bucketMillis);
+    }
+
+    private int estimate(long hash, long epoch) {
+        int width = mask + 1;
+        int min = Integer.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            int offset = row * width + index(hash, row);
+            int sum = 0;
+            for (int slot = 0; slot < buckets.length; slot++) {
+                long slotEpoch = epochs.get(slot);
+                if (slotEpoch <= epoch && slotEpoch > epoch - buckets.length) {
+                    sum += buckets[slot].get(offset);
+                }
+            }
+            min = Math.min(min, sum);
+        }
+        return min;
+    }
+
+    /**
+     * Повертає кошик для епохи, очищаючи його, якщо він востаннє використовувався
+     * в попередньому оберті вікна.
+     */
+    private AtomicIntegerArray current(long epoch) {
+        int slot = (int) Math.floorMod(epoch, (long) buckets.length);
+        AtomicIntegerArray bucket = buckets[slot];
+        long seen = epochs.get(slot);
+        if (seen < epoch && epochs.compareAndSet(slot, seen, epoch)) {
+            for (int i = 0; i < bucket.length(); i++) {
+                bucket.set(i, 0);
+            }
+        }
+        return bucket;
+    }
+
+    private int index(long hash, int row) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        return (h1 + row * h2) & mask;
+    }
+
+    private long hash(String key) {
+        long h = seed;
+        for (int i = 0; i < key.length(); i++) {
+            h ^= key.charAt(i);
+            h *= FNV_PRIME;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        return h ^ (h >>> 33);
+    }
+}
@@ -1,5 +1,6 @@
 package hospital_registration.demo.service;
 
+import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.mail.javamail.JavaMailSender;
@@ -28,6 +29,20 @@ public class SmsService {
      * @throws Exception якщо виникає помилка при формуванні або надсиланні повідомлення
      */
     public void sendEmail(String toEmail, String subject, String body) throws Exception {
+        mailSender.send(createMessage(toEmail, subject, body));
+    }
+
+    /**
+     * Формує email-повідомлення, не надсилаючи його. Використовується для пакетного
+     * надсилання кількох листів через одне SMTP-з'єднання.
+     *
+     * @param toEmail  Адреса одержувача
+     * @param subject  Тема повідомлення
+     * @param body     Основний вміст повідомлення у вигляді HTML
+     * @return сформоване повідомлення
+     * @throws MessagingException якщо повідомлення не вдалося сформувати
+     */
+    public MimeMessage createMessage(String toEmail, String subject, String body) throws MessagingException {
         MimeMessage message = mailSender.createMimeMessage();
         MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
 
@@ -35,7 +50,6 @@ public class SmsService {
         helper.setTo(toEmail);
         helper.setSubject(subject);
         helper.setText("<h3>" + subject + "</h3><p>" + body + "</p>", true);
-
-        mailSender.send(message);
+        return message;
     }
 }
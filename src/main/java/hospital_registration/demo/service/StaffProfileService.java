@@ -0,0 +1,54 @@
+package hospital_registration.demo.service;
+
+import hospital_registration.demo.repo.PersonalRepo;
+import hospital_registration.demo.repo.StaffProfile;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+
+/**
+ * Сервіс доступу до профілів співробітників.
+ * <p>
+ * У сесії зберігається лише {@link hospital_registration.demo.Models.StaffPrincipal};
+ * коли сторінці потрібні контактні дані співробітника, профіль береться з обмеженого
+ * кешу {@code staffProfiles}. У кеші лежить незмінна проєкція {@link StaffProfile} без хешу
+ * пароля, а не сутність: сама сутність уже зберігається в кеші другого рівня Hibernate,
+ * і змінювати її слід лише через репозиторій. Записи кешу видаляються при кожному збереженні
+ * або видаленні співробітника.
+ * </p>
+ */
+@Service
+public class StaffProfileService {
+
+    /** Назва кешу профілів співробітників */
+    public static final String CACHE = "staffProfiles";
+
+    private final PersonalRepo personalRepo;
+
+    /**
+     * @param personalRepo репозиторій персоналу
+     */
+    public StaffProfileService(PersonalRepo personalRepo) {
+        this.personalRepo = personalRepo;
+    }
+
+    /**
+     * Повертає профіль співробітника за ID.
+     *
+     * @param id ідентифікатор співробітника
+     * @return профіль або null, якщо співробітника не знайдено
+     */
+    @Cacheable(value = CACHE, unless = "#result == null")
+    public StaffProfile getProfile(Long id) {
+        return personalRepo.findProfileById(id).orElse(null);
+    }
+
+    /**
+     * Видаляє профіль співробітника з кешу.
+     *
+     * @param id ідентифікатор співробітника
+     */
+    @CacheEvict(value = CACHE)
+    public void evict(Long id) {
+    }
+}
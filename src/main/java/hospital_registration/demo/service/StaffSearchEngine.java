@@ -0,0 +1,119 @@
+package hospital_registration.demo.service;
+
+import hospital_registration.demo.Models.PersonalModel;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Пошук у довіднику персоналу сторінками з keyset-курсором за {@code id}.
+ * <p>
+ * Як і {@link PatientSearchEngine}, запит збирається Criteria API лише з тих умов, що задані,
+ * замість окремого JPQL-методу репозиторію на кожне поле. Символи {@code %} та {@code _}
+ * у рядку пошуку екрануються, тож шукаються буквально. Порівняння регістронезалежне
+ * завдяки {@code _ci}-колації таблиці, тому стовпці не обгортаються в {@code LOWER()}.
+ * </p>
+ * <p>
+ * Логін, email і телефон шукаються за префіксом ({@code LIKE 'x%'}); при пошуку лише за одним
+ * із цих полів запит використовує унікальні індекси логіна та email або індекс телефону.
+ * ПІБ, посада та спеціалізація шукаються за входженням підрядка, а пошук по всіх полях
+ * об'єднує умови через {@code OR} — ці запити переглядають таблицю персоналу повністю,
+ * що прийнятно для її розміру.
+ * </p>
+ */
+@Service
+public class StaffSearchEngine {
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Сторінка співробітників, що відповідають запиту.
+     *
+     * @param searchType тип пошуку (name, login, position, specialty, email, phone, all)
+     * @param term       рядок пошуку (порожній або null — без фільтрації)
+     * @param excludeId  ID поточного користувача, який не показується у списку
+     * @param afterId    ID останнього запису попередньої сторінки (null — перша сторінка)
+     * @param limit      максимальна кількість рядків
+     * @return сторінка співробітників, упорядкована за ID
+     */
+    public List<PersonalModel> findStaff(String searchType, String term, Long excludeId, Long afterId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<PersonalModel> cq = cb.createQuery(PersonalModel.class);
+        Root<PersonalModel> root = cq.from(PersonalModel.class);
+        List<Predicate> where = filters(cb, root, searchType, term, excludeId);
+        if (afterId != null) {
+            where.add(cb.greaterThan(root.get("id"), afterId));
+        }
+        cq.select(root)
+                .where(where.toArray(Predicate[]::new))
+                .orderBy(cb.asc(root.get("id")));
+        return entityManager.createQuery(cq).setMaxResults(limit).getResultList();
+    }
+
+    /**
+     * Кількість співробітників, що відповідають запиту.
+     *
+     * @param searchType тип пошуку
+     * @param term       рядок пошуку (порожній або null — без фільтрації)
+     * @param excludeId  ID поточного користувача
+     * @return кількість співробітників
+     */
+    public long countStaff(String searchType, String term, Long excludeId) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> cq = cb.createQuery(Long.class);
+        Root<PersonalModel> root = cq.from(PersonalModel.class);
+        cq.select(cb.count(root)).where(filters(cb, root, searchType, term, excludeId).toArray(Predicate[]::new));
+        return entityManager.createQuery(cq).getSingleResult();
+    }
+
+    private static List<Predicate> filters(CriteriaBuilder cb, Root<PersonalModel> root,
+                                           String searchType, String term, Long excludeId) {
+        List<Predicate> where = new ArrayList<>();
+        if (excludeId != null) {
+            where.add(cb.notEqual(root.get("id"), excludeId));
+        }
+        String value = term == null ? "" : term.trim();
+        if (value.isEmpty()) {
+            return where;
+        }
+        String escaped = escapeLike(value);
+        switch (searchType == null ? "all" : searchType) {
+            case "name" -> where.add(contains(cb, root, "fullName", escaped));
+            case "login" -> where.add(startsWith(cb, root, "login", escaped));
+            case "position" -> where.add(contains(cb, root, "position", escaped));
+            case "specialty" -> where.add(contains(cb, root, "specialty", escaped));
+            case "email" -> where.add(startsWith(cb, root, "email", escaped));
+            case "phone" -> where.add(startsWith(cb, root, "phone", escaped));
+            default -> where.add(cb.or(
+                    contains(cb, root, "fullName", escaped),
+                    startsWith(cb, root, "login", escaped),
+                    contains(cb, root, "position", escaped),
+                    contains(cb, root, "specialty", escaped),
+                    startsWith(cb, root, "email", escaped),
+                    startsWith(cb, root, "phone", escaped)));
+        }
+        return where;
+    }
+
+    private static Predicate contains(CriteriaBuilder cb, Root<PersonalModel> root, String field, String escaped) {
+        return cb.like(root.get(field), "%" + escaped + "%", LIKE_ESCAPE);
+    }
+
+    private static Predicate startsWith(CriteriaBuilder cb, Root<PersonalModel> root, String field, String escaped) {
+        return cb.like(root.get(field), escaped + "%", LIKE_ESCAPE);
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
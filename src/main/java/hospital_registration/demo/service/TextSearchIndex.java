@@ -0,0 +1,261 @@
+package hospital_registration.demo.service;
+
+import hospital_registration.demo.repo.SearchFields;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Вбудований інвертований триграмний індекс для пошуку підрядка в полях пацієнта
+ * (ПІБ, телефон, діагноз).
+ * <p>
+ * Кожне нормалізоване значення поля розбивається на триграми; для запиту береться
+ * перетин списків документів усіх триграм запиту, після чого кандидати перевіряються
+ * на справжнє входження підрядка. Запити коротші за три символи обробляються
+ * повним проходом по документах у пам'яті. Телефон індексується і шукається лише
+ * за цифрами, тому формат запису ({@code +38 (067) ...}) не впливає на пошук.
+ * </p>
+ * Клас потокобезпечний: читання виконуються паралельно, запис — під ексклюзивним блокуванням.
+ */
+public class TextSearchIndex {
+
+    /** Поле документа, за яким виконується пошук. */
+    public enum Field { NAME, PHONE, DIAGNOSIS }
+
+    private static final int GRAM = 3;
+    private static final Field[] FIELDS = Field.values();
+
+    /**
+     * Документ індексу: нормалізовані значення полів та лікар, за яким закріплено запис.
+     */
+    private record Document(long id, Long doctorId, String[] values) {
+    }
+
+    private final Map<Long, Document> documents = new HashMap<>();
+
+    private final List<Map<String, Set<Long>>> postings = new ArrayList<>();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Створює порожній індекс.
+     */
+    public TextSearchIndex() {
+        for (int i = 0; i < FIELDS.length; i++) {
+            postings.add(new HashMap<>());
+        }
+    }
+
+    /**
+     * Додає або замінює документ в індексі.
+     *
+     * @param id        ідентифікатор запису
+     * @param doctorId  ідентифікатор лікаря (може бути null)
+     * @param fullName  ПІБ пацієнта
+     * @param phone     телефон
+     * @param diagnosis діагноз
+     */
+    public void put(long id, Long doctorId, String fullName, String phone, String diagnosis) {
+        Document document = document(id, doctorId, fullName, phone, diagnosis);
+        lock.writeLock().lock();
+        try {
+            putUnlocked(document);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Додає або замінює кілька документів під одним блокуванням запису.
+     *
+     * @param rows поля записів
+     */
+    public void putAll(Collection<? extends SearchFields> rows) {
+        List<Document> batch = new ArrayList<>(rows.size());
+        for (SearchFields row : rows) {
+            batch.add(document(row.getId(), row.getDoctorId(), row.getFullName(), row.getPhone(), row.getDiagnosis()));
+        }
+        lock.writeLock().lock();
+        try {
+            batch.forEach(this::putUnlocked);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Видаляє документ з індексу.
+     *
+     * @param id ідентифікатор запису
+     */
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Видаляє кілька документів під одним блокуванням запису.
+     *
+     * @param ids ідентифікатори записів
+     */
+    public void removeAll(Collection<Long> ids) {
+        lock.writeLock().lock();
+        try {
+            ids.forEach(this::removeUnlocked);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Повністю очищає індекс.
+     */
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            documents.clear();
+            postings.forEach(Map::clear);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return кількість документів в індексі
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Шукає документи, у яких вказане поле містить підрядок (регістронезалежно).
+     *
+     * @param field    поле для пошуку або {@code null} для пошуку по всіх полях
+     * @param term     підрядок для пошуку
+     * @param doctorId обмеження за лікарем або {@code null} для всіх лікарів
+     * @return відсортований за зростанням список ідентифікаторів знайдених документів
+     */
+    public List<Long> search(Field field, String term, Long doctorId) {
+        Field[] fields = field == null ? FIELDS : new Field[]{field};
+        Set<Long> result = new HashSet<>();
+
+        lock.readLock().lock();
+        try {
+            for (Field f : fields) {
+                String needle = f == Field.PHONE ? digits(term) : normalize(term);
+                if (needle.isEmpty() && f == Field.PHONE) {
+                    // Запит без цифр не шукається в телефоні, інакше збігся б з кожним документом
+                    continue;
+                }
+                for (Long id : candidates(f, needle)) {
+                    Document document = documents.get(id);
+                    if (document != null
+                            && (doctorId == null || doctorId.equals(document.doctorId()))
+                            && document.values()[f.ordinal()].contains(needle)) {
+                        result.add(id);
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Long> ids = new ArrayList<>(result);
+        Collections.sort(ids);
+        return ids;
+    }
+
+    /**
+     * Повертає кандидатів для перевірки: перетин списків триграм запиту
+     * або всі документи, якщо запит коротший за триграму.
+     */
+    private Set<Long> candidates(Field field, String needle) {
+        if (needle.length() < GRAM) {
+            return documents.keySet();
+        }
+        Map<String, Set<Long>> fieldPostings = postings.get(field.ordinal());
+        List<Set<Long>> lists = new ArrayList<>();
+        for (String gram : grams(needle)) {
+            Set<Long> ids = fieldPostings.get(gram);
+            if (ids == null) {
+                return Collections.emptySet();
+            }
+            lists.add(ids);
+        }
+        lists.sort((a, b) -> Integer.compare(a.size(), b.size()));
+
+        Set<Long> intersection = new HashSet<>(lists.get(0));
+        for (int i = 1; i < lists.size() && !intersection.isEmpty(); i++) {
+            intersection.retainAll(lists.get(i));
+        }
+        return intersection;
+    }
+
+    private void putUnlocked(Document document) {
+        removeUnlocked(document.id());
+        documents.put(document.id(), document);
+        for (Field field : FIELDS) {
+            Map<String, Set<Long>> fieldPostings = postings.get(field.ordinal());
+            for (String gram : grams(document.values()[field.ordinal()])) {
+                fieldPostings.computeIfAbsent(gram, g -> new HashSet<>()).add(document.id());
+            }
+        }
+    }
+
+    private static Document document(long id, Long doctorId, String fullName, String phone, String diagnosis) {
+        return new Document(id, doctorId, new String[]{normalize(fullName), digits(phone), normalize(diagnosis)});
+    }
+
+    private void removeUnlocked(long id) {
+        Document existing = documents.remove(id);
+        if (existing == null) {
+            return;
+        }
+        for (Field field : FIELDS) {
+            Map<String, Set<Long>> fieldPostings = postings.get(field.ordinal());
+            for (String gram : grams(existing.values()[field.ordinal()])) {
+                Set<Long> ids = fieldPostings.get(gram);
+                if (ids != null) {
+                    ids.remove(id);
+                    if (ids.isEmpty()) {
+                        fieldPostings.remove(gram);
+                    }
+                }
+            }
+        }
+    }
+
+    private static Set<String> grams(String value) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= value.length(); i++) {
+            grams.add(value.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    private static String digits(String value) {
+        return value == null ? "" : value.replaceAll("\\D", "");
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+}
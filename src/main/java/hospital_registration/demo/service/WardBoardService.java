@@ -0,0 +1,288 @@
+package hospital_registration.demo.service;
+
+import hospital_registration.demo.Models.PatientModel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Жива дошка відділення: розсилає зміни пацієнтів відкритим сторінкам {@code /AllReview}
+ * через Server-Sent Events.
+ * <p>
+ * Події {@link PatientChangedEvent}, {@link PatientsArchivedEvent} та {@link PatientsImportedEvent}
+ * перетворюються на інкрементальні події {@code admitted}, {@code updated}, {@code discharge-date},
+ * {@code discharged} та {@code imported} після фіксації транзакції, тому сторінка оновлює лише змінені рядки
+ * замість повного перезавантаження.
+ * </p>
+ * <p>
+ * Кожна подія отримує зростаючий номер; останні {@code ward-board.replay-size} подій
+ * зберігаються, щоб клієнт після перепідключення (заголовок {@code Last-Event-ID}) отримав
+ * пропущене. Якщо пропущені події вже витіснено з буфера, клієнт отримує подію
+ * {@code reset} і перезавантажує сторінку. Розсилка виконується на однопотоковому
+ * виконавці {@code wardBoardExecutor}, що зберігає порядок подій.
+ * </p>
+ */
+@Service
+public class WardBoardService {
+
+    private static final Logger log = LoggerFactory.getLogger(WardBoardService.class);
+
+    public static final String ADMITTED = "admitted";
+    public static final String UPDATED = "updated";
+    public static final String DISCHARGE_DATE = "discharge-date";
+    public static final String DISCHARGED = "discharged";
+    public static final String IMPORTED = "imported";
+    public static final String RESET = "reset";
+
+    /**
+     * Рядок дошки: ті самі поля, що й у таблиці сторінки {@code /AllReview}.
+     */
+    public record PatientRow(Long id, String fullName, LocalDate birthDate, Integer ward, Integer bed,
+                             String phone, String diagnosis, String notes, String department,
+                             LocalDateTime appointmentDateFrom, LocalDateTime appointmentDateTo,
+                             String doctorFullName) {
+
+        static PatientRow of(PatientModel patient) {
+            return new PatientRow(patient.getId(), patient.getFullName(), patient.getBirthDate(),
+                    patient.getWard(), patient.getBed(), patient.getPhone(), patient.getDiagnosis(),
+                    patient.getNotes(), patient.getDepartment(), patient.getAppointmentDateFrom(),
+                    patient.getAppointmentDateTo(),
+                    patient.getDoctor() != null ? patient.getDoctor().getFullName() : null);
+        }
+    }
+
+    /** Дані події {@code imported}: рядки пацієнтів, доданих масовим імпортом. */
+    public record ImportedRows(List<PatientRow> rows) {
+    }
+
+    /** Дані події {@code discharged}: ID пацієнтів, прибраних з активного списку. */
+    public record DischargedRows(List<Long> ids) {
+    }
+
+    /** Подія дошки з порядковим номером. */
+    private record BoardEvent(long id, String name, Object data) {
+    }
+
+    private final TaskExecutor executor;
+    private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+
+    /** Останні події для повторної відправки; доступ під блокуванням {@code this}. */
+    private final Deque<BoardEvent> recent = new ArrayDeque<>();
+    private long sequence;
+
+    /** Кількість останніх подій, доступних для повторної відправки */
+    @Value("${ward-board.replay-size:256}")
+    private int replaySize;
+
+    /** Найбільша кількість рядків імпорту в одній події; більший імпорт перезавантажує сторінки */
+    @Value("${ward-board.import-rows-limit:200}")
+    private int importRowsLimit;
+
+    /** Час життя одного SSE-з'єднання; після нього браузер перепідключається сам */
+    @Value("${ward-board.emitter-timeout:PT30M}")
+    private Duration emitterTimeout;
+
+    /**
+     * @param executor однопотоковий виконавець розсилки
+     */
+    public WardBoardService(@Qualifier("wardBoardExecutor") TaskExecutor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * @return номер останньої події; сторінка передає його при підключенні,
+     * щоб отримати зміни, що сталися після її побудови
+     */
+    public synchronized long currentVersion() {
+        return sequence;
+    }
+
+    /**
+     * Відкриває SSE-з'єднання для сторінки дошки.
+     *
+     * @param lastEventId номер останньої отриманої клієнтом події або null
+     * @return emitter, зареєстрований для отримання нових подій
+     */
+    public SseEmitter subscribe(Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(emitterTimeout.toMillis());
+        emitter.onCompletion(() -> emitters.remove(emitter));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> emitters.remove(emitter));
+
+        List<BoardEvent> missed;
+        synchronized (this) {
+            missed = missedSince(lastEventId);
+            // Реєстрація виконується в черзі розсилки після повтору, тому події,
+            // поставлені в чергу раніше, не дублюються, а пізніші не губляться
+            boolean queued = submit(() -> {
+                if (missed == null) {
+                    send(emitter, new BoardEvent(sequence(), RESET, ""));
+                    emitter.complete();
+                    return;
+                }
+                for (BoardEvent event : missed) {
+                    if (!send(emitter, event)) {
+                        return;
+                    }
+                }
+                emitters.add(emitter);
+            });
+            if (!queued) {
+                emitter.complete();
+            }
+        }
+        return emitter;
+    }
+
+    /**
+     * Розсилає зміну пацієнта після фіксації транзакції.
+     *
+     * @param event подія зміни пацієнта
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPatientChanged(PatientChangedEvent event) {
+        PatientModel patient = event.getPatient();
+        switch (event.getType()) {
+            case ADMITTED -> publish(ADMITTED, PatientRow.of(patient));
+            case UPDATED -> publish(UPDATED, PatientRow.of(patient));
+            case DISCHARGE_DATE_CHANGED -> publish(DISCHARGE_DATE, PatientRow.of(patient));
+            case DISCHARGED -> publish(DISCHARGED, new DischargedRows(List.of(patient.getId())));
+        }
+    }
+
+    /**
+     * Розсилає масову виписку однією подією.
+     *
+     * @param event подія масової виписки
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPatientsArchived(PatientsArchivedEvent event) {
+        if (!event.getPatientIds().isEmpty()) {
+            publish(DISCHARGED, new DischargedRows(List.copyOf(event.getPatientIds())));
+        }
+    }
+
+    /**
+     * Розсилає масовий імпорт однією подією. Якщо рядків більше за
+     * {@code ward-board.import-rows-limit}, сторінки отримують {@code reset}
+     * і перезавантажуються замість вставки кожного рядка.
+     *
+     * @param event подія масового імпорту
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPatientsImported(PatientsImportedEvent event) {
+        List<PatientModel> patients = event.getPatients();
+        if (patients.isEmpty()) {
+            return;
+        }
+        if (patients.size() > importRowsLimit) {
+            publish(RESET, "");
+        } else {
+            publish(IMPORTED, new ImportedRows(patients.stream().map(PatientRow::of).toList()));
+        }
+    }
+
+    /**
+     * Періодично надсилає коментар-пульс, щоб проксі не закривали тихі з'єднання,
+     * а закриті браузером з'єднання виявлялися і видалялися.
+     */
+    @Scheduled(fixedDelayString = "${ward-board.heartbeat:PT25S}")
+    public void heartbeat() {
+        if (emitters.isEmpty()) {
+            return;
+        }
+        submit(() -> {
+            for (SseEmitter emitter : emitters) {
+                try {
+                    emitter.send(SseEmitter.event().comment("ping"));
+                } catch (IOException | IllegalStateException e) {
+                    emitters.remove(emitter);
+                }
+            }
+        });
+    }
+
+    private synchronized void publish(String name, Object data) {
+        BoardEvent event = new BoardEvent(++sequence, name, data);
+        recent.addLast(event);
+        while (recent.size() > replaySize) {
+            recent.removeFirst();
+        }
+        submit(() -> {
+            for (SseEmitter emitter : emitters) {
+                send(emitter, event);
+            }
+        });
+    }
+
+    /**
+     * Повертає події після вказаного номера або null, якщо частину з них уже витіснено з буфера.
+     */
+    private List<BoardEvent> missedSince(Long lastEventId) {
+        if (lastEventId == null || lastEventId >= sequence) {
+            return List.of();
+        }
+        long oldest = recent.isEmpty() ? sequence + 1 : recent.peekFirst().id();
+        if (lastEventId + 1 < oldest) {
+            return null;
+        }
+        List<BoardEvent> missed = new ArrayList<>();
+        for (BoardEvent event : recent) {
+            if (event.id() > lastEventId) {
+                missed.add(event);
+            }
+        }
+        return missed;
+    }
+
+    private synchronized long sequence() {
+        return sequence;
+    }
+
+    private boolean submit(Runnable task) {
+        try {
+            executor.execute(task);
+            return true;
+        } catch (TaskRejectedException e) {
+            // Черга переповнена: закриваємо з'єднання, клієнти перепідключаться з Last-Event-ID
+            log.warn("Черга розсилки дошки відділення переповнена, {} з'єднань буде перепідключено", emitters.size());
+            emitters.forEach(SseEmitter::complete);
+            emitters.clear();
+            return false;
+        }
+    }
+
+    /**
+     * @return true, якщо подію надіслано; інакше з'єднання видаляється
+     */
+    private boolean send(SseEmitter emitter, BoardEvent event) {
+        try {
+            emitter.send(SseEmitter.event()
+                    .id(Long.toString(event.id()))
+                    .name(event.name())
+                    .data(event.data()));
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            emitters.remove(emitter);
+            emitter.completeWithError(e);
+            return false;
+        }
+    }
+}
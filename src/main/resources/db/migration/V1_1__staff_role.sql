@@ -0,0 +1,14 @@
+-- Роль співробітника, обчислена з посади (StaffRole.fromPosition): точна назва посади
+-- без урахування регістру, інакше посада з «сестр» — медсестра, з «лікар» — лікар.
+-- Посади, які не вдалося розпізнати, залишаються без ролі.
+ALTER TABLE personal_model ADD COLUMN role ENUM ('MAIN_DOCTOR', 'DOCTOR', 'NURSE');
+
+UPDATE personal_model
+SET role = CASE
+    WHEN LOWER(TRIM(position)) = 'головний лікар' THEN 'MAIN_DOCTOR'
+    WHEN LOWER(TRIM(position)) = 'лікар' THEN 'DOCTOR'
+    WHEN LOWER(TRIM(position)) = 'медсестра/медбрат' THEN 'NURSE'
+    WHEN LOWER(position) LIKE '%сестр%' THEN 'NURSE'
+    WHEN LOWER(position) LIKE '%лікар%' THEN 'DOCTOR'
+END
+WHERE role IS NULL;
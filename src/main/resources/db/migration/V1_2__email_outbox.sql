@@ -0,0 +1,16 @@
+-- Черга вихідних email-повідомлень (outbox) для розсилки оголошень.
+CREATE TABLE email_outbox (
+    id              BIGINT       NOT NULL AUTO_INCREMENT,
+    recipient       VARCHAR(255) NOT NULL,
+    subject         VARCHAR(255) NOT NULL,
+    body            TEXT,
+    status          ENUM ('PENDING', 'SENT', 'FAILED') NOT NULL,
+    attempts        INT          NOT NULL,
+    next_attempt_at DATETIME(6)  NOT NULL,
+    last_error      VARCHAR(500),
+    created_at      DATETIME(6)  NOT NULL,
+    sent_at         DATETIME(6),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE INDEX idx_email_outbox_due ON email_outbox (status, next_attempt_at);
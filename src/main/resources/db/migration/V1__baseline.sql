@@ -0,0 +1,65 @@
+-- Базова схема, яку створював spring.jpa.hibernate.ddl-auto=update з початкових сутностей.
+-- На наявних базах ця міграція не виконується: Flyway ставить на них baseline версії 1,
+-- тому тут лише те, що вже є на таких базах. Усі подальші зміни — в наступних версіях.
+
+CREATE TABLE personal_model (
+    id          BIGINT       NOT NULL,
+    full_name   VARCHAR(255) NOT NULL,
+    login       VARCHAR(255) NOT NULL,
+    phone       VARCHAR(255) NOT NULL,
+    position    VARCHAR(255) NOT NULL,
+    specialty   VARCHAR(255) NOT NULL,
+    access_key  VARCHAR(255) NOT NULL,
+    email       VARCHAR(255) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_personal_model_login UNIQUE (login),
+    CONSTRAINT uk_personal_model_email UNIQUE (email)
+) ENGINE = InnoDB;
+
+CREATE TABLE personal_model_seq (
+    next_val BIGINT
+) ENGINE = InnoDB;
+
+INSERT INTO personal_model_seq VALUES (1);
+
+CREATE TABLE patients (
+    id                    BIGINT       NOT NULL AUTO_INCREMENT,
+    full_name             VARCHAR(255) NOT NULL,
+    phone                 VARCHAR(255) NOT NULL,
+    diagnosis             VARCHAR(100) NOT NULL,
+    birth_date            DATE         NOT NULL,
+    ward                  INT          NOT NULL,
+    doctor_id             BIGINT       NOT NULL,
+    notes                 VARCHAR(100),
+    appointment_date_from DATETIME(6)  NOT NULL,
+    appointment_date_to   DATETIME(6)  NOT NULL,
+    department            VARCHAR(255) NOT NULL,
+    bed                   INT          NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_patients_doctor FOREIGN KEY (doctor_id) REFERENCES personal_model (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE history_patients (
+    id                    BIGINT       NOT NULL AUTO_INCREMENT,
+    full_name             VARCHAR(255) NOT NULL,
+    phone                 VARCHAR(255) NOT NULL,
+    diagnosis             VARCHAR(255) NOT NULL,
+    birth_date            DATE         NOT NULL,
+    ward                  INT          NOT NULL,
+    doctor_id             BIGINT       NOT NULL,
+    notes                 VARCHAR(500),
+    appointment_date_from DATETIME(6)  NOT NULL,
+    appointment_date_to   DATETIME(6)  NOT NULL,
+    department            VARCHAR(255) NOT NULL,
+    bed                   INT          NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_history_patients_doctor FOREIGN KEY (doctor_id) REFERENCES personal_model (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE announcement (
+    id         BIGINT       NOT NULL AUTO_INCREMENT,
+    title      VARCHAR(255) NOT NULL,
+    content    TEXT         NOT NULL,
+    created_at DATETIME(6),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
@@ -0,0 +1,21 @@
+-- Складені індекси під форми запитів PatientRepo, HistoryPatientRepo та PersonalRepo.
+
+-- Сторінки пацієнтів лікаря: WHERE doctor_id = ? ORDER BY appointment_date_from, id (keyset-курсор).
+CREATE INDEX idx_patients_doctor_from ON patients (doctor_id, appointment_date_from, id);
+-- Пошук лікаря за датою виписки.
+CREATE INDEX idx_patients_doctor_to ON patients (doctor_id, appointment_date_to);
+-- Загальні сторінки і пошук за датою запису: ORDER BY appointment_date_from, id.
+CREATE INDEX idx_patients_from ON patients (appointment_date_from, id);
+-- Пошук за датою виписки та масова виписка (appointment_date_to < ?).
+CREATE INDEX idx_patients_to ON patients (appointment_date_to);
+-- Зайнятість ліжка: WHERE ward = ? AND bed = ? AND appointment_date_to > ?.
+CREATE INDEX idx_patients_bed ON patients (ward, bed, appointment_date_to);
+
+CREATE INDEX idx_history_patients_doctor_from ON history_patients (doctor_id, appointment_date_from);
+CREATE INDEX idx_history_patients_from ON history_patients (appointment_date_from);
+CREATE INDEX idx_history_patients_to ON history_patients (appointment_date_to);
+CREATE INDEX idx_history_patients_bed ON history_patients (ward, bed, appointment_date_to);
+
+-- login та email уже мають унікальні індекси; телефон і роль шукаються при вході, редагуванні та у списках лікарів.
+CREATE INDEX idx_personal_model_phone ON personal_model (phone);
+CREATE INDEX idx_personal_model_role ON personal_model (role);
@@ -0,0 +1,2 @@
+-- Стрічка оголошень: ORDER BY created_at DESC, id DESC (keyset-курсор).
+CREATE INDEX idx_announcement_created ON announcement (created_at, id);
@@ -0,0 +1,8 @@
+-- Позначки прочитання оголошень: найбільший ID оголошення, яке бачив співробітник.
+CREATE TABLE announcement_read_mark (
+    staff_id     BIGINT      NOT NULL,
+    last_read_id BIGINT      NOT NULL,
+    updated_at   DATETIME(6) NOT NULL,
+    PRIMARY KEY (staff_id),
+    CONSTRAINT fk_announcement_read_mark_staff FOREIGN KEY (staff_id) REFERENCES personal_model (id) ON DELETE CASCADE
+) ENGINE = InnoDB;
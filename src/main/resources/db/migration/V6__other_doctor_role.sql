@@ -0,0 +1,7 @@
+-- Посади, що лише містять «лікар» (наприклад, «Лікар-хірург»), отримують окрему роль
+-- OTHER_DOCTOR: до появи ролей вони мали доступ лікаря, але не обмежувалися своїми пацієнтами.
+ALTER TABLE personal_model MODIFY COLUMN role ENUM ('MAIN_DOCTOR', 'DOCTOR', 'OTHER_DOCTOR', 'NURSE');
+
+UPDATE personal_model
+SET role = 'OTHER_DOCTOR'
+WHERE role = 'DOCTOR' AND LOWER(TRIM(position)) <> 'лікар';
@@ -0,0 +1,113 @@
+package hospital_registration.demo.benchmark;
+
+import hospital_registration.demo.Models.PersonalModel;
+import hospital_registration.demo.Models.StaffPrincipal;
+import hospital_registration.demo.service.AuthorizationService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH-бенчмарк вартості перевірок доступу за один запит.
+ * <p>
+ * {@code legacyStringChecks} відтворює попередню реалізацію {@link AuthorizationService}, яка для кожної
+ * перевірки виконувала {@code trim()}, {@code equalsIgnoreCase} та {@code toLowerCase().contains(...)}
+ * над кириличним рядком посади. {@code enumChecks} — поточна реалізація, що порівнює збережену роль.
+ * Набір перевірок відповідає типовому запиту до контролера: isMainDoctor, isDoctor, hasDoctorAccess,
+ * isNurse та getUserRole.
+ * </p>
+ * Запуск: метод {@link #main} з тестовим classpath (після {@code mvn test-compile}).
+ * Профайлер {@code gc} показує алокації на операцію для обох варіантів.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AuthorizationBenchmark {
+
+    @Param({"Головний лікар", "Лікар", "Медсестра/Медбрат"})
+    public String position;
+
+    private final AuthorizationService authService = new AuthorizationService();
+
+    private PersonalModel entity;
+    private StaffPrincipal principal;
+
+    @Setup
+    public void setUp() {
+        entity = new PersonalModel("Тестовий Співробітник", "bench", "0960000000", position,
+                "Терапевт", "hash", "bench@example.com");
+        entity.setId(1L);
+        principal = StaffPrincipal.of(entity);
+    }
+
+    @Benchmark
+    public void legacyStringChecks(Blackhole bh) {
+        bh.consume(legacyIsMainDoctor(entity));
+        bh.consume(legacyIsDoctor(entity));
+        bh.consume(legacyIsAnyDoctor(entity));
+        bh.consume(legacyIsNurse(entity));
+        bh.consume(legacyGetUserRole(entity));
+    }
+
+    @Benchmark
+    public void enumChecks(Blackhole bh) {
+        bh.consume(authService.isMainDoctor(principal));
+        bh.consume(authService.isDoctor(principal));
+        bh.consume(authService.hasDoctorAccess(principal));
+        bh.consume(authService.isNurse(principal));
+        bh.consume(authService.getUserRole(principal));
+    }
+
+    // Попередня реалізація AuthorizationService (до збереження ролі в PersonalModel)
+
+    private static boolean legacyIsMainDoctor(PersonalModel user) {
+        return user != null && user.getPosition() != null &&
+                AuthorizationService.ROLE_MAIN_DOCTOR.equalsIgnoreCase(user.getPosition().trim());
+    }
+
+    private static boolean legacyIsDoctor(PersonalModel user) {
+        return user != null && user.getPosition() != null &&
+                AuthorizationService.ROLE_DOCTOR.equalsIgnoreCase(user.getPosition().trim());
+    }
+
+    private static boolean legacyIsAnyDoctor(PersonalModel user) {
+        return legacyIsDoctor(user) || legacyIsMainDoctor(user) ||
+                (user != null && user.getPosition() != null &&
+                        user.getPosition().toLowerCase().contains("лікар"));
+    }
+
+    private static boolean legacyIsNurse(PersonalModel user) {
+        return user != null && user.getPosition() != null &&
+                (AuthorizationService.ROLE_NURSE.equalsIgnoreCase(user.getPosition().trim()) ||
+                        user.getPosition().toLowerCase().contains("сестр"));
+    }
+
+    private static String legacyGetUserRole(PersonalModel user) {
+        if (user == null || user.getPosition() == null) {
+            return "Невідома роль";
+        }
+        if (legacyIsMainDoctor(user)) {
+            return "Головний лікар";
+        } else if (legacyIsDoctor(user)) {
+            return "Лікар";
+        } else if (legacyIsNurse(user)) {
+            return "Медсестра/Медбрат";
+        } else {
+            return user.getPosition();
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(AuthorizationBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build()).run();
+    }
+}
@@ -0,0 +1,54 @@
+package hospital_registration.demo.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH-бенчмарк пропускної здатності перевірки пароля BCrypt для різних значень вартості.
+ * <p>
+ * Один потік вимірювання, тож результат читається як кількість входів за секунду на одне ядро.
+ * Помноживши його на розмір пулу {@code passwordVerifierExecutor}, отримуємо стелю входів
+ * за секунду для сервера; за цим числом обирається {@code password.bcrypt.cost} або
+ * бюджет {@code password.hash-budget}.
+ * </p>
+ * Запуск: метод {@link #main} з тестовим classpath (після {@code mvn test-compile}).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Threads(1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PasswordHashBenchmark {
+
+    private static final String PASSWORD = "Pa55-word-for-bench";
+
+    @Param({"10", "11", "12"})
+    public int cost;
+
+    private BCryptPasswordEncoder encoder;
+    private String hash;
+
+    @Setup
+    public void setUp() {
+        encoder = new BCryptPasswordEncoder(cost);
+        hash = encoder.encode(PASSWORD);
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return encoder.matches(PASSWORD, hash);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PasswordHashBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
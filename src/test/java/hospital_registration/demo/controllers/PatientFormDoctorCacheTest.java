@@ -0,0 +1,122 @@
+package hospital_registration.demo.controllers;
+
+import hospital_registration.demo.Models.StaffPrincipal;
+import hospital_registration.demo.Models.StaffRole;
+import hospital_registration.demo.repo.AssignableDoctor;
+import hospital_registration.demo.repo.PatientRepo;
+import hospital_registration.demo.repo.PersonalRepo;
+import hospital_registration.demo.service.AssignableDoctorService;
+import hospital_registration.demo.service.AuthorizationService;
+import hospital_registration.demo.service.BedOccupancyIndex;
+import hospital_registration.demo.service.PatientImportService;
+import hospital_registration.demo.service.PatientValidationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.model;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.view;
+
+/**
+ * Перевіряє, що повторний показ форми додавання пацієнта бере список лікарів
+ * з кешу і не звертається до таблиці персоналу, а зміна персоналу скидає кеш.
+ */
+@SpringJUnitConfig(classes = {
+        PatientFormDoctorCacheTest.CacheTestConfig.class,
+        AddPatientController.class,
+        AuthorizationService.class,
+        AssignableDoctorService.class
+})
+class PatientFormDoctorCacheTest {
+
+    @Configuration
+    @EnableCaching
+    static class CacheTestConfig {
+
+        @Bean
+        CacheManager cacheManager() {
+            return new ConcurrentMapCacheManager(AssignableDoctorService.CACHE);
+        }
+    }
+
+    @MockitoBean
+    private PersonalRepo personalRepo;
+
+    @MockitoBean
+    private PatientRepo patientRepo;
+
+    @MockitoBean
+    private PatientValidationService patientValidationService;
+
+    @MockitoBean
+    private BedOccupancyIndex bedOccupancyIndex;
+
+    @MockitoBean
+    private PatientImportService patientImportService;
+
+    @Autowired
+    private AddPatientController controller;
+
+    @Autowired
+    private AssignableDoctorService assignableDoctorService;
+
+    private MockMvc mockMvc;
+
+    private final StaffPrincipal nurse = new StaffPrincipal(1L, StaffRole.NURSE, "Медсестра", "Медсестра/Медбрат");
+
+    @BeforeEach
+    void setUp() {
+        assignableDoctorService.evict();
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+        when(personalRepo.findAssignableDoctors()).thenReturn(List.of(
+                new AssignableDoctor(2L, "Лікар Перший", "Терапевт"),
+                new AssignableDoctor(3L, "Лікар Другий", "Хірург")));
+    }
+
+    @Test
+    void warmFormRenderDoesNotQueryStaff() throws Exception {
+        renderForm();
+        verify(personalRepo).findAssignableDoctors();
+        clearInvocations(personalRepo);
+
+        renderForm();
+        renderForm();
+
+        verifyNoInteractions(personalRepo);
+    }
+
+    @Test
+    void evictReloadsDoctorsOnNextRender() throws Exception {
+        renderForm();
+        assignableDoctorService.evict();
+        renderForm();
+
+        verify(personalRepo, times(2)).findAssignableDoctors();
+    }
+
+    private void renderForm() throws Exception {
+        mockMvc.perform(get("/patients/add").sessionAttr("loggedInUser", nurse))
+                .andExpect(status().isOk())
+                .andExpect(view().name("patient-record"))
+                .andExpect(model().attribute("doctors", hasSize(2)));
+    }
+}
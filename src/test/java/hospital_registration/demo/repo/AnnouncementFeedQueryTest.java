@@ -0,0 +1,68 @@
+package hospital_registration.demo.repo;
+
+import hospital_registration.demo.Models.Announcement;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Перевіряє сторінки стрічки оголошень: порядок, keyset-курсор та обрізання тексту до уривку.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.flyway.enabled=false"
+})
+class AnnouncementFeedQueryTest {
+
+    private static final int ANNOUNCEMENTS = 5;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private AnnouncementRepository announcementRepository;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < ANNOUNCEMENTS; i++) {
+            Announcement announcement = new Announcement();
+            announcement.setTitle("Оголошення " + i);
+            announcement.setContent(i == ANNOUNCEMENTS - 1 ? "а".repeat(1000) : "Короткий текст " + i);
+            entityManager.persist(announcement);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void pagesFollowCursorNewestFirst() {
+        List<AnnouncementSummary> first = announcementRepository.findFeedPage(null, null, PageRequest.ofSize(3));
+        AnnouncementSummary last = first.get(first.size() - 1);
+        List<AnnouncementSummary> second = announcementRepository.findFeedPage(last.getCreatedAt(), last.getId(),
+                PageRequest.ofSize(3));
+
+        assertEquals(List.of("Оголошення 4", "Оголошення 3", "Оголошення 2"),
+                first.stream().map(AnnouncementSummary::getTitle).toList());
+        assertEquals(List.of("Оголошення 1", "Оголошення 0"),
+                second.stream().map(AnnouncementSummary::getTitle).toList());
+    }
+
+    @Test
+    void longContentIsCutToExcerpt() {
+        List<AnnouncementSummary> page = announcementRepository.findFeedPage(null, null, PageRequest.ofSize(2));
+
+        assertTrue(page.get(0).isTruncated());
+        assertEquals(AnnouncementSummary.EXCERPT_LENGTH, page.get(0).getExcerpt().length());
+        assertFalse(page.get(1).isTruncated());
+        assertEquals("Короткий текст 3", page.get(1).getExcerpt());
+    }
+}
@@ -0,0 +1,107 @@
+package hospital_registration.demo.repo;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Виконує міграції Flyway на H2 у режимі сумісності з MySQL.
+ * <p>
+ * Перший тест мігрує порожню базу і читає кожну сутність через її репозиторій: запит
+ * {@code findAll} вибирає всі змаплені стовпці, тож відсутній стовпець або таблиця
+ * дають помилку SQL. Другий відтворює розгортання на наявну базу, створену
+ * {@code ddl-auto=update}: схема з V1 без історії Flyway, baseline версії 1
+ * і застосування решти міграцій, включно із заповненням ролей.
+ * </p>
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=none",
+        "spring.datasource.url=jdbc:h2:mem:flyway_fresh;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password="
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class FlywayMigrationTest {
+
+    private static final String LEGACY_URL =
+            "jdbc:h2:mem:flyway_legacy;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private Flyway flyway;
+
+    @Autowired
+    private PersonalRepo personalRepo;
+
+    @Autowired
+    private PatientRepo patientRepo;
+
+    @Autowired
+    private HistoryPatientRepo historyPatientRepo;
+
+    @Autowired
+    private AnnouncementRepository announcementRepository;
+
+    @Autowired
+    private AnnouncementReadMarkRepo readMarkRepo;
+
+    @Autowired
+    private EmailOutboxRepo emailOutboxRepo;
+
+    @Test
+    void emptyDatabaseIsMigratedToTheMappedSchema() {
+        assertEquals(0, flyway.info().pending().length);
+
+        assertTrue(personalRepo.findAll().isEmpty());
+        assertTrue(patientRepo.findAll().isEmpty());
+        assertTrue(historyPatientRepo.findAll().isEmpty());
+        assertTrue(announcementRepository.findAll().isEmpty());
+        assertTrue(readMarkRepo.findAll().isEmpty());
+        assertTrue(emailOutboxRepo.findAll().isEmpty());
+    }
+
+    @Test
+    void legacyDatabaseIsBaselinedAndBackfilled() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(LEGACY_URL, "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+
+        // Схема, яку залишив ddl-auto=update: таблиці з V1 без історії міграцій
+        Flyway.configure().dataSource(dataSource).target("1").load().migrate();
+        jdbc.execute("DROP TABLE flyway_schema_history");
+        insertStaff(jdbc, 1, "Головний лікар");
+        insertStaff(jdbc, 2, " лікар ");
+        insertStaff(jdbc, 3, "Медсестра/Медбрат");
+        insertStaff(jdbc, 4, "Старша медсестра");
+        insertStaff(jdbc, 5, "Лікар-хірург");
+        insertStaff(jdbc, 6, "Адміністратор");
+
+        Flyway.configure().dataSource(dataSource).baselineOnMigrate(true).baselineVersion("1").load().migrate();
+
+        List<String> roles = jdbc.queryForList("SELECT role FROM personal_model ORDER BY id", String.class);
+        assertEquals(List.of("MAIN_DOCTOR", "DOCTOR", "NURSE", "NURSE", "OTHER_DOCTOR"), roles.subList(0, 5));
+        assertNull(roles.get(5));
+        assertTrue(jdbc.queryForList("SELECT access_key FROM personal_model", String.class).stream()
+                .allMatch(key -> new BCryptPasswordEncoder().matches("secret", key)));
+        assertEquals(0, jdbc.queryForObject("SELECT COUNT(*) FROM email_outbox", Integer.class));
+        assertEquals(0, jdbc.queryForObject("SELECT COUNT(*) FROM announcement_read_mark", Integer.class));
+    }
+
+    private static void insertStaff(JdbcTemplate jdbc, long id, String position) {
+        jdbc.update("INSERT INTO personal_model (id, full_name, login, phone, position, specialty, access_key, email) " +
+                        "VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+                id, "Співробітник " + id, "staff" + id, "050000000" + id, position, "Терапевт", "secret",
+                "staff" + id + "@example.com");
+    }
+}
@@ -0,0 +1,180 @@
+package hospital_registration.demo.repo;
+
+import hospital_registration.demo.Models.HistoryPatientsModel;
+import hospital_registration.demo.Models.PatientModel;
+import hospital_registration.demo.Models.PersonalModel;
+import hospital_registration.demo.service.PatientQuery;
+import hospital_registration.demo.service.PatientSearchEngine;
+import hospital_registration.demo.service.PatientSearchIndex;
+import hospital_registration.demo.service.SearchResultCache;
+import hospital_registration.demo.service.TextSearchIndex;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Перевіряє, що сторінки переліку пацієнтів і історії, зібрані {@link PatientSearchEngine},
+ * завантажуються одним SQL-запитом незалежно від кількості різних лікарів на сторінці
+ * та кількості поєднаних фільтрів.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.flyway.enabled=false"
+})
+@Import({PatientSearchEngine.class, PatientSearchIndex.class, SearchResultCache.class,
+        PatientListQueryTest.Metrics.class})
+class PatientListQueryTest {
+
+    private static final int DOCTORS = 4;
+    private static final int PATIENTS_PER_DOCTOR = 5;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PatientSearchEngine searchEngine;
+
+    @Autowired
+    private PatientSearchIndex searchIndex;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        LocalDateTime from = LocalDateTime.of(2025, 1, 10, 9, 0);
+        for (int d = 0; d < DOCTORS; d++) {
+            PersonalModel doctor = entityManager.persist(new PersonalModel("Лікар " + d, "doctor" + d,
+                    "050000000" + d, "Лікар", "Терапевт", "secret", "doctor" + d + "@example.com"));
+            for (int i = 0; i < PATIENTS_PER_DOCTOR; i++) {
+                LocalDateTime start = from.plusDays(d * PATIENTS_PER_DOCTOR + i);
+                entityManager.persist(new PatientModel("Пацієнт " + d + i, "0670000000", "Грип",
+                        LocalDate.of(1990, 1, 1), d, doctor, null, "Терапія", start, start.plusDays(3), i));
+                entityManager.persist(new HistoryPatientsModel("Виписаний " + d + i, "0670000000", "Грип",
+                        LocalDate.of(1990, 1, 1), d, doctor, null, "Терапія", start, start.plusDays(3), i));
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        searchIndex.rebuild();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void patientPageIsLoadedWithSingleStatement() {
+        List<PatientListItem> page = searchEngine.findPatients(PatientQuery.builder().build(), null, null, 51);
+
+        assertEquals(DOCTORS * PATIENTS_PER_DOCTOR, page.size());
+        page.forEach(item -> assertNotNull(item.getDoctorFullName()));
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void combinedFiltersAreLoadedWithSingleStatement() {
+        PatientQuery query = PatientQuery.builder()
+                .text(TextSearchIndex.Field.NAME, "пацієнт 1")
+                .text(TextSearchIndex.Field.DIAGNOSIS, "грип")
+                .department("Тера")
+                .recordedBetween(LocalDate.of(2025, 1, 15), LocalDate.of(2025, 1, 19))
+                .build();
+
+        List<PatientListItem> page = searchEngine.findPatients(query, null, null, 51);
+
+        assertEquals(PATIENTS_PER_DOCTOR, page.size());
+        page.forEach(item -> assertEquals("Лікар 1", item.getDoctorFullName()));
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void historyPageIsLoadedWithSingleStatement() {
+        List<PatientListItem> history = searchEngine.findHistory(PatientQuery.builder().build(), null, 51);
+
+        assertEquals(DOCTORS * PATIENTS_PER_DOCTOR, history.size());
+        history.forEach(item -> assertNotNull(item.getDoctorFullName()));
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void halfCursorOpensFirstPage() {
+        PatientQuery query = PatientQuery.builder().build();
+        List<Long> first = ids(searchEngine.findPatients(query, null, null, 5));
+
+        assertEquals(first, ids(searchEngine.findPatients(query, LocalDateTime.of(2025, 1, 20, 9, 0), null, 5)));
+        assertEquals(first, ids(searchEngine.findPatients(query, null, first.get(4), 5)));
+    }
+
+    @Test
+    void largeTextMatchIsQueriedInBoundedSlices() {
+        PersonalModel doctor = entityManager.persist(new PersonalModel("Архівний Лікар", "archive",
+                "0509999999", "Лікар", "Терапевт", "secret", "archive@example.com"));
+        LocalDateTime from = LocalDateTime.of(2024, 1, 1, 9, 0);
+        int rows = 2500;
+        for (int i = 0; i < rows; i++) {
+            String department = i % 2 == 0 ? "Терапія" : "Хірургія";
+            entityManager.persist(new HistoryPatientsModel("Архів " + i, "0670000000", "Грип",
+                    LocalDate.of(1990, 1, 1), 1, doctor, null, department, from.plusHours(i), from.plusHours(i + 1), 1));
+            if (i < 1200) {
+                entityManager.persist(new PatientModel("Архів " + i, "0670000000", "Грип",
+                        LocalDate.of(1990, 1, 1), 1, doctor, null, department,
+                        from.minusHours(i), from.minusHours(i).plusDays(1), 1));
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        searchIndex.rebuild();
+        PatientQuery query = PatientQuery.builder().text(TextSearchIndex.Field.NAME, "архів").build();
+
+        List<PatientListItem> all = searchEngine.findHistory(query, null, rows);
+        assertEquals(rows, all.size());
+        List<PatientListItem> page = searchEngine.findHistory(query, all.get(995).getId(), 10);
+        assertEquals(ids(all.subList(996, 1006)), ids(page));
+        assertEquals(rows, searchEngine.countHistory(query));
+        assertEquals(rows / 2, searchEngine.countHistory(PatientQuery.builder()
+                .text(TextSearchIndex.Field.NAME, "архів").department("Тера").build()));
+
+        List<PatientListItem> patients = searchEngine.findPatients(query, null, null, 10);
+        assertEquals("Архів 1199", patients.get(0).getFullName());
+        assertEquals("Архів 1190", patients.get(9).getFullName());
+        PatientListItem last = patients.get(9);
+        assertEquals("Архів 1189", searchEngine.findPatients(query, last.getAppointmentDateFrom(), last.getId(), 1)
+                .get(0).getFullName());
+    }
+
+    private static List<Long> ids(List<PatientListItem> items) {
+        return items.stream().map(PatientListItem::getId).toList();
+    }
+
+    @TestConfiguration
+    static class Metrics {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package hospital_registration.demo.repo;
+
+import hospital_registration.demo.Models.Announcement;
+import hospital_registration.demo.Models.PersonalModel;
+import hospital_registration.demo.config.HibernateCacheConfig;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Перевіряє, що повторні читання персоналу й оголошень обслуговуються кешем другого рівня
+ * та кешем запитів без SQL, а запис через Hibernate інвалідує закешовані списки.
+ * <p>
+ * Тест працює без спільної транзакції: кожен виклик репозиторію відкриває власний
+ * контекст персистентності, тож кеш першого рівня не приховує звернення до бази.
+ * </p>
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.flyway.enabled=false"
+})
+@Import({HibernateCacheConfig.class, SecondLevelCacheTest.Metrics.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SecondLevelCacheTest {
+
+    @Autowired
+    private PersonalRepo personalRepo;
+
+    @Autowired
+    private AnnouncementRepository announcementRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    private Long doctorId;
+
+    @BeforeEach
+    void setUp() {
+        doctorId = personalRepo.save(new PersonalModel("Лікар Кеш", "cached", "0500000001", "Лікар",
+                "Терапевт", "secret", "cached@example.com")).getId();
+        Announcement announcement = new Announcement();
+        announcement.setTitle("Нарада");
+        announcement.setContent("О 9:00 у конференц-залі");
+        announcementRepository.save(announcement);
+
+        entityManagerFactory.getCache().evictAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    void tearDown() {
+        announcementRepository.deleteAll();
+        personalRepo.deleteAll();
+    }
+
+    @Test
+    void warmStaffReadsIssueNoSql() {
+        readStaff();
+        statistics.clear();
+
+        readStaff();
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertTrue(statistics.getSecondLevelCacheHitCount() > 0);
+        assertTrue(statistics.getQueryCacheHitCount() > 0);
+    }
+
+    @Test
+    void warmAnnouncementListIssuesNoSql() {
+        announcementRepository.findAllByOrderByCreatedAtDesc();
+        statistics.clear();
+
+        assertEquals(1, announcementRepository.findAllByOrderByCreatedAtDesc().size());
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getQueryCacheHitCount());
+    }
+
+    @Test
+    void writeInvalidatesCachedList() {
+        announcementRepository.findAllByOrderByCreatedAtDesc();
+
+        Announcement second = new Announcement();
+        second.setTitle("Графік");
+        second.setContent("Оновлено графік чергувань");
+        announcementRepository.save(second);
+        statistics.clear();
+
+        assertEquals(2, announcementRepository.findAllByOrderByCreatedAtDesc().size());
+        assertEquals(0, statistics.getQueryCacheHitCount());
+    }
+
+    private void readStaff() {
+        assertTrue(personalRepo.findById(doctorId).isPresent());
+        assertTrue(personalRepo.findByLogin("cached").isPresent());
+        assertTrue(personalRepo.existsById(doctorId));
+        assertEquals(1, personalRepo.findAll().size());
+    }
+
+    @TestConfiguration
+    static class Metrics {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package hospital_registration.demo.repo;
+
+import hospital_registration.demo.Models.PersonalModel;
+import hospital_registration.demo.service.StaffSearchEngine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Перевіряє пошук у довіднику персоналу {@link StaffSearchEngine}: префіксні та підрядкові умови,
+ * буквальний пошук символів {@code %} і {@code _} та keyset-пагінацію.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.flyway.enabled=false"
+})
+@Import(StaffSearchEngine.class)
+class StaffSearchQueryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private StaffSearchEngine searchEngine;
+
+    private Long adminId;
+
+    @BeforeEach
+    void setUp() {
+        adminId = entityManager.persist(new PersonalModel("Головний Лікар", "admin", "0500000000",
+                "Головний лікар", "Терапевт", "secret", "admin@example.com")).getId();
+        entityManager.persist(new PersonalModel("Іван Петренко", "ivan_p", "0501111111",
+                "Лікар", "Кардіолог", "secret", "ivan@example.com"));
+        entityManager.persist(new PersonalModel("Петро Іваненко", "ivanko", "0502222222",
+                "Лікар", "Хірург", "secret", "petro@example.com"));
+        entityManager.persist(new PersonalModel("Олена Коваль", "olena", "0673333333",
+                "Медсестра", "100% догляд", "secret", "olena@example.com"));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void currentUserIsExcluded() {
+        assertEquals(3, searchEngine.countStaff("all", "", adminId));
+        assertEquals(List.of("ivan_p", "ivanko", "olena"), logins(searchEngine.findStaff("all", null, adminId, null, 10)));
+    }
+
+    @Test
+    void loginEmailAndPhoneMatchByPrefix() {
+        assertEquals(List.of("ivan_p", "ivanko"), logins(searchEngine.findStaff("login", "ivan", adminId, null, 10)));
+        assertEquals(0, searchEngine.countStaff("login", "van", adminId));
+        assertEquals(List.of("olena"), logins(searchEngine.findStaff("phone", "067", adminId, null, 10)));
+        assertEquals(0, searchEngine.countStaff("email", "example", adminId));
+    }
+
+    @Test
+    void wildcardsInTermAreMatchedLiterally() {
+        assertEquals(List.of("ivan_p"), logins(searchEngine.findStaff("login", "ivan_", adminId, null, 10)));
+        assertEquals(List.of("olena"), logins(searchEngine.findStaff("specialty", "100%", adminId, null, 10)));
+        assertEquals(List.of("olena"), logins(searchEngine.findStaff("all", "%", adminId, null, 10)));
+        assertEquals(0, searchEngine.countStaff("name", "_", adminId));
+    }
+
+    @Test
+    void allSearchCombinesFields() {
+        assertEquals(List.of("ivan_p", "ivanko"), logins(searchEngine.findStaff("all", "Іван", adminId, null, 10)));
+        assertEquals(2, searchEngine.countStaff("all", "Лікар", adminId));
+    }
+
+    @Test
+    void pagesContinueAfterCursor() {
+        List<PersonalModel> first = searchEngine.findStaff("all", "", adminId, null, 2);
+        List<PersonalModel> second = searchEngine.findStaff("all", "", adminId, first.get(1).getId(), 2);
+
+        assertEquals(List.of("ivan_p", "ivanko"), logins(first));
+        assertEquals(List.of("olena"), logins(second));
+    }
+
+    private static List<String> logins(List<PersonalModel> staff) {
+        return staff.stream().map(PersonalModel::getLogin).toList();
+    }
+}
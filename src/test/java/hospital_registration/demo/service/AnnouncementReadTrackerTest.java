@@ -0,0 +1,72 @@
+package hospital_registration.demo.service;
+
+import hospital_registration.demo.Models.AnnouncementReadMark;
+import hospital_registration.demo.repo.AnnouncementReadMarkRepo;
+import hospital_registration.demo.repo.AnnouncementRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Перевіряє лічильники непрочитаних оголошень на основі позначки прочитання.
+ */
+class AnnouncementReadTrackerTest {
+
+    private final AnnouncementRepository announcementRepository = mock(AnnouncementRepository.class);
+    private final AnnouncementReadMarkRepo readMarkRepo = mock(AnnouncementReadMarkRepo.class);
+
+    private AnnouncementReadTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        when(announcementRepository.findAllIds()).thenReturn(List.of(3L, 5L, 8L, 13L));
+        when(readMarkRepo.findAll()).thenReturn(List.of(new AnnouncementReadMark(1L, 5L, LocalDateTime.now())));
+        tracker = new AnnouncementReadTracker(announcementRepository, readMarkRepo);
+        tracker.afterSingletonsInstantiated();
+    }
+
+    @Test
+    void countsAnnouncementsAfterMark() {
+        assertEquals(2, tracker.unreadCount(1L));
+        assertEquals(4, tracker.unreadCount(2L));
+        assertEquals(0, tracker.unreadCount(null));
+    }
+
+    @Test
+    void publishedAnnouncementIsUnreadUntilFeedIsOpened() {
+        tracker.markAllRead(1L);
+        tracker.announcementPublished(21L);
+
+        assertEquals(1, tracker.unreadCount(1L));
+        assertEquals(5, tracker.unreadCount(2L));
+
+        tracker.markAllRead(1L);
+        tracker.markAllRead(1L);
+
+        assertEquals(0, tracker.unreadCount(1L));
+        verify(readMarkRepo, times(2)).save(any(AnnouncementReadMark.class));
+    }
+
+    @Test
+    void rebuildPicksUpChangesFromOtherInstances() {
+        tracker.markAllRead(2L);
+        when(announcementRepository.findAllIds()).thenReturn(List.of(3L, 5L, 8L, 13L, 21L, 34L));
+        when(readMarkRepo.findAll()).thenReturn(List.of(new AnnouncementReadMark(1L, 21L, LocalDateTime.now())));
+
+        tracker.rebuild();
+
+        assertEquals(1, tracker.unreadCount(1L));
+        // Позначка цього вузла ще не видна в базі, але не втрачається
+        assertEquals(2, tracker.unreadCount(2L));
+        assertEquals(6, tracker.unreadCount(3L));
+    }
+}
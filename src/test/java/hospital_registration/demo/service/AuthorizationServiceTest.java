@@ -0,0 +1,64 @@
+package hospital_registration.demo.service;
+
+import hospital_registration.demo.Models.PersonalModel;
+import hospital_registration.demo.Models.StaffPrincipal;
+import hospital_registration.demo.Models.StaffRole;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Перевіряє, що перевірки доступу за роллю поводяться так само, як колишнє порівняння рядків посад.
+ */
+class AuthorizationServiceTest {
+
+    private final AuthorizationService authService = new AuthorizationService();
+
+    @Test
+    void exactDoctorPositionIsLimitedToOwnPatients() {
+        StaffPrincipal doctor = principal(" лікар ");
+
+        assertEquals(StaffRole.DOCTOR, doctor.getRole());
+        assertTrue(authService.isDoctor(doctor));
+        assertTrue(authService.hasDoctorAccess(doctor));
+        assertEquals("Лікар", authService.getUserRole(doctor));
+    }
+
+    @Test
+    void otherDoctorPositionHasDoctorAccessWithoutBeingDoctor() {
+        StaffPrincipal surgeon = principal("Лікар-хірург");
+
+        assertEquals(StaffRole.OTHER_DOCTOR, surgeon.getRole());
+        assertFalse(authService.isDoctor(surgeon));
+        assertFalse(authService.isMainDoctor(surgeon));
+        assertTrue(authService.isAnyDoctor(surgeon));
+        assertTrue(authService.hasDoctorAccess(surgeon));
+        assertFalse(authService.isNurse(surgeon));
+        assertEquals("Лікар-хірург", authService.getUserRole(surgeon));
+        assertEquals("Лікар-хірург", surgeon.getPosition());
+    }
+
+    @Test
+    void nursePositionsAndUnknownPositions() {
+        StaffPrincipal seniorNurse = principal("Старша медсестра");
+        StaffPrincipal admin = principal("Адміністратор");
+
+        assertTrue(authService.isNurse(seniorNurse));
+        assertFalse(authService.hasDoctorAccess(seniorNurse));
+        assertEquals("Медсестра/Медбрат", authService.getUserRole(seniorNurse));
+
+        assertFalse(authService.hasDoctorAccess(admin));
+        assertFalse(authService.isNurse(admin));
+        assertEquals("Адміністратор", authService.getUserRole(admin));
+        assertEquals("Невідома роль", authService.getUserRole(null));
+    }
+
+    private static StaffPrincipal principal(String position) {
+        PersonalModel personal = new PersonalModel("Співробітник", "staff", "0500000000", position,
+                "Терапевт", "hash", "staff@example.com");
+        personal.setId(1L);
+        return StaffPrincipal.of(personal);
+    }
+}
@@ -0,0 +1,147 @@
+package hospital_registration.demo.service;
+
+import hospital_registration.demo.Models.PatientModel;
+import hospital_registration.demo.repo.PatientRepo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Перевіряє перевірку зайнятості ліжок індексом у пам'яті.
+ */
+class BedOccupancyIndexTest {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2025, 3, 1, 0, 0);
+
+    private final PatientRepo patientRepo = mock(PatientRepo.class);
+    private final BedOccupancyIndex index = new BedOccupancyIndex(patientRepo);
+
+    @BeforeEach
+    void setUp() {
+        when(patientRepo.findAllBedStays()).thenReturn(List.of());
+        index.rebuild();
+    }
+
+    @Test
+    void stayIsHalfOpen() {
+        admit(1L, 1, 1, "Терапія", day(1), day(5));
+
+        assertTrue(index.isFree(1, 1, day(5), day(7), null));
+        assertTrue(index.isFree(1, 1, day(0), day(1), null));
+        assertFalse(index.isFree(1, 1, day(4), day(6), null));
+        assertFalse(index.isFree(1, 1, day(0), day(2), null));
+        assertFalse(index.isFree(1, 1, day(2), day(3), null));
+        assertTrue(index.isFree(1, 2, day(2), day(3), null));
+    }
+
+    @Test
+    void editIgnoresOwnStayButNotOthers() {
+        admit(1L, 1, 1, "Терапія", day(1), day(5));
+        admit(2L, 1, 1, "Терапія", day(5), day(9));
+
+        assertTrue(index.isFree(1, 1, day(2), day(5), 1L));
+        assertFalse(index.isFree(1, 1, day(2), day(6), 1L));
+        assertTrue(index.isFree(1, 1, day(5), day(8), 2L));
+    }
+
+    @Test
+    void removingLongestStayFreesItsRange() {
+        admit(1L, 1, 1, "Терапія", day(1), day(30));
+        admit(2L, 1, 1, "Терапія", day(2), day(3));
+
+        assertFalse(index.isFree(1, 1, day(10), day(11), null));
+
+        PatientModel discharged = new PatientModel();
+        discharged.setId(1L);
+        index.onPatientChanged(PatientChangedEvent.discharged(discharged, null));
+
+        assertTrue(index.isFree(1, 1, day(10), day(11), null));
+        assertFalse(index.isFree(1, 1, day(2), day(4), null));
+    }
+
+    @Test
+    void updateMovesStayToNewBed() {
+        admit(1L, 1, 1, "Терапія", day(1), day(5));
+        admit(1L, 2, 3, "Терапія", day(1), day(5));
+
+        assertTrue(index.isFree(1, 1, day(1), day(5), null));
+        assertFalse(index.isFree(2, 3, day(1), day(5), null));
+    }
+
+    @Test
+    void findFirstFreeBedSkipsOccupiedBedsOfDepartment() {
+        admit(1L, 1, 1, "Терапія", day(1), day(5));
+        admit(2L, 1, 2, "Терапія", day(3), day(8));
+        admit(3L, 2, 1, "Хірургія", day(0), day(1));
+
+        assertEquals(Optional.of(new BedOccupancyIndex.BedKey(1, 2)),
+                index.findFirstFreeBed("Терапія", day(1), day(3)));
+        assertEquals(Optional.of(new BedOccupancyIndex.BedKey(1, 1)),
+                index.findFirstFreeBed("Терапія", day(8), day(9)));
+        assertEquals(Optional.empty(), index.findFirstFreeBed("Терапія", day(4), day(5)));
+        assertEquals(Optional.empty(), index.findFirstFreeBed("Кардіологія", day(1), day(2)));
+    }
+
+    @Test
+    void matchesFullScanAfterRandomChanges() {
+        Random random = new Random(42);
+        List<long[]> stays = new ArrayList<>();
+        for (long id = 1; id <= 300; id++) {
+            long from = random.nextInt(200);
+            long to = from + 1 + random.nextInt(random.nextInt(10) == 0 ? 120 : 6);
+            admit(id, 1, 1, "Терапія", hour(from), hour(to));
+            stays.add(new long[]{id, from, to});
+        }
+        for (int i = 0; i < 100; i++) {
+            long[] stay = stays.remove(random.nextInt(stays.size()));
+            PatientModel discharged = new PatientModel();
+            discharged.setId(stay[0]);
+            index.onPatientChanged(PatientChangedEvent.discharged(discharged, null));
+        }
+
+        for (int i = 0; i < 2000; i++) {
+            long from = random.nextInt(340);
+            long to = from + 1 + random.nextInt(8);
+            Long exclude = random.nextBoolean() ? stays.get(random.nextInt(stays.size()))[0] : null;
+            boolean expected = true;
+            for (long[] stay : stays) {
+                if (stay[1] < to && stay[2] > from && (exclude == null || stay[0] != exclude)) {
+                    expected = false;
+                    break;
+                }
+            }
+            assertEquals(expected, index.isFree(1, 1, hour(from), hour(to), exclude),
+                    "[" + from + ", " + to + ") без " + exclude);
+        }
+    }
+
+    private void admit(long id, int ward, int bed, String department, LocalDateTime from, LocalDateTime to) {
+        PatientModel patient = new PatientModel();
+        patient.setId(id);
+        patient.setWard(ward);
+        patient.setBed(bed);
+        patient.setDepartment(department);
+        patient.setAppointmentDateFrom(from);
+        patient.setAppointmentDateTo(to);
+        index.onPatientChanged(PatientChangedEvent.admitted(patient));
+    }
+
+    private static LocalDateTime day(int day) {
+        return DAY.plusDays(day);
+    }
+
+    private static LocalDateTime hour(long hour) {
+        return DAY.plusHours(hour);
+    }
+}
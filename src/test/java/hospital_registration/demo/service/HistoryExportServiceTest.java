@@ -0,0 +1,137 @@
+package hospital_registration.demo.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import hospital_registration.demo.Models.HistoryPatientsModel;
+import hospital_registration.demo.Models.PersonalModel;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Перевіряє фільтри та формат потокового експорту історії.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.flyway.enabled=false"
+})
+@Import({HistoryExportService.class, HistoryExportServiceTest.Beans.class})
+class HistoryExportServiceTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private HistoryExportService exportService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private PersonalModel doctor;
+
+    @BeforeEach
+    void setUp() {
+        doctor = entityManager.persist(new PersonalModel("Лікар Експорт", "export", "0500000000",
+                "Лікар", "Терапевт", "secret", "export@example.com"));
+        PersonalModel other = entityManager.persist(new PersonalModel("Інший лікар", "other", "0500000001",
+                "Лікар", "Хірург", "secret", "other@example.com"));
+        archive("Пацієнт А", "Грип", "примітка, з комою", doctor, LocalDateTime.of(2025, 3, 1, 10, 0));
+        archive("Пацієнт Б", "Грип", null, doctor, LocalDateTime.of(2025, 3, 31, 23, 30));
+        archive("Пацієнт В", "Перелом", null, doctor, LocalDateTime.of(2025, 3, 15, 12, 0));
+        archive("Пацієнт Г", "Грип", null, other, LocalDateTime.of(2025, 3, 10, 8, 0));
+        archive("Пацієнт Д", "Грип", null, doctor, LocalDateTime.of(2025, 4, 1, 0, 0));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void csvExportAppliesFiltersAndQuotesCells() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        HistoryExportService.Filter filter = new HistoryExportService.Filter(
+                LocalDate.of(2025, 3, 1), LocalDate.of(2025, 3, 31), doctor.getId(), "Грип");
+
+        HistoryExportService.ExportRun run = exportService.export(filter, HistoryExportService.Format.CSV, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, run.rows());
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].startsWith("﻿id,fullName,phone"));
+        assertTrue(lines[1].contains(",Пацієнт А,") && lines[1].contains("\"примітка, з комою\""));
+        assertTrue(lines[2].contains(",Пацієнт Б,"));
+        assertEquals(2.0, meterRegistry.get("hospital.history.export.rows").counter().count());
+    }
+
+    @Test
+    void csvExportNeutralizesFormulasAndMatchesWildcardsLiterally() throws IOException {
+        archive("Пацієнт Е", "=HYPERLINK(\"http://example.com\")", "-2+3", doctor, LocalDateTime.of(2025, 3, 20, 9, 0));
+        archive("Пацієнт Є", "ГРВІ 100%", "@SUM(A1)", doctor, LocalDateTime.of(2025, 3, 21, 9, 0));
+        entityManager.flush();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.export(new HistoryExportService.Filter(null, null, null, "="),
+                HistoryExportService.Format.CSV, out);
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[1].contains(",\"'=HYPERLINK(\"\"http://example.com\"\")\","));
+        assertTrue(lines[1].contains(",'-2+3,"));
+
+        out.reset();
+        HistoryExportService.ExportRun percent = exportService.export(
+                new HistoryExportService.Filter(null, null, null, "%"), HistoryExportService.Format.CSV, out);
+        assertEquals(1, percent.rows());
+        assertTrue(out.toString(StandardCharsets.UTF_8).contains(",'@SUM(A1),"));
+
+        HistoryExportService.ExportRun underscore = exportService.export(
+                new HistoryExportService.Filter(null, null, null, "_"), HistoryExportService.Format.CSV,
+                new ByteArrayOutputStream());
+        assertEquals(0, underscore.rows());
+    }
+
+    @Test
+    void ndjsonExportWritesOneObjectPerLine() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        HistoryExportService.ExportRun run = exportService.export(
+                new HistoryExportService.Filter(null, null, null, null), HistoryExportService.Format.NDJSON, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(5, run.rows());
+        assertEquals(5, lines.length);
+        assertTrue(lines[0].startsWith("{") && lines[0].contains("\"fullName\":\"Пацієнт А\""));
+    }
+
+    private void archive(String name, String diagnosis, String notes, PersonalModel doctor, LocalDateTime dischargedAt) {
+        entityManager.persist(new HistoryPatientsModel(name, "0670000000", diagnosis, LocalDate.of(1990, 1, 1),
+                1, doctor, notes, "Терапія", dischargedAt.minusDays(3), dischargedAt, 1));
+    }
+
+    @TestConfiguration
+    static class Beans {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        ObjectMapper objectMapper() {
+            return new ObjectMapper().registerModule(new JavaTimeModule());
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package hospital_registration.demo.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Перевіряє порівняння паролів і рішення про повторне хешування після входу.
+ */
+class PasswordServiceTest {
+
+    private final PasswordService passwordService = new PasswordService(new BCryptPasswordEncoder(5));
+
+    @Test
+    void plaintextStoredValueNeverMatches() {
+        assertFalse(passwordService.matchesPassword("secret", "secret"));
+        assertFalse(passwordService.matchesPassword(null, passwordService.encodePassword("secret")));
+        assertFalse(passwordService.needsRehash("secret"));
+    }
+
+    @Test
+    void weakerBcryptCostNeedsRehash() {
+        String weak = new BCryptPasswordEncoder(4).encode("secret");
+        String current = passwordService.encodePassword("secret");
+
+        assertTrue(passwordService.matchesPassword("secret", weak));
+        assertTrue(passwordService.needsRehash(weak));
+        assertTrue(passwordService.matchesPassword("secret", current));
+        assertFalse(passwordService.needsRehash(current));
+    }
+}
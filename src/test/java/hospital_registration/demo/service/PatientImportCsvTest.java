@@ -0,0 +1,36 @@
+package hospital_registration.demo.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Перевіряє читання записів CSV імпорту, зокрема комірок у лапках, які створює експорт історії.
+ */
+class PatientImportCsvTest {
+
+    @Test
+    void quotedCellsKeepDelimitersQuotesAndLineBreaks() throws IOException {
+        BufferedReader reader = new BufferedReader(new StringReader(
+                "1,\"Пацієнт, А\",\"рядок 1\r\nрядок 2\",\"сказав \"\"так\"\"\"\r\n2,Пацієнт Б,,\n"));
+
+        assertEquals(List.of("1", "Пацієнт, А", "рядок 1\r\nрядок 2", "сказав \"так\""),
+                PatientImportService.readCsvRecord(reader, ','));
+        assertEquals(List.of("2", "Пацієнт Б", "", ""), PatientImportService.readCsvRecord(reader, ','));
+        assertNull(PatientImportService.readCsvRecord(reader, ','));
+    }
+
+    @Test
+    void lastRecordWithoutLineBreakIsRead() throws IOException {
+        BufferedReader reader = new BufferedReader(new StringReader("a;\"b;c\""));
+
+        assertEquals(List.of("a", "b;c"), PatientImportService.readCsvRecord(reader, ';'));
+        assertNull(PatientImportService.readCsvRecord(reader, ';'));
+    }
+}
@@ -0,0 +1,48 @@
+package hospital_registration.demo.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Перевіряє розбір рядка пошуку в типізовані умови без винятків.
+ */
+class PatientQueryParserTest {
+
+    @Test
+    void allTypeDetectsDateAndSearchesDigitsInAllFields() {
+        PatientQuery date = PatientQueryParser.parse("all", " 05.03.2025 ").build();
+        assertEquals(new PatientQuery.DateMatch(PatientQuery.DateField.ANY, LocalDate.of(2025, 3, 5)), date.date());
+        assertTrue(date.texts().isEmpty());
+
+        // Цифри шукаються не лише в телефоні, а й у ПІБ та діагнозі
+        PatientQuery digits = PatientQueryParser.parse("all", "+38 (067) 12").build();
+        assertEquals(List.of(new PatientQuery.TextMatch(null, "+38 (067) 12")), digits.texts());
+
+        PatientQuery phone = PatientQueryParser.parse("phone", "067").build();
+        assertEquals(List.of(new PatientQuery.TextMatch(TextSearchIndex.Field.PHONE, "067")), phone.texts());
+
+        PatientQuery text = PatientQueryParser.parse("all", "Грип").build();
+        assertEquals(List.of(new PatientQuery.TextMatch(null, "грип")), text.texts());
+    }
+
+    @Test
+    void invalidDateMatchesNothingForDateTypes() {
+        assertTrue(PatientQueryParser.parse("recordedDATE", "31.02.2025").build().matchesNothing());
+        assertTrue(PatientQueryParser.parse("dischargeDATE", "завтра").build().matchesNothing());
+        assertNull(PatientQueryParser.parseDate("29.02.2025"));
+        assertEquals(LocalDate.of(2024, 2, 29), PatientQueryParser.parseDate("29.02.2024"));
+    }
+
+    @Test
+    void emptyTermHasNoFilters() {
+        assertFalse(PatientQueryParser.parse("name", "  ").build().hasFilters());
+        assertFalse(PatientQueryParser.parse(null, null).build().hasFilters());
+    }
+}
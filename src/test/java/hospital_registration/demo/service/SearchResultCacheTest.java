@@ -0,0 +1,126 @@
+package hospital_registration.demo.service;
+
+import hospital_registration.demo.Models.PatientModel;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Перевіряє об'єднання однакових одночасних пошуків та скидання кешу при зміні пацієнтів.
+ */
+class SearchResultCacheTest {
+
+    private static final int CLIENTS = 8;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SearchResultCache cache = new SearchResultCache(meterRegistry, Duration.ofMinutes(1), Duration.ofHours(1), 1000);
+
+    @Test
+    void concurrentIdenticalSearchesRunOneQuery() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(CLIENTS);
+        try {
+            List<Future<List<Long>>> results = new ArrayList<>();
+            for (int i = 0; i < CLIENTS; i++) {
+                // Різний регістр і пробіли дають той самий нормалізований ключ
+                String term = i % 2 == 0 ? "Грип" : " грип ";
+                results.add(pool.submit(() -> cache.get(SearchResultCache.Scope.PATIENTS, diagnosis(term), () -> {
+                    loads.incrementAndGet();
+                    await(release);
+                    return List.of(1L, 2L, 3L);
+                })));
+            }
+            // Даємо всім клієнтам дійти до кешу, поки перший запит ще виконується
+            Thread.sleep(200);
+            release.countDown();
+            for (Future<List<Long>> result : results) {
+                assertEquals(List.of(1L, 2L, 3L), result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(1, loads.get());
+        assertEquals(1.0, counter("miss"));
+        assertEquals(CLIENTS - 1.0, counter("coalesced") + counter("hit"));
+        assertTrue(counter("coalesced") > 0);
+    }
+
+    @Test
+    void patientChangeInvalidatesCachedResults() {
+        AtomicInteger loads = new AtomicInteger();
+        cache.get(SearchResultCache.Scope.PATIENTS, name(5L, "Іван"), () -> List.of(loads.incrementAndGet()));
+        cache.get(SearchResultCache.Scope.PATIENTS, name(5L, "Іван"), () -> List.of(loads.incrementAndGet()));
+        assertEquals(1, loads.get());
+        assertEquals(1.0, counter("hit"));
+
+        cache.onPatientChanged(PatientChangedEvent.updated(new PatientModel()));
+
+        List<Integer> reloaded = cache.get(SearchResultCache.Scope.PATIENTS, name(5L, "Іван"),
+                () -> List.of(loads.incrementAndGet()));
+        assertEquals(List.of(2), reloaded);
+    }
+
+    @Test
+    void onlyDischargeChangesHistoryVersion() {
+        long version = cache.version(SearchResultCache.Scope.HISTORY);
+        long modified = cache.lastModified(SearchResultCache.Scope.HISTORY);
+
+        cache.onPatientChanged(PatientChangedEvent.updated(new PatientModel()));
+        assertEquals(version, cache.version(SearchResultCache.Scope.HISTORY));
+
+        cache.onPatientsArchived(new PatientsArchivedEvent(List.of(1L), List.of()));
+        assertEquals(version + 1, cache.version(SearchResultCache.Scope.HISTORY));
+        assertTrue(cache.lastModified(SearchResultCache.Scope.HISTORY) > modified);
+    }
+
+    @Test
+    void failedLoadDoesNotBlockKey() {
+        PatientQuery query = diagnosis("кір");
+
+        assertThrows(StackOverflowError.class, () -> cache.get(SearchResultCache.Scope.HISTORY, query, () -> {
+            throw new StackOverflowError();
+        }));
+        assertThrows(IllegalStateException.class, () -> cache.get(SearchResultCache.Scope.HISTORY, query, () -> {
+            throw new IllegalStateException();
+        }));
+        assertEquals(List.of(7L), cache.get(SearchResultCache.Scope.HISTORY, query, () -> List.of(7L)));
+    }
+
+    private static PatientQuery diagnosis(String term) {
+        return PatientQuery.builder().text(TextSearchIndex.Field.DIAGNOSIS, term).build();
+    }
+
+    private static PatientQuery name(Long doctorId, String term) {
+        return PatientQuery.builder().doctor(doctorId).text(TextSearchIndex.Field.NAME, term).build();
+    }
+
+    private double counter(String result) {
+        Counter counter = meterRegistry.find("hospital.search.cache").tag("result", result).counter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package hospital_registration.demo.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Перевіряє оцінки count-min sketch у ковзному вікні.
+ */
+class SlidingCountMinSketchTest {
+
+    private static final long WINDOW = 60_000;
+
+    @Test
+    void countsPerKeyWithoutUnderestimating() {
+        SlidingCountMinSketch sketch = new SlidingCountMinSketch(WINDOW, 6, 4, 1024);
+        for (int i = 0; i < 200; i++) {
+            sketch.incrementAndEstimate("user" + i, 1_000);
+        }
+        for (int i = 0; i < 7; i++) {
+            sketch.incrementAndEstimate("doctor", 1_000 + i);
+        }
+
+        int estimate = sketch.estimate("doctor", 2_000);
+        assertTrue(estimate >= 7);
+        assertTrue(estimate <= 8);
+    }
+
+    @Test
+    void oldBucketsLeaveTheWindow() {
+        SlidingCountMinSketch sketch = new SlidingCountMinSketch(WINDOW, 6, 4, 1024);
+        sketch.incrementAndEstimate("doctor", 0);
+        sketch.incrementAndEstimate("doctor", 0);
+        assertEquals(3, sketch.incrementAndEstimate("doctor", 30_000));
+
+        assertEquals(1, sketch.estimate("doctor", 65_000));
+        assertEquals(1, sketch.incrementAndEstimate("doctor", 125_000));
+    }
+}